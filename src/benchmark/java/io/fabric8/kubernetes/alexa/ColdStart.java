@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fabric8.kubernetes.alexa;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * What a lambda cold start goes through: creates the {@link KubernetesRequestStreamHandler} in a fresh JVM and passes
+ * it the test envelopes, one after the other. Prints a single line with the time from the start of the JVM until the
+ * handler was created, until the first response was written and until all responses were written, in milliseconds.
+ * The API server is expected at the url in the kubernetes.master system property and the {@link #SKILL_ID skill id} of
+ * the envelopes in the environment, see {@link ColdStartArchive}.
+ */
+public final class ColdStart {
+
+    static final String[] ENVELOPES = {"/launch-request.json", "/get-pods.json", "/get-services.json"};
+    static final String SKILL_ID = "amzn1.ask.skill.8a8757bd-8380-449b-947c-612a42e069e3";
+    static final String RESULT_PREFIX = "cold-start";
+
+    private ColdStart() {
+        //Utility class
+    }
+
+    public static void main(String[] args) throws IOException {
+        KubernetesRequestStreamHandler handler = new KubernetesRequestStreamHandler();
+        long init = uptime();
+
+        long first = 0;
+        for (String envelope : ENVELOPES) {
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            handler.handleRequest(new ByteArrayInputStream(load(envelope)), response, null);
+            if (!response.toString(StandardCharsets.UTF_8.name()).contains("\"outputSpeech\"")) {
+                throw new IllegalStateException("Unexpected response to " + envelope + ": " + response);
+            }
+            if (first == 0) {
+                first = uptime();
+            }
+        }
+        System.out.println(RESULT_PREFIX + " init=" + init + " first=" + first + " total=" + uptime());
+        System.exit(0);
+    }
+
+    private static long uptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    /**
+     * Loads a test envelope, with the timestamp set to now so that the envelope passes verification.
+     */
+    private static byte[] load(String name) throws IOException {
+        String envelope;
+        try (InputStream in = ColdStart.class.getResourceAsStream(name)) {
+            envelope = IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+        return envelope.replaceAll("\"timestamp\"\\s*:\\s*\"[^\"]*\"", "\"timestamp\": \"" + Instant.now().truncatedTo(ChronoUnit.SECONDS) + "\"")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
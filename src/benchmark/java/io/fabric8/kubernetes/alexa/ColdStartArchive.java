@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fabric8.kubernetes.alexa;
+
+import io.fabric8.kubernetes.alexa.cache.ApiDiscovery;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Creates an application class-data sharing archive from a training run of {@link ColdStart} and reports the cold
+ * start with and without it, and with and without {@link Priming}, as the median of a number of runs.
+ * The archive only covers classes loaded from jars, so the directories on the classpath are packed into jars first.
+ * Needs a Java 11+ runtime, as OpenJDK 8 only shares the classes of the JDK itself.
+ *
+ * Options are passed as key=value arguments:
+ * - runs           The number of runs of each configuration (defaults to 5).
+ * - dir            The directory for the jars, the class list and the archive (defaults to target/cds).
+ */
+public final class ColdStartArchive {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("runs", "5");
+        DEFAULTS.put("dir", "target/cds");
+    }
+
+    private static final String EMPTY_LIST = "{\"apiVersion\":\"v1\",\"metadata\":{\"resourceVersion\":\"1\"},\"items\":[]}";
+    private static final String NAMESPACE_LIST = "{\"apiVersion\":\"v1\",\"kind\":\"NamespaceList\",\"metadata\":{\"resourceVersion\":\"1\"},"
+            + "\"items\":[{\"metadata\":{\"name\":\"default\"}}]}";
+    private static final String POD_LIST = "{\"apiVersion\":\"v1\",\"kind\":\"PodList\",\"metadata\":{\"resourceVersion\":\"1\"},"
+            + "\"items\":[{\"metadata\":{\"name\":\"web-0\",\"namespace\":\"default\",\"uid\":\"web-0\",\"labels\":{\"app\":\"web\"}},"
+            + "\"status\":{\"phase\":\"Running\"}}]}";
+    private static final String SERVICE_LIST = "{\"apiVersion\":\"v1\",\"kind\":\"ServiceList\",\"metadata\":{\"resourceVersion\":\"1\"},"
+            + "\"items\":[{\"metadata\":{\"name\":\"web\",\"namespace\":\"default\"},\"spec\":{\"selector\":{\"app\":\"web\"}}}]}";
+    private static final String API_ROOT = "{\"paths\":[\"/api\",\"/api/v1\",\"/apis\",\"/apis/extensions\",\"/apis/extensions/v1beta1\"]}";
+
+    private ColdStartArchive() {
+        //Utility class
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int runs = Integer.parseInt(options.get("runs"));
+        Path dir = Paths.get(options.get("dir")).toAbsolutePath();
+        if (System.getProperty("java.specification.version").startsWith("1.")) {
+            throw new IllegalStateException("Application class-data sharing needs a Java 11+ runtime, but this is "
+                    + System.getProperty("java.version") + ".");
+        }
+        Files.createDirectories(dir);
+        String classpath = toJars(System.getProperty("java.class.path"), dir);
+        Path classList = dir.resolve("classes.lst");
+        Path archive = dir.resolve("kubernetes-alexa.jsa");
+
+        //MockWebServer logs every request it serves.
+        Logger.getLogger(MockWebServer.class.getName()).setLevel(Level.WARNING);
+        try (MockWebServer server = newServer()) {
+            List<String> java = Arrays.asList(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-Dkubernetes.master=" + server.url("/"),
+                    "-Dkubernetes.auth.tryKubeConfig=false",
+                    "-Dkubernetes.auth.tryServiceAccount=false",
+                    "-Dkubernetes.namespace=default",
+                    "-cp", classpath);
+
+            System.out.println("Training run, writing the loaded classes to " + classList + ".");
+            coldStart(java, dir, true, "-Xshare:off", "-XX:DumpLoadedClassList=" + classList);
+            System.out.println("Dumping the archive to " + archive + ".");
+            run(command(java, "-Xshare:dump", "-XX:SharedClassListFile=" + classList, "-XX:SharedArchiveFile=" + archive), dir, false);
+
+            Map<String, List<long[]>> results = new LinkedHashMap<>();
+            String[] configurations = {"default", "priming", "archive", "archive+priming"};
+            for (String configuration : configurations) {
+                results.put(configuration, new ArrayList<>());
+            }
+            System.out.println("Measuring " + runs + " cold starts of each configuration with " + System.getProperty("java.vm.name") + " "
+                    + System.getProperty("java.version") + ".");
+            for (int i = 0; i < runs; i++) {
+                results.get("default").add(coldStart(java, dir, false));
+                results.get("priming").add(coldStart(java, dir, true));
+                results.get("archive").add(coldStart(java, dir, false, "-XX:SharedArchiveFile=" + archive, "-Xshare:on"));
+                results.get("archive+priming").add(coldStart(java, dir, true, "-XX:SharedArchiveFile=" + archive, "-Xshare:on"));
+            }
+            report(results);
+        }
+    }
+
+    /**
+     * The API server: just enough for the intents of the test envelopes.
+     */
+    private static MockWebServer newServer() throws IOException {
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getRequestUrl().encodedPath();
+                String body;
+                if (path.equals("/")) {
+                    body = API_ROOT;
+                } else if (path.equals("/api/v1/namespaces")) {
+                    body = NAMESPACE_LIST;
+                } else if (path.endsWith("/pods")) {
+                    body = POD_LIST;
+                } else if (path.endsWith("/services")) {
+                    body = SERVICE_LIST;
+                } else {
+                    body = EMPTY_LIST;
+                }
+                return new MockResponse().setBody(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    /**
+     * Runs {@link ColdStart} in a fresh JVM, without the api discovery snapshot of previous runs.
+     * @return The init, first response and total times in milliseconds.
+     */
+    private static long[] coldStart(List<String> java, Path dir, boolean priming, String... jvmOptions) throws IOException, InterruptedException {
+        Path discovery = dir.resolve("discovery.json");
+        Files.deleteIfExists(discovery);
+        List<String> command = command(java, jvmOptions);
+        command.add(ColdStart.class.getName());
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.environment().put(Priming.PRIMING_ENABLED_ENV_VAR, String.valueOf(priming));
+        builder.environment().put(ApiDiscovery.SNAPSHOT_FILE_ENV_VAR, discovery.toString());
+        builder.environment().put(KubernetesClients.ALEXA_SKILL_ID_ENV_VAR, ColdStart.SKILL_ID);
+        String output = run(builder, dir, false);
+        String result = Stream.of(output.split("\n"))
+                .filter(line -> line.startsWith(ColdStart.RESULT_PREFIX))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Cold start didn't report its times:\n" + output));
+        return Stream.of(result.substring(ColdStart.RESULT_PREFIX.length()).trim().split(" "))
+                .mapToLong(value -> Long.parseLong(value.substring(value.indexOf('=') + 1)))
+                .toArray();
+    }
+
+    private static List<String> command(List<String> java, String... jvmOptions) {
+        List<String> command = new ArrayList<>(java.subList(0, 1));
+        Collections.addAll(command, jvmOptions);
+        command.addAll(java.subList(1, java.size()));
+        return command;
+    }
+
+    private static String run(List<String> command, Path dir, boolean print) throws IOException, InterruptedException {
+        return run(new ProcessBuilder(command), dir, print);
+    }
+
+    private static String run(ProcessBuilder builder, Path dir, boolean print) throws IOException, InterruptedException {
+        Process process = builder.directory(dir.toFile()).redirectErrorStream(true).start();
+        String output = IOUtils.toString(process.getInputStream(), StandardCharsets.UTF_8);
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException(String.join(" ", builder.command()) + " exited with " + exitCode + ":\n" + output);
+        }
+        if (print) {
+            System.out.print(output);
+        }
+        return output;
+    }
+
+    /**
+     * Reports the medians of the time until the handler was created (which on lambda happens in the init phase), of the
+     * first request itself, until the first response and until all responses.
+     */
+    private static void report(Map<String, List<long[]>> results) {
+        System.out.println(String.format("%-16s %10s %16s %18s %11s", "Configuration", "init (ms)", "1st request (ms)", "1st response (ms)", "total (ms)"));
+        results.forEach((configuration, times) -> System.out.println(String.format("%-16s %10d %16d %18d %11d", configuration,
+                median(times, t -> t[0]), median(times, t -> t[1] - t[0]), median(times, t -> t[1]), median(times, t -> t[2]))));
+    }
+
+    private static long median(List<long[]> times, ToLongFunction<long[]> time) {
+        long[] sorted = times.stream().mapToLong(time).sorted().toArray();
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Replaces the directories on the classpath with jars of their content, as only classes from jars get archived.
+     */
+    private static String toJars(String classpath, Path dir) throws IOException {
+        List<String> entries = new ArrayList<>();
+        int index = 0;
+        for (String entry : classpath.split(File.pathSeparator)) {
+            Path path = Paths.get(entry);
+            if (Files.isDirectory(path)) {
+                Path jar = dir.resolve("classpath-" + index++ + ".jar");
+                writeJar(path, jar);
+                entries.add(jar.toString());
+            } else if (Files.exists(path)) {
+                entries.add(entry);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static void writeJar(Path directory, Path jar) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                out.putNextEntry(new JarEntry(directory.relativize(file).toString().replace(File.separatorChar, '/')));
+                Files.copy(file, (OutputStream) out);
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            String[] keyAndValue = arg.split("=", 2);
+            if (keyAndValue.length != 2 || !DEFAULTS.containsKey(keyAndValue[0])) {
+                throw new IllegalArgumentException("Unknown option: " + arg + ". Supported options are: " + DEFAULTS.keySet() + ".");
+            }
+            options.put(keyAndValue[0], keyAndValue[1]);
+        }
+        return options;
+    }
+}
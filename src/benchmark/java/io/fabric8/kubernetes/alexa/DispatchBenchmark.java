@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import com.amazon.speech.json.SpeechletRequestEnvelope;
+import com.amazon.speech.speechlet.IntentRequest;
+import com.amazon.speech.speechlet.Session;
+import com.amazon.speech.speechlet.SpeechletException;
+import com.amazon.speech.speechlet.SpeechletResponse;
+import io.fabric8.kubernetes.alexa.progressive.ProgressiveResponseSender;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link RequestDispatcher#onIntent(IntentRequest, Session)} end to end (handler lookup, filters, name
+ * resolution, the list call over HTTP and building the response) for the recorded request envelopes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DispatchBenchmark {
+
+    @Param({"/get-pods.json", "/get-services.json"})
+    public String envelope;
+
+    @Param({"10", "500"})
+    public int itemsPerNamespace;
+
+    private MockCluster cluster;
+    private RequestDispatcher<KubernetesClient> dispatcher;
+    private IntentRequest request;
+    private Session session;
+
+    @Setup
+    public void setUp() throws IOException {
+        cluster = new MockCluster(itemsPerNamespace, "default", "syndesis-ci");
+        dispatcher = new RequestDispatcher<>(cluster.getClient(), ProgressiveResponseSender.NOOP);
+        try (InputStream in = getClass().getResourceAsStream(envelope)) {
+            SpeechletRequestEnvelope<?> parsed = SpeechletRequestEnvelope.fromJson(IOUtils.toByteArray(in));
+            request = (IntentRequest) parsed.getRequest();
+            session = parsed.getSession();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        cluster.close();
+    }
+
+    @Benchmark
+    public SpeechletResponse onIntent() throws SpeechletException {
+        return dispatcher.onIntent(request, session);
+    }
+}
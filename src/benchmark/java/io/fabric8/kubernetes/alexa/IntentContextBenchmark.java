@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import com.amazon.speech.slu.Intent;
+import com.amazon.speech.slu.Slot;
+import com.amazon.speech.speechlet.Session;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static io.fabric8.kubernetes.alexa.IntentContext.FIELD_FILTER;
+import static io.fabric8.kubernetes.alexa.IntentContext.LABEL_FILTER;
+import static io.fabric8.kubernetes.alexa.IntentContext.NAMESPACE_FILTER;
+
+/**
+ * Measures chaining the filters of {@link IntentContext#asOperation(java.util.function.Function[])}.
+ * The namespace is resolved through the name index, so after the first invocation it doesn't hit the API server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IntentContextBenchmark {
+
+    private MockCluster cluster;
+    private IntentContext<BaseOperation<Pod, PodList, ?, ?>> context;
+
+    @Setup
+    public void setUp() throws IOException {
+        cluster = new MockCluster(1, "default", "syndesis-ci");
+        Session session = Session.builder().withSessionId("session-1").build();
+        session.setAttribute(Variable.Labels.name(), "app=web,tier=frontend");
+        session.setAttribute(Variable.Fields.name(), "status.phase=Running");
+        Intent intent = Intent.builder()
+                .withName("GetPods")
+                .withSlots(Collections.singletonMap(Variable.Namespace.name(),
+                        Slot.builder().withName(Variable.Namespace.name()).withValue("syndesis").build()))
+                .build();
+        context = new IntentContext<>(intent, session, (BaseOperation<Pod, PodList, ?, ?>) cluster.getClient().pods(), cluster.getClient());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        cluster.close();
+    }
+
+    @Benchmark
+    public Object labelAndFieldFilters() {
+        return context.asOperation(LABEL_FILTER, FIELD_FILTER);
+    }
+
+    @Benchmark
+    public Object listFilters() {
+        return context.asOperation(NAMESPACE_FILTER, LABEL_FILTER, FIELD_FILTER);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import io.fabric8.kubernetes.alexa.paging.ProtobufLists;
+import io.fabric8.kubernetes.alexa.paging.ProtobufSummaryDecoder;
+import io.fabric8.kubernetes.alexa.paging.ResourceSummary;
+import io.fabric8.kubernetes.alexa.paging.SummaryDecoder;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares decoding a pod list into the model and mapping it to names, with streaming it into
+ * {@link ResourceSummary} instances from JSON and from protobuf. Pods carry a realistic spec, so that the cost of what
+ * is thrown away shows.
+ * Run with -prof gc: gc.alloc.rate.norm is the memory each decode allocates. The model path holds on to all of it
+ * until the names are mapped, while the streaming path only holds the summaries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListDecodeBenchmark {
+
+    @Param({"100", "2000"})
+    public int items;
+
+    private byte[] json;
+    private byte[] protobuf;
+
+    @Setup
+    public void setUp() throws IOException {
+        PodListBuilder list = new PodListBuilder().withNewMetadata().withResourceVersion("1").endMetadata();
+        for (int i = 0; i < items; i++) {
+            list.addToItems(new PodBuilder()
+                    .withNewMetadata()
+                        .withName("web-" + i).withNamespace("benchmark").withUid("uid-" + i)
+                        .addToLabels("app", "web").addToLabels("pod-template-hash", "5d8f9c" + i)
+                        .addToAnnotations("kubectl.kubernetes.io/last-applied-configuration", "{\"apiVersion\":\"v1\",\"kind\":\"Pod\",\"metadata\":{\"name\":\"web-" + i + "\"}}")
+                    .endMetadata()
+                    .withNewSpec()
+                        .addNewContainer()
+                            .withName("web").withImage("docker.io/library/nginx:1.13")
+                            .addNewEnv().withName("JAVA_OPTIONS").withValue("-Xmx256m -XX:+UseG1GC").endEnv()
+                            .addNewEnv().withName("DATABASE_URL").withValue("jdbc:postgresql://db:5432/benchmark").endEnv()
+                            .addNewPort().withContainerPort(8080).withProtocol("TCP").endPort()
+                            .addNewVolumeMount().withName("config").withMountPath("/etc/config").endVolumeMount()
+                        .endContainer()
+                        .addNewVolume().withName("config").withNewConfigMap().withName("web-config").endConfigMap().endVolume()
+                    .endSpec()
+                    .withNewStatus()
+                        .withPhase("Running").withPodIP("10.0.0." + (i % 255)).withHostIP("192.168.0.1")
+                        .addNewCondition().withType("Ready").withStatus("True").endCondition()
+                        .addNewContainerStatus().withName("web").withReady(true).withRestartCount(0).withImage("docker.io/library/nginx:1.13").endContainerStatus()
+                    .endStatus()
+                    .build());
+        }
+        PodList pods = list.build();
+        json = Serialization.jsonMapper().writeValueAsBytes(pods);
+        protobuf = ProtobufLists.encode(pods, null);
+    }
+
+    @Benchmark
+    public List<String> model() throws IOException {
+        PodList list = Serialization.jsonMapper().readValue(new ByteArrayInputStream(json), PodList.class);
+        return list.getItems().stream().map(p -> p.getMetadata().getName()).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> streaming() throws IOException {
+        List<String> names = new ArrayList<>(items);
+        SummaryDecoder.decode(new ByteArrayInputStream(json), s -> names.add(s.getName()));
+        return names;
+    }
+
+    @Benchmark
+    public List<String> protobuf() throws IOException {
+        List<String> names = new ArrayList<>(items);
+        ProtobufSummaryDecoder.decode(new ByteArrayInputStream(protobuf), s -> names.add(s.getName()));
+        return names;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import com.amazon.speech.slu.Intent;
+import com.amazon.speech.slu.Slot;
+import com.amazon.speech.speechlet.IntentRequest;
+import com.amazon.speech.speechlet.Session;
+import com.amazon.speech.speechlet.SpeechletResponse;
+import com.amazon.speech.ui.OutputSpeech;
+import com.amazon.speech.ui.PlainTextOutputSpeech;
+import io.fabric8.kubernetes.alexa.concurrent.VirtualThreads;
+import io.fabric8.kubernetes.alexa.progressive.ProgressiveResponseSender;
+import io.fabric8.kubernetes.client.KubernetesClient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An offline load test: drives the {@link RequestDispatcher} with a mix of intents at a fixed rate, against a
+ * {@link MockCluster} of synthetic namespaces and reports throughput and latency percentiles per intent.
+ * Requests are issued on schedule regardless of how many are still in flight, and latency is measured from the time a
+ * request was scheduled, so that a slow dispatcher can't hide its queueing delay.
+ *
+ * Options are passed as key=value arguments:
+ * - namespaces     The number of namespaces (defaults to 10).
+ * - items          The number of pods, services and deployments per namespace (defaults to 50).
+ * - latency        The latency of the API server in milliseconds (defaults to 20).
+ * - rate           The number of requests per second (defaults to 20).
+ * - warmup         The warmup duration in seconds, not included in the report (defaults to 10).
+ * - duration       The measured duration in seconds (defaults to 30).
+ * - mix            The weight of each intent (defaults to GetPods:4,GetServices:2,GetDeployments:2,GetNamespaces:1).
+ */
+public final class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("namespaces", "10");
+        DEFAULTS.put("items", "50");
+        DEFAULTS.put("latency", "20");
+        DEFAULTS.put("rate", "20");
+        DEFAULTS.put("warmup", "10");
+        DEFAULTS.put("duration", "30");
+        DEFAULTS.put("mix", "GetPods:4,GetServices:2,GetDeployments:2,GetNamespaces:1");
+    }
+
+    private LoadTest() {
+        //Utility class
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String[] namespaces = MockCluster.namespaces(Integer.parseInt(options.get("namespaces")));
+        int rate = Integer.parseInt(options.get("rate"));
+        List<String> mix = parseMix(options.get("mix"));
+
+        try (MockCluster cluster = new MockCluster(Integer.parseInt(options.get("items")), Long.parseLong(options.get("latency")), namespaces)) {
+            RequestDispatcher<KubernetesClient> dispatcher = new RequestDispatcher<>(cluster.getClient(), ProgressiveResponseSender.NOOP);
+
+            System.out.println("Warming up for " + options.get("warmup") + "s with " + options);
+            run(dispatcher, mix, namespaces, rate, Integer.parseInt(options.get("warmup")), new LinkedHashMap<>());
+
+            Map<String, Stats> stats = new LinkedHashMap<>();
+            mix.stream().distinct().sorted().forEach(intent -> stats.put(intent, new Stats()));
+            int duration = Integer.parseInt(options.get("duration"));
+            System.out.println("Measuring for " + duration + "s.");
+            long elapsed = run(dispatcher, mix, namespaces, rate, duration, stats);
+            report(stats, elapsed);
+        }
+        //The fan-out and cache threads are daemons, but the client may keep some around for a while.
+        System.exit(0);
+    }
+
+    /**
+     * @return The elapsed time in nanoseconds, until the last response.
+     */
+    private static long run(RequestDispatcher<KubernetesClient> dispatcher, List<String> mix, String[] namespaces, int rate, int seconds,
+                            Map<String, Stats> stats) throws InterruptedException {
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        if (executor == null) {
+            executor = Executors.newCachedThreadPool(VirtualThreads.daemonThreadFactory("kubernetes-alexa-load"));
+        }
+        Random random = new Random(42);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * seconds;
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long scheduledAt = start + i * interval;
+            LockSupport.parkNanos(scheduledAt - System.nanoTime());
+            String intent = mix.get(random.nextInt(mix.size()));
+            IntentRequest request = newRequest(intent, "request-" + i, namespaces[random.nextInt(namespaces.length)]);
+            Stats stat = stats.get(intent);
+            executor.execute(() -> {
+                boolean failed;
+                try {
+                    failed = isFailure(dispatcher.onIntent(request, Session.builder().withSessionId(request.getRequestId()).build()));
+                } catch (Throwable t) {
+                    failed = true;
+                }
+                if (stat != null) {
+                    stat.record(System.nanoTime() - scheduledAt, failed);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return System.nanoTime() - start;
+    }
+
+    private static void report(Map<String, Stats> stats, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        int total = stats.values().stream().mapToInt(Stats::count).sum();
+        System.out.println(String.format("Throughput: %.1f requests/s (%d requests in %.1fs)", total / seconds, total, seconds));
+        System.out.println(String.format("%-16s %8s %8s %10s %10s %10s %10s", "Intent", "Count", "Errors", "p50 (ms)", "p95 (ms)", "p99 (ms)", "max (ms)"));
+        stats.forEach((intent, stat) -> {
+            List<Long> latencies = stat.sorted();
+            System.out.println(String.format("%-16s %8d %8d %10.1f %10.1f %10.1f %10.1f", intent, latencies.size(), stat.errors.get(),
+                    percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99), percentile(latencies, 100)));
+        });
+    }
+
+    /**
+     * @return The nearest-rank percentile in milliseconds.
+     */
+    private static double percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1)) / 1e6;
+    }
+
+    private static boolean isFailure(SpeechletResponse response) {
+        OutputSpeech speech = response.getOutputSpeech();
+        String text = speech instanceof PlainTextOutputSpeech ? ((PlainTextOutputSpeech) speech).getText() : "";
+        return text.startsWith("Failed to") || text.contains("taking too long");
+    }
+
+    private static IntentRequest newRequest(String intent, String requestId, String namespace) {
+        return IntentRequest.builder()
+                .withRequestId(requestId)
+                .withIntent(Intent.builder()
+                        .withName(intent)
+                        .withSlots(Collections.singletonMap(Variable.Namespace.name(),
+                                Slot.builder().withName(Variable.Namespace.name()).withValue(namespace).build()))
+                        .build())
+                .build();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            String[] keyAndValue = arg.split("=", 2);
+            if (keyAndValue.length != 2 || !DEFAULTS.containsKey(keyAndValue[0])) {
+                throw new IllegalArgumentException("Unknown option: " + arg + ". Supported options are: " + DEFAULTS.keySet() + ".");
+            }
+            options.put(keyAndValue[0], keyAndValue[1]);
+        }
+        return options;
+    }
+
+    /**
+     * Expands a weighted mix like "GetPods:2,GetServices:1" into a list to pick from at random.
+     */
+    private static List<String> parseMix(String mix) {
+        List<String> result = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] intentAndWeight = entry.trim().split(":", 2);
+            int weight = intentAndWeight.length == 2 ? Integer.parseInt(intentAndWeight[1]) : 1;
+            for (int i = 0; i < weight; i++) {
+                result.add(intentAndWeight[0]);
+            }
+        }
+        return result;
+    }
+
+    private static class Stats {
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger errors = new AtomicInteger();
+
+        private void record(long latencyNanos, boolean failed) {
+            latencies.add(latencyNanos);
+            if (failed) {
+                errors.incrementAndGet();
+            }
+        }
+
+        private int count() {
+            return latencies.size();
+        }
+
+        private List<Long> sorted() {
+            List<Long> result;
+            synchronized (latencies) {
+                result = new ArrayList<>(latencies);
+            }
+            Collections.sort(result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import com.amazon.speech.speechlet.SpeechletResponse;
+import com.amazon.speech.speechlet.SpeechletResponseBuilder;
+import io.fabric8.kubernetes.alexa.paging.ResourceSummary;
+import io.fabric8.kubernetes.alexa.request.ResponseFactory;
+import io.fabric8.kubernetes.alexa.request.impl.BaseKubernetesIntentRequestHandler;
+import io.fabric8.kubernetes.alexa.request.impl.GetPods;
+import io.fabric8.kubernetes.api.builder.TypedVisitor;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.apache.commons.lang3.StringUtils.join;
+import static org.apache.commons.lang3.StringUtils.splitByCharacterTypeCamelCase;
+
+/**
+ * Measures the string and response building done for every answer: {@link FeedbackUtils#normalize(String)} of a
+ * typical event message and {@link io.fabric8.kubernetes.alexa.request.BaseRequestHandler#newResponse(CharSequence)}.
+ * The builder* methods reproduce the former builder based responses, as a baseline (run with -prof gc to compare the
+ * allocations).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResponseBenchmark {
+
+    private static final String EVENT_MESSAGE = "Failed to pull image \"docker.io/syndesis/syndesis-rest@sha256:"
+            + "4f5e7a1bd1c2c5d1a9e0b3c7c0a5d1f7e9b2c4d6e8f0a1b3c5d7e9f1a3b5c7d9\": rpc error: code = 2 desc = "
+            + "unknown blob (details: (manifest unknown))";
+
+    private static final String RESPONSE_TEXT = "The available pods in namespace syndesis-ci are: "
+            + "syndesis-rest-1-x2v9z,syndesis-ui-1-5wq7n,syndesis-db-1-k8d2m,syndesis-keycloak-1-p3j6t";
+
+    private static final String REPROMPT_TEXT = "You are currently using namespace syndesis-ci.";
+
+    private static final List<ResourceSummary> PAGE = new ArrayList<>();
+
+    static {
+        for (int i = 0; i < 20; i++) {
+            PAGE.add(new ResourceSummary("syndesis-rest-" + i + "-x2v9z", "syndesis-ci", "Running", Collections.emptyMap()));
+        }
+    }
+
+    private String namespace = "syndesis-ci";
+    private KubernetesClient client;
+    private GetPods handler;
+
+    @Setup
+    public void setUp() {
+        client = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl("http://localhost:1").build());
+        handler = new GetPods(client);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public String normalize() {
+        return FeedbackUtils.normalize(EVENT_MESSAGE);
+    }
+
+    @Benchmark
+    public Object newResponse() {
+        return handler.newResponse(RESPONSE_TEXT);
+    }
+
+    @Benchmark
+    public Object newResponseWithReprompt() {
+        return handler.newResponse(RESPONSE_TEXT, REPROMPT_TEXT);
+    }
+
+    @Benchmark
+    public Object newPageResponse() {
+        StringBuilder text = ResponseFactory.speech().append("The available pods in namespace ").append(namespace).append(" are: ");
+        return handler.newResponse(BaseKubernetesIntentRequestHandler.appendNames(text, PAGE));
+    }
+
+    @Benchmark
+    public Object builderNewResponse() {
+        return builderResponse(RESPONSE_TEXT);
+    }
+
+    @Benchmark
+    public Object builderNewResponseWithReprompt() {
+        return new SpeechletResponseBuilder(builderResponse(RESPONSE_TEXT))
+                .accept(new TypedVisitor<SpeechletResponseBuilder>() {
+                    @Override
+                    public void visit(SpeechletResponseBuilder builder) {
+                        builder.withNewReprompt()
+                                .withNewPlainTextOutputSpeech()
+                                .withText(REPROMPT_TEXT)
+                                .endPlainTextOutputSpeech()
+                                .endReprompt();
+                    }
+                }).build();
+    }
+
+    @Benchmark
+    public Object builderNewPageResponse() {
+        List<String> names = PAGE.stream().map(ResourceSummary::getName).collect(Collectors.toList());
+        return builderResponse("The available pods in namespace " + namespace + " are: " + join(names, ","));
+    }
+
+    private SpeechletResponse builderResponse(String text) {
+        return new SpeechletResponseBuilder()
+                .withNewSimpleCard()
+                    .withTitle("Kubernetes")
+                    .withContent(join(splitByCharacterTypeCamelCase(handler.getType()), " "))
+                .endSimpleCard()
+                .withNewPlainTextOutputSpeech()
+                    .withText(text)
+                .endPlainTextOutputSpeech()
+                .withShouldEndSession(false)
+                .build();
+    }
+}
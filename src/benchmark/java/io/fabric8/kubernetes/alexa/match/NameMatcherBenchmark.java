@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.match;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.apache.commons.lang3.StringUtils.getLevenshteinDistance;
+
+/**
+ * Compares the original sort-by-distance selection with the {@link NameMatcher} implementations, over synthetic names.
+ * Each invocation resolves a slightly misheard existing name and a name that doesn't exist.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NameMatcherBenchmark {
+
+    private static final String[] WORDS = {"syndesis", "fabric", "kubernetes", "openshift", "jenkins", "staging",
+            "production", "monitoring", "payments", "catalog", "frontend", "backend", "gateway", "registry"};
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private List<String> names;
+    private String misheard;
+    private String missing;
+    private NameMatcher linear;
+    private NameMatcher bkTree;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(WORDS[random.nextInt(WORDS.length)] + "-" + WORDS[random.nextInt(WORDS.length)] + "-" + i);
+        }
+        String existing = names.get(size / 2);
+        misheard = existing.replace('e', 'a');
+        missing = "alexa-skills-kit";
+        linear = LinearNameMatcher.FACTORY.create(names);
+        bkTree = BkTreeNameMatcher.FACTORY.create(names);
+    }
+
+    @Benchmark
+    public Object sortByDistance() {
+        return new Object[]{sortByDistance(misheard), sortByDistance(missing)};
+    }
+
+    @Benchmark
+    public Object linear() {
+        return new Object[]{linear.match(misheard), linear.match(missing)};
+    }
+
+    @Benchmark
+    public Object bkTree() {
+        return new Object[]{bkTree.match(misheard), bkTree.match(missing)};
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object bkTreeBuild() {
+        return BkTreeNameMatcher.FACTORY.create(names);
+    }
+
+    /**
+     * The selection as it was originally implemented in IntentContext.
+     */
+    private String sortByDistance(String name) {
+        List<String> result = names.stream()
+                .filter(n -> getLevenshteinDistance(n, name, Math.max(1, (int) (n.length() * 0.25))) >= 0)
+                .sorted(Comparator.comparingInt(s -> getLevenshteinDistance(s, name)))
+                .collect(Collectors.toList());
+        return result.isEmpty() ? null : result.get(0);
+    }
+}
@@ -16,6 +16,10 @@
 
 package io.fabric8.kubernetes.alexa;
 
+import io.fabric8.kubernetes.alexa.cache.OwnerIndex;
+import io.fabric8.kubernetes.alexa.cache.ResourceCache;
+import io.fabric8.kubernetes.alexa.cache.ResourceCaches;
+import io.fabric8.kubernetes.alexa.paging.ListPager;
 import io.fabric8.kubernetes.api.model.Endpoints;
 import io.fabric8.kubernetes.api.model.Event;
 import io.fabric8.kubernetes.api.model.EventList;
@@ -31,13 +35,16 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.Watch;
 import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
 import io.fabric8.kubernetes.client.utils.Utils;
 import io.fabric8.openshift.api.model.DeploymentConfig;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class FeedbackUtils {
 
@@ -53,18 +60,95 @@ public class FeedbackUtils {
     }
 
     public static List<Event> getFailedEvents(KubernetesClient client, Deployment deployment) {
+        return getFailedEvents(client, deployment, getFailedEventsByUid(client, deployment.getMetadata().getNamespace()));
+    }
+
+    public static List<Event> getFailedEvents(KubernetesClient client, DeploymentConfig deploymentConfig) {
+        return getFailedEvents(client, deploymentConfig, getFailedEventsByUid(client, deploymentConfig.getMetadata().getNamespace()));
+    }
+
+    /**
+     * Returns the failed events of the pods of the specified resource, using events that have already been fetched.
+     * The pods are taken from the {@link OwnerIndex} when the caches are warm, or looked up by selector otherwise.
+     * @param client        The client to use for finding the pods.
+     * @param resource      The resource.
+     * @param eventsByUid   The failed events of the namespace, as returned by {@link #getFailedEventsByUid(KubernetesClient, String)}.
+     * @return              The failed events.
+     */
+    public static <T extends HasMetadata> List<Event> getFailedEvents(KubernetesClient client, T resource, Map<String, List<Event>> eventsByUid) {
+        if (eventsByUid.isEmpty()) {
+            return Collections.emptyList();
+        }
         List<Event> result = new ArrayList<>();
-        for (Pod pod : podsOf(client, deployment).getItems()) {
-            result.addAll(getFailedEvents(client, pod));
+        List<Pod> pods = ResourceCaches.of(client).getOwnerIndex().podsOf(resource);
+        for (Pod pod : pods != null ? pods : podsOf(client, resource).getItems()) {
+            result.addAll(eventsByUid.getOrDefault(pod.getMetadata().getUid(), Collections.emptyList()));
         }
         return result;
     }
 
-    public static List<Event> getFailedEvents(KubernetesClient client, DeploymentConfig deploymentConfig) {
+    /**
+     * Returns the failed events of the pods of the specified resource, using an index of pods that have already been fetched.
+     * @param resource      The resource.
+     * @param index         The index of the pods of the namespace (e.g. of {@link #getPodsWithFailedEvents(KubernetesClient, String, Map)}).
+     * @param eventsByUid   The failed events of the namespace, as returned by {@link #getFailedEventsByUid(KubernetesClient, String)}.
+     * @return              The failed events.
+     */
+    public static <T extends HasMetadata> List<Event> getFailedEvents(T resource, PodIndex index, Map<String, List<Event>> eventsByUid) {
+        if (eventsByUid.isEmpty()) {
+            return Collections.emptyList();
+        }
         List<Event> result = new ArrayList<>();
-        for (Pod pod : podsOf(client, deploymentConfig).getItems()) {
-            result.addAll(getFailedEvents(client, pod));
+        for (Pod pod : index.podsOf(resource)) {
+            result.addAll(eventsByUid.getOrDefault(pod.getMetadata().getUid(), Collections.emptyList()));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the pods of the namespace that have failed events.
+     * Only the metadata of the pods is needed to join them with resources, so the pods are taken from the pod cache when
+     * it is warm, or otherwise fetched with a single (paged) query that leaves out their spec and status.
+     * This is meant to be used when looking up events for many resources, instead of querying pods per resource.
+     * @param client        The client.
+     * @param namespace     The namespace.
+     * @param eventsByUid   The failed events of the namespace, as returned by {@link #getFailedEventsByUid(KubernetesClient, String)}.
+     * @return              The pods that are involved in at least one of the events (possibly with their metadata only).
+     */
+    public static List<Pod> getPodsWithFailedEvents(KubernetesClient client, String namespace, Map<String, List<Event>> eventsByUid) {
+        if (eventsByUid.isEmpty()) {
+            return Collections.emptyList();
         }
+        List<Pod> result = new ArrayList<>();
+        Consumer<Pod> collector = p -> {
+            if (eventsByUid.containsKey(p.getMetadata().getUid())) {
+                result.add(p);
+            }
+        };
+        ResourceCache<Pod, PodList> cache = ResourceCaches.of(client).get(Pod.class);
+        if (cache != null && cache.isWarm()) {
+            cache.list(namespace).forEach(collector);
+        } else {
+            ListPager.of(client, (BaseOperation<Pod, PodList, ?, ?>) client.pods().inNamespace(namespace)).metadataOnly().forEach(collector);
+        }
+        return result;
+    }
+
+    /**
+     * Fetches all the failed events of the namespace with a single query and groups them by the uid of the involved object.
+     * This is meant to be used when looking up events for many pods, instead of querying events per pod.
+     * @param client        The client.
+     * @param namespace     The namespace.
+     * @return              A map of involved object uid to failed events.
+     */
+    public static Map<String, List<Event>> getFailedEventsByUid(KubernetesClient client, String namespace) {
+        Map<String, List<Event>> result = new HashMap<>();
+        ListPager.of(client, (BaseOperation<Event, EventList, ?, ?>) client.events().inNamespace(namespace).withField("reason", "Failed"))
+                .forEach(e -> {
+                    if (e.getInvolvedObject() != null && e.getInvolvedObject().getUid() != null) {
+                        result.computeIfAbsent(e.getInvolvedObject().getUid(), k -> new ArrayList<>()).add(e);
+                    }
+                });
         return result;
     }
 
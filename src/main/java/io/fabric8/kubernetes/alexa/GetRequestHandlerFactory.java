@@ -17,27 +17,32 @@
 package io.fabric8.kubernetes.alexa;
 
 import io.fabric8.kubernetes.alexa.request.RequestHandlerFactory;
+import io.fabric8.kubernetes.alexa.request.RequestHandlerType;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.ServiceLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.function.Function;
 
+/**
+ * Finds the {@link RequestHandlerFactory} of a request type.
+ * Factories are indexed at compile time (see {@link RequestHandlerType}), so there is no classpath scanning involved.
+ */
 public enum GetRequestHandlerFactory implements Function<String, RequestHandlerFactory> {
 
     FUNCTION; //Enum singleton
 
-    private static final Map<String, RequestHandlerFactory> CACHE = new HashMap<>();
+    private static final Set<String> TYPES = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(RequestHandlerFactoryIndex.TYPES)));
 
     public RequestHandlerFactory apply(String intent) {
-        return CACHE.computeIfAbsent(intent, s -> {
-            ServiceLoader<RequestHandlerFactory> loader = ServiceLoader.load(RequestHandlerFactory.class);
-            for (RequestHandlerFactory candidate : loader) {
-                if (s.equals(candidate.getType())) {
-                    return candidate;
-                }
-            }
-            return null;
-        });
+        return RequestHandlerFactoryIndex.get(intent);
+    }
+
+    /**
+     * @return All the request types that have a {@link RequestHandlerFactory}.
+     */
+    public Set<String> getTypes() {
+        return TYPES;
     }
 }
@@ -18,30 +18,37 @@ package io.fabric8.kubernetes.alexa;
 
 import com.amazon.speech.slu.Intent;
 import com.amazon.speech.speechlet.Session;
+import io.fabric8.kubernetes.alexa.cache.ApiDiscovery;
+import io.fabric8.kubernetes.alexa.cache.NameIndex;
+import io.fabric8.kubernetes.alexa.cache.ResourceCaches;
+import io.fabric8.kubernetes.alexa.match.LinearNameMatcher;
+import io.fabric8.kubernetes.alexa.paging.ListPager;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.Namespace;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
 import io.fabric8.kubernetes.client.utils.Utils;
+import io.fabric8.openshift.api.model.Project;
 import io.fabric8.openshift.client.OpenShiftClient;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.apache.commons.lang3.StringUtils.join;
-import static org.apache.commons.lang3.StringUtils.getLevenshteinDistance;
 
 public class IntentContext<T extends BaseOperation> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(IntentContext.class);
 
     public static final Function<IntentContext, IntentContext> NAME_FILTER = o -> {
-        String name = selectName(o.operation, getVariable(Variable.Name, o));
+        String name = selectName(o.client, o.operation, getVariable(Variable.Name, o));
         if (Utils.isNotNullOrEmpty(name)) {
             return new IntentContext(o.intent, o.session, (BaseOperation) o.operation.withName(name), o.client);
         }
@@ -67,6 +74,20 @@ public class IntentContext<T extends BaseOperation> {
         return new IntentContext(o.intent, o.session, result, o.client);
     };
 
+    public static final Function<IntentContext, IntentContext> FIELD_FILTER = o -> {
+        String fields = (String) o.session.getAttribute(Variable.Fields.name());
+        BaseOperation result = o.operation;
+        if (Utils.isNotNullOrEmpty(fields)) {
+            for (String field : StringUtils.split(fields, ",")) {
+                String[] keyAndValue = StringUtils.split(field, "=", 2);
+                if (keyAndValue.length == 2) {
+                    result = (BaseOperation) result.withField(keyAndValue[0].trim(), keyAndValue[1].trim());
+                }
+            }
+        }
+        return new IntentContext(o.intent, o.session, result, o.client);
+    };
+
     private static final String getVariable(Variable attr, IntentContext operation) {
         return getVariable(attr.name(), operation.intent, operation.session, null);
     }
@@ -102,21 +123,51 @@ public class IntentContext<T extends BaseOperation> {
      * @return              The closest namespace if resemblance is over 80%, else null.
      */
      public static final String selectNamespace(KubernetesClient client, String namespace) {
-         if (client.isAdaptable(OpenShiftClient.class)) {
-             return selectName(client.adapt(OpenShiftClient.class).projects()
-                     .list()
-                     .getItems()
-                     .stream()
-                     .map(n -> n.getMetadata().getName()), namespace);
+         if (Utils.isNullOrEmpty(namespace)) {
+             return null;
+         }
+
+         NameIndex index = ResourceCaches.of(client).getNameIndex();
+         if (ApiDiscovery.of(client).isOpenShift()) {
+             return index.resolve(Project.class, null, null,
+                     () -> namesOf(client, (BaseOperation) client.adapt(OpenShiftClient.class).projects()), namespace);
          } else {
-             return selectName(client.namespaces()
-                     .list()
-                     .getItems()
-                     .stream()
-                     .map(n -> n.getMetadata().getName()), namespace);
+             return index.resolve(Namespace.class, null, null,
+                     () -> namesOf(client, (BaseOperation) client.namespaces()), namespace);
          }
     }
 
+    /**
+     * Choose a name that sounds like the specified namespace, using the shared {@link NameIndex} of the client.
+     * @param client        The client the operation belongs to.
+     * @param operation     The operation to use for listing names.
+     * @param name          The specified names.
+     * @return              The closest name if resemblance is over 80%, else null.
+     */
+    public static final String selectName(KubernetesClient client, BaseOperation<?,? extends KubernetesResourceList<?>, ?, ?> operation, String name) {
+        if (Utils.isNullOrEmpty(name)) {
+            return null;
+        }
+
+        return ResourceCaches.of(client).getNameIndex().resolve((Class<? extends HasMetadata>) operation.getType(),
+                operation.isResourceNamespaced() ? operation.getNamespace() : null,
+                selectorOf(operation),
+                () -> namesOf(client, (BaseOperation) operation), name);
+    }
+
+    /**
+     * Lists the names of the resources of an operation, as summaries, so that nothing but the names is kept.
+     * @param client        The client the operation belongs to.
+     * @param operation     The operation.
+     * @return              The names.
+     */
+    private static Stream<String> namesOf(KubernetesClient client, BaseOperation operation) {
+        List<String> names = new ArrayList<>();
+        ListPager.forSummaries(client, (BaseOperation<HasMetadata, KubernetesResourceList, ?, ?>) operation, ListPager.DEFAULT_PAGE_SIZE)
+                .forEachSummary(s -> names.add(s.getName()));
+        return names.stream();
+    }
+
 
     /**
      * Choose a name that sounds like the specified namespace.
@@ -129,6 +180,15 @@ public class IntentContext<T extends BaseOperation> {
     }
 
 
+    private static String selectorOf(BaseOperation<?, ?, ?, ?> operation) {
+        String labels = operation.getLabelQueryParam();
+        String fields = operation.getFieldQueryParam();
+        if (Utils.isNullOrEmpty(labels) && Utils.isNullOrEmpty(fields)) {
+            return null;
+        }
+        return "labelSelector=" + labels + "&fieldSelector=" + fields;
+    }
+
     /**
      * Choose a name that sounds like the specified namespace.
      * @param stream        The stream of names to use.
@@ -140,19 +200,8 @@ public class IntentContext<T extends BaseOperation> {
             return null;
         }
 
-        List<String> names = stream
-                //Filter out all namespaces that differ by more than 80% to what Alexa understood.
-                //TODO: This will only work for namespaces that sounds like actual english words. So, we need something smarter...
-                .filter(n -> getLevenshteinDistance(n, name, Math.max(1, (int) (n.length() * 0.25)) ) >= 0)
-                .sorted(Comparator.comparingInt(s -> getLevenshteinDistance(s, name)))
-                .collect(Collectors.toList());
-
-
-        if (names.isEmpty()) {
-            return null;
-        } else {
-            return names.get(0);
-        }
+        //TODO: This will only work for namespaces that sounds like actual english words. So, we need something smarter...
+        return new LinearNameMatcher(stream.collect(Collectors.toList())).match(name);
     }
 
     private final Intent intent;
@@ -167,6 +216,10 @@ public class IntentContext<T extends BaseOperation> {
         this.client = client;
     }
 
+    public Intent getIntent() {
+        return intent;
+    }
+
     public Session getSession() {
         return session;
     }
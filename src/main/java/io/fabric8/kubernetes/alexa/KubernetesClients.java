@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import io.fabric8.kubernetes.alexa.deadline.DeadlineInterceptor;
+import io.fabric8.kubernetes.alexa.metrics.MetricsInterceptor;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.utils.HttpClientUtils;
+import okhttp3.OkHttpClient;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * What the entry points (lambda and standalone server) have in common: how the client is configured and which
+ * skills are allowed to call us.
+ */
+public final class KubernetesClients {
+
+    public static final String ALEXA_SKILL_ID_ENV_VAR = "ALEXA_SKILL_ID";
+
+    private KubernetesClients() {
+        //Utility class
+    }
+
+    /**
+     * Creates a client configured from the environment, which aborts calls once the current request is past its deadline
+     * and records metrics of its calls.
+     * @return  The client.
+     */
+    public static KubernetesClient create() {
+        return create(new ConfigBuilder().build());
+    }
+
+    /**
+     * Creates a client which aborts calls once the current request is past its deadline and records metrics of its calls.
+     * @param config    The client configuration.
+     * @return          The client.
+     */
+    public static KubernetesClient create(Config config) {
+        OkHttpClient httpClient = HttpClientUtils.createHttpClient(config);
+        OkHttpClient.Builder builder = httpClient.newBuilder().addInterceptor(new MetricsInterceptor());
+        //Has to see the original request of each call, so it goes before the interceptors of the client.
+        builder.interceptors().add(0, new DeadlineInterceptor(httpClient.dispatcher()));
+        return new DefaultKubernetesClient(builder.build(), config);
+    }
+
+    /**
+     * This Id can be found on https://developer.amazon.com/edw/home.html#/ "Edit" the relevant
+     * Alexa Skill and put the relevant Application Id in the environment.
+     * @return  The ids of the skills that are allowed to call us.
+     */
+    public static Set<String> getSupportedApplicationIds() {
+        Set<String> ids = new HashSet<>();
+        ids.add(System.getenv(ALEXA_SKILL_ID_ENV_VAR));
+        return Collections.unmodifiableSet(ids);
+    }
+}
@@ -16,31 +16,87 @@
 
 package io.fabric8.kubernetes.alexa;
 
-import com.amazon.speech.speechlet.lambda.SpeechletRequestStreamHandler;
-import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import com.amazon.speech.speechlet.SpeechletRequestHandler;
+import com.amazon.speech.speechlet.lambda.LambdaSpeechletRequestHandler;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import io.fabric8.kubernetes.alexa.cache.ApiDiscovery;
+import io.fabric8.kubernetes.alexa.cache.ResourceCaches;
+import io.fabric8.kubernetes.alexa.deadline.Deadline;
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
+import io.fabric8.kubernetes.alexa.metrics.EmbeddedMetricFormat;
+import io.fabric8.kubernetes.alexa.progressive.HttpProgressiveResponseSender;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import org.apache.commons.io.IOUtils;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
 
 
-public class KubernetesRequestStreamHandler extends SpeechletRequestStreamHandler {
+/**
+ * The lambda entry point.
+ * Instead of extending SpeechletRequestStreamHandler, this handler delegates to the {@link SpeechletRequestHandler}
+ * itself, so that it gets to see the raw request and the lambda context: the deadline of the request is derived from
+ * both and the api access token (which the speechlet api doesn't expose) is kept for sending progressive responses.
+ * The metrics of each request are written to the log in the CloudWatch embedded metric format.
+ * If enabled, the handler {@link Priming primes} the JVM while the container initializes.
+ */
+public class KubernetesRequestStreamHandler implements RequestStreamHandler {
 
-    private static final String ALEXA_SKILL_ID_ENV_VAR = "ALEXA_SKILL_ID";
+    //Leave some time for writing the response before lambda kills us.
+    private static final long LAMBDA_SAFETY_MARGIN_MILLIS = 500;
 
-    private static final KubernetesClient KUBERNETES_CLIENT = new DefaultKubernetesClient();
-    private static final Set<String> SUPPORTED_APPLICATION_IDS;
+    private static final KubernetesClient KUBERNETES_CLIENT = KubernetesClients.create();
 
     static {
-        /*
-         * This Id can be found on https://developer.amazon.com/edw/home.html#/ "Edit" the relevant
-         * Alexa Skill and put the relevant Application Ids in this Set.
-         */
-        SUPPORTED_APPLICATION_IDS = new HashSet<>();
-        SUPPORTED_APPLICATION_IDS.add(System.getenv(ALEXA_SKILL_ID_ENV_VAR));
+        ApiDiscovery.of(KUBERNETES_CLIENT).start();
+        if (ResourceCaches.isEnabled()) {
+            ResourceCaches.of(KUBERNETES_CLIENT).start();
+        }
     }
 
+    private final RequestDispatcher<KubernetesClient> dispatcher;
+    private final SpeechletRequestHandler speechletRequestHandler;
+
     public KubernetesRequestStreamHandler() {
-        super(new RequestDispatcher(KUBERNETES_CLIENT), SUPPORTED_APPLICATION_IDS);
+        this.dispatcher = new RequestDispatcher<>(KUBERNETES_CLIENT, new HttpProgressiveResponseSender());
+        this.speechletRequestHandler = new LambdaSpeechletRequestHandler(KubernetesClients.getSupportedApplicationIds());
+        if (Priming.isEnabled()) {
+            Priming.prime(dispatcher);
+        }
+    }
+
+    @Override
+    public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
+        byte[] request = IOUtils.toByteArray(input);
+        Deadline deadline = Deadline.after(dispatcher.getResponseTimeoutMillis(), TimeUnit.MILLISECONDS);
+        if (context != null) {
+            deadline = deadline.min(Deadline.after(context.getRemainingTimeInMillis() - LAMBDA_SAFETY_MARGIN_MILLIS, TimeUnit.MILLISECONDS));
+        }
+
+        RequestScope scope = RequestScope.fromRequest(request, deadline);
+        byte[] response;
+        try {
+            response = scope.call(() -> speechletRequestHandler.handleSpeechletCall(dispatcher, request));
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        } finally {
+            logMetrics(scope);
+        }
+        output.write(response);
+    }
+
+    /**
+     * Logs the metrics of the request in the embedded metric format, for CloudWatch to pick up.
+     * Requests that didn't reach a handler (e.g. session ended) have nothing worth reporting.
+     */
+    private static void logMetrics(RequestScope scope) {
+        if (scope.getMetrics().getIntent() != null) {
+            System.out.println(EmbeddedMetricFormat.format(scope.getRequestId(), scope.getMetrics(), System.currentTimeMillis()));
+        }
     }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.LabelSelector;
+import io.fabric8.kubernetes.api.model.LabelSelectorRequirement;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.extensions.Deployment;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An inverted label index over the pods of a namespace, used to find the pods of many workloads with a single pod list.
+ * Every label key and every key / value pair maps to the set of pods that carry it, so that selectors are evaluated as
+ * set intersections, the same way the API server would evaluate them as label selector queries.
+ */
+public final class PodIndex {
+
+    private static final String DEPLOYMENT_CONFIG_LABEL = "deploymentconfig";
+
+    private final List<Pod> pods;
+    private final Map<String, BitSet> byKey = new HashMap<>();
+    private final Map<String, Map<String, BitSet>> byLabel = new HashMap<>();
+
+    public PodIndex(List<Pod> pods) {
+        this.pods = pods;
+        for (int i = 0; i < pods.size(); i++) {
+            Map<String, String> labels = pods.get(i).getMetadata().getLabels();
+            if (labels == null) {
+                continue;
+            }
+            for (Map.Entry<String, String> label : labels.entrySet()) {
+                byKey.computeIfAbsent(label.getKey(), k -> new BitSet()).set(i);
+                byLabel.computeIfAbsent(label.getKey(), k -> new HashMap<>())
+                        .computeIfAbsent(label.getValue(), v -> new BitSet()).set(i);
+            }
+        }
+    }
+
+    public List<Pod> getPods() {
+        return pods;
+    }
+
+    /**
+     * Finds the pods of the specified resource, like {@link FeedbackUtils#podsOf(io.fabric8.kubernetes.client.KubernetesClient, HasMetadata)}
+     * but in memory.
+     * @param resource  The resource (assumed to be in the namespace of the index).
+     * @return          The matching pods.
+     */
+    public List<Pod> podsOf(HasMetadata resource) {
+        if (resource instanceof Pod) {
+            String uid = resource.getMetadata().getUid();
+            List<Pod> result = new ArrayList<>(1);
+            for (Pod pod : pods) {
+                if (uid != null && uid.equals(pod.getMetadata().getUid())) {
+                    result.add(pod);
+                }
+            }
+            return result;
+        } else if (resource instanceof Service) {
+            return toPods(select(((Service) resource).getSpec().getSelector()));
+        } else if (resource instanceof ReplicationController) {
+            return toPods(select(((ReplicationController) resource).getSpec().getSelector()));
+        } else if (resource instanceof Deployment) {
+            return toPods(select(((Deployment) resource).getSpec().getSelector()));
+        } else if (resource instanceof DeploymentConfig) {
+            return toPods(select(Collections.singletonMap(DEPLOYMENT_CONFIG_LABEL, resource.getMetadata().getName())));
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * @param matchLabels   The labels that the pods should have (null or empty matches all pods).
+     * @return              The positions of the matching pods in {@link #getPods()}.
+     */
+    public BitSet select(Map<String, String> matchLabels) {
+        BitSet result = all();
+        retainLabels(result, matchLabels);
+        return result;
+    }
+
+    /**
+     * @param selector  The selector (null or empty matches all pods).
+     * @return          The positions of the matching pods in {@link #getPods()}.
+     */
+    public BitSet select(LabelSelector selector) {
+        BitSet result = all();
+        if (selector == null) {
+            return result;
+        }
+        retainLabels(result, selector.getMatchLabels());
+        if (selector.getMatchExpressions() == null) {
+            return result;
+        }
+        for (LabelSelectorRequirement req : selector.getMatchExpressions()) {
+            if (result.isEmpty()) {
+                break;
+            }
+            switch (req.getOperator()) {
+                case "In":
+                    result.and(anyOf(req.getKey(), req.getValues()));
+                    break;
+                case "NotIn":
+                    result.andNot(anyOf(req.getKey(), req.getValues()));
+                    break;
+                case "DoesNotExist":
+                    result.andNot(byKey.getOrDefault(req.getKey(), new BitSet()));
+                    break;
+                case "Exists":
+                    result.and(byKey.getOrDefault(req.getKey(), new BitSet()));
+                    break;
+            }
+        }
+        return result;
+    }
+
+    private void retainLabels(BitSet result, Map<String, String> matchLabels) {
+        if (matchLabels == null) {
+            return;
+        }
+        for (Map.Entry<String, String> label : matchLabels.entrySet()) {
+            BitSet matching = byLabel.getOrDefault(label.getKey(), Collections.emptyMap()).get(label.getValue());
+            if (matching == null) {
+                result.clear();
+                return;
+            }
+            result.and(matching);
+        }
+    }
+
+    private BitSet anyOf(String key, List<String> values) {
+        BitSet result = new BitSet();
+        Map<String, BitSet> byValue = byLabel.get(key);
+        if (byValue != null && values != null) {
+            for (String value : values) {
+                BitSet matching = byValue.get(value);
+                if (matching != null) {
+                    result.or(matching);
+                }
+            }
+        }
+        return result;
+    }
+
+    private BitSet all() {
+        BitSet result = new BitSet(pods.size());
+        result.set(0, pods.size());
+        return result;
+    }
+
+    private List<Pod> toPods(BitSet positions) {
+        List<Pod> result = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            result.add(pods.get(i));
+        }
+        return result;
+    }
+}
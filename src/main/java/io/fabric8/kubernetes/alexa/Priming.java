@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import com.amazon.speech.json.SpeechletRequestEnvelope;
+import com.amazon.speech.json.SpeechletResponseEnvelope;
+import io.fabric8.kubernetes.alexa.deadline.Deadline;
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
+import io.fabric8.kubernetes.alexa.paging.SummaryDecoder;
+import io.fabric8.kubernetes.alexa.request.ResponseFactory;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exercises what every request goes through (parsing the envelope, the handlers of all intents, the kubernetes model,
+ * the list decoder and writing the response) while the lambda container initializes, so that the first request
+ * doesn't pay for loading and initializing those classes. Nothing here talks to the API server.
+ */
+public final class Priming {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Priming.class);
+
+    public static final String PRIMING_ENABLED_ENV_VAR = "ALEXA_PRIMING_ENABLED";
+
+    private static final AtomicBoolean PRIMED = new AtomicBoolean();
+
+    private static final String ENVELOPE = "{\"version\":\"1.0\","
+            + "\"session\":{\"new\":true,\"sessionId\":\"priming\",\"application\":{\"applicationId\":\"priming\"},\"attributes\":{},\"user\":{\"userId\":\"priming\"}},"
+            + "\"context\":{\"System\":{\"application\":{\"applicationId\":\"priming\"},\"user\":{\"userId\":\"priming\"},\"device\":{\"supportedInterfaces\":{}},\"apiEndpoint\":\"https://api.amazonalexa.com\"}},"
+            + "\"request\":{\"type\":\"IntentRequest\",\"requestId\":\"priming\",\"locale\":\"en-US\",\"timestamp\":\"2017-09-06T12:41:25Z\","
+            + "\"intent\":{\"name\":\"GetPods\",\"slots\":{\"Namespace\":{\"name\":\"Namespace\",\"value\":\"default\"}}}}}";
+
+    private static final String POD_LIST = "{\"apiVersion\":\"v1\",\"kind\":\"PodList\",\"metadata\":{\"resourceVersion\":\"1\"},\"items\":["
+            + "{\"metadata\":{\"name\":\"priming\",\"namespace\":\"default\",\"labels\":{\"app\":\"priming\"}},"
+            + "\"spec\":{\"containers\":[{\"name\":\"priming\",\"image\":\"priming\"}]},\"status\":{\"phase\":\"Running\"}}]}";
+
+    private Priming() {
+        //Utility class
+    }
+
+    /**
+     * Priming loads more than the first request needs, so it only pays off when the initialization isn't on the path
+     * of the first request (e.g. with provisioned concurrency), and is off by default.
+     * @return True if priming has been enabled via the environment.
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getenv(PRIMING_ENABLED_ENV_VAR));
+    }
+
+    /**
+     * Primes the JVM, once.
+     * Failures are logged and otherwise ignored, as priming only affects how fast the first request is.
+     * @param dispatcher    The dispatcher whose handlers to create.
+     */
+    public static void prime(RequestDispatcher<?> dispatcher) {
+        if (!PRIMED.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            dispatcher.prime();
+
+            byte[] request = ENVELOPE.getBytes(StandardCharsets.UTF_8);
+            SpeechletRequestEnvelope.fromJson(request);
+            RequestScope.fromRequest(request, Deadline.after(1, TimeUnit.SECONDS));
+
+            byte[] list = POD_LIST.getBytes(StandardCharsets.UTF_8);
+            PodList pods = Serialization.jsonMapper().readValue(list, PodList.class);
+            Serialization.jsonMapper().writeValueAsBytes(new PodListBuilder(pods).build());
+            SummaryDecoder.decode(new ByteArrayInputStream(list), s -> { });
+
+            SpeechletResponseEnvelope response = new SpeechletResponseEnvelope();
+            response.setVersion("1.0");
+            response.setResponse(ResponseFactory.forType("GetPods").newResponse(ResponseFactory.speech().append("priming"), "priming"));
+            response.toJsonBytes();
+            LOGGER.info("Primed in {} ms.", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            LOGGER.warn("Priming failed.", e);
+        }
+    }
+}
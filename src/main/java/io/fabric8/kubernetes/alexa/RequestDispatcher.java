@@ -26,22 +26,79 @@ import com.amazon.speech.speechlet.Speechlet;
 import com.amazon.speech.speechlet.SpeechletException;
 import com.amazon.speech.speechlet.SpeechletResponse;
 import com.amazon.speech.speechlet.SpeechletResponseBuilder;
-import io.fabric8.kubernetes.alexa.request.RequestHandlerFactory;
+import com.amazon.speech.speechlet.SpeechletRequest;
+import io.fabric8.kubernetes.alexa.concurrent.FanOut;
+import io.fabric8.kubernetes.alexa.deadline.Deadline;
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
+import io.fabric8.kubernetes.alexa.metrics.Metrics;
+import io.fabric8.kubernetes.alexa.paging.Continuation;
+import io.fabric8.kubernetes.alexa.progressive.ProgressiveResponseSender;
+import io.fabric8.kubernetes.alexa.request.RequestHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 public class RequestDispatcher<C> implements Speechlet {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RequestDispatcher.class);
     private static final String LAUNCH_HANDLER = "Launch";
 
-    private final C context;
+    public static final String RESPONSE_TIMEOUT_ENV_VAR = "ALEXA_RESPONSE_TIMEOUT";
+    public static final String PROGRESSIVE_RESPONSE_DELAY_ENV_VAR = "ALEXA_PROGRESSIVE_RESPONSE_DELAY";
+
+    //Alexa gives up after 8 seconds, so we need to answer a bit earlier.
+    private static final long DEFAULT_RESPONSE_TIMEOUT_MILLIS = 7000;
+    private static final long DEFAULT_PROGRESSIVE_RESPONSE_DELAY_MILLIS = 1000;
+
+    private static final String PROGRESSIVE_RESPONSE_TEXT = "Checking your cluster...";
+    private static final String TIMEOUT_RESPONSE_TEXT = "Your cluster is taking too long to respond. Please try again later.";
+
+    private final RequestHandlerRegistry<C> handlers;
+    private final ProgressiveResponseSender progressiveResponseSender;
+    private final long responseTimeoutMillis;
+    private final long progressiveResponseDelayMillis;
 
     public RequestDispatcher(C context) {
-        this.context = context;
+        this(context, ProgressiveResponseSender.NOOP);
+    }
+
+    public RequestDispatcher(C context, ProgressiveResponseSender progressiveResponseSender) {
+        this(context, progressiveResponseSender,
+                getMillis(RESPONSE_TIMEOUT_ENV_VAR, DEFAULT_RESPONSE_TIMEOUT_MILLIS),
+                getMillis(PROGRESSIVE_RESPONSE_DELAY_ENV_VAR, DEFAULT_PROGRESSIVE_RESPONSE_DELAY_MILLIS));
     }
 
+    public RequestDispatcher(C context, ProgressiveResponseSender progressiveResponseSender, long responseTimeoutMillis, long progressiveResponseDelayMillis) {
+        this(RequestHandlerRegistry.of(context), progressiveResponseSender, responseTimeoutMillis, progressiveResponseDelayMillis);
+    }
 
+    RequestDispatcher(RequestHandlerRegistry<C> handlers, ProgressiveResponseSender progressiveResponseSender, long responseTimeoutMillis, long progressiveResponseDelayMillis) {
+        this.handlers = handlers;
+        this.progressiveResponseSender = progressiveResponseSender;
+        this.responseTimeoutMillis = responseTimeoutMillis;
+        this.progressiveResponseDelayMillis = progressiveResponseDelayMillis;
+    }
+
+    /**
+     * @return The time the dispatcher allows for answering a request.
+     */
+    public long getResponseTimeoutMillis() {
+        return responseTimeoutMillis;
+    }
+
+    /**
+     * Creates the handlers of all the known request types up front, instead of on their first request.
+     */
+    public void prime() {
+        GetRequestHandlerFactory.FUNCTION.getTypes().forEach(handlers::get);
+    }
 
     public void onSessionStarted(SessionStartedRequest request, Session session) throws SpeechletException {
         LOGGER.info("onSessionStarted requestId={}, sessionId={}", request.getRequestId(),  session.getSessionId());
@@ -50,10 +107,10 @@ public class RequestDispatcher<C> implements Speechlet {
     public SpeechletResponse onLaunch(LaunchRequest request, Session session) throws SpeechletException {
         LOGGER.info("onLaunch requestId={}, sessionId={}", request.getRequestId(),  session.getSessionId());
 
-        RequestHandlerFactory factory = GetRequestHandlerFactory.FUNCTION.apply(LAUNCH_HANDLER);
+        Optional<RequestHandler> handler = handlers.get(LAUNCH_HANDLER);
 
-        if (factory != null) {
-            return factory.create(context).onRequest(request, session);
+        if (handler.isPresent()) {
+            return dispatch(request, LAUNCH_HANDLER, session, s -> handler.get().onRequest(request, s));
         } else {
             throw new SpeechletException("Could not find RequestHandler for: "+LOGGER);
         }
@@ -66,20 +123,147 @@ public class RequestDispatcher<C> implements Speechlet {
         Intent intent = request.getIntent();
         String intentName = (intent != null) ? intent.getName() : null;
 
-        RequestHandlerFactory factory = GetRequestHandlerFactory.FUNCTION.apply(intentName);
+        //Only the listing spoken last can be continued.
+        if (!Continuation.isMore(request)) {
+            Continuation.clear(session);
+        }
 
-        if (factory != null) {
-            return factory.create(context).onRequest(request, session);
+        Optional<RequestHandler> handler = handlers.get(intentName);
+
+        if (handler.isPresent()) {
+            return dispatch(request, intentName, session, s -> handler.get().onRequest(request, s));
         } else {
-            return new SpeechletResponseBuilder()
-                    .withNewPlainTextOutputSpeech()
-                        .withText("I don't know how to do that.")
-                    .endPlainTextOutputSpeech()
-                    .build();
+            return newSpeechResponse("I don't know how to do that.");
         }
     }
 
     public void onSessionEnded(SessionEndedRequest request, Session session) throws SpeechletException {
         LOGGER.info("onSessionEnded requestId={}, sessionId={}", request.getRequestId(),  session.getSessionId());
     }
+
+    /**
+     * Runs the handler within the {@link RequestScope} of the request and waits for it no longer than the deadline.
+     * If the handler is slow, a progressive response is sent in the meantime. If it misses the deadline, its Kubernetes
+     * calls are aborted and the user is told that the cluster is not responding.
+     * The scope is usually set up by the entry point (which knows the Alexa context), else a new one is created.
+     * Either way, the metrics of the request are recorded under the specified type.
+     * The handler works on a copy of the session, whose attributes are only copied back if it completes in time: a
+     * handler that misses the deadline may still be running, and must not write to the session of the response.
+     */
+    private SpeechletResponse dispatch(SpeechletRequest request, String type, Session session, HandlerCall call) throws SpeechletException {
+        RequestScope current = RequestScope.current();
+        RequestScope scope = current != null
+                ? current
+                : new RequestScope(Deadline.after(responseTimeoutMillis, TimeUnit.MILLISECONDS), request.getRequestId(), null, null);
+        scope.getMetrics().setIntent(type);
+        try {
+            return dispatch(request, scope, session, call);
+        } catch (SpeechletException | RuntimeException e) {
+            scope.getMetrics().markError();
+            throw e;
+        } finally {
+            Metrics.getInstance().recordRequest(scope.getMetrics());
+        }
+    }
+
+    private SpeechletResponse dispatch(SpeechletRequest request, RequestScope scope, Session session, HandlerCall call) throws SpeechletException {
+        Session copy = copyOf(session);
+        Future<SpeechletResponse> future = FanOut.getInstance().submit(() -> scope.call(() -> call.call(copy)));
+        try {
+            SpeechletResponse response;
+            long remaining = scope.getDeadline().remaining(TimeUnit.MILLISECONDS);
+            if (remaining <= progressiveResponseDelayMillis) {
+                //No time left for a progressive response to be of any use.
+                response = future.get(remaining, TimeUnit.MILLISECONDS);
+            } else {
+                try {
+                    response = future.get(progressiveResponseDelayMillis, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    sendProgressiveResponse(scope);
+                    response = future.get(scope.getDeadline().remaining(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+                }
+            }
+            copyAttributes(copy, session);
+            return response;
+        } catch (TimeoutException e) {
+            return onMissedDeadline(request, scope, future);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scope.cancel();
+            future.cancel(true);
+            throw new SpeechletException(e);
+        } catch (ExecutionException e) {
+            //The calls of the handler are aborted at the deadline, so it may fail just before we give up on it.
+            if (scope.getDeadline().isExpired()) {
+                return onMissedDeadline(request, scope, future);
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof SpeechletException) {
+                throw (SpeechletException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SpeechletException(cause);
+        }
+    }
+
+    private static SpeechletResponse onMissedDeadline(SpeechletRequest request, RequestScope scope, Future<?> future) {
+        LOGGER.warn("Request {} missed its deadline. Cancelling.", request.getRequestId());
+        scope.cancel();
+        future.cancel(true);
+        scope.getMetrics().markError();
+        return newSpeechResponse(TIMEOUT_RESPONSE_TEXT);
+    }
+
+    private static Session copyOf(Session session) {
+        return Session.builder()
+                .withIsNew(session.isNew())
+                .withSessionId(session.getSessionId())
+                .withApplication(session.getApplication())
+                .withUser(session.getUser())
+                .withAttributes(session.getAttributes() != null ? new HashMap<>(session.getAttributes()) : new HashMap<>())
+                .build();
+    }
+
+    private static void copyAttributes(Session from, Session to) {
+        for (String name : new ArrayList<>(to.getAttributes().keySet())) {
+            if (!from.getAttributes().containsKey(name)) {
+                to.removeAttribute(name);
+            }
+        }
+        from.getAttributes().forEach(to::setAttribute);
+    }
+
+    private void sendProgressiveResponse(RequestScope scope) {
+        if (scope.isDone()) {
+            return;
+        }
+        try {
+            progressiveResponseSender.send(scope, PROGRESSIVE_RESPONSE_TEXT);
+        } catch (Exception e) {
+            //Progressive responses are best effort.
+            LOGGER.debug("Failed to send progressive response for request {}.", scope.getRequestId(), e);
+        }
+    }
+
+    private static SpeechletResponse newSpeechResponse(String text) {
+        return new SpeechletResponseBuilder()
+                .withNewPlainTextOutputSpeech()
+                    .withText(text)
+                .endPlainTextOutputSpeech()
+                .build();
+    }
+
+    private static long getMillis(String envVar, long defaultValue) {
+        String value = System.getenv(envVar);
+        try {
+            return value != null ? Long.parseLong(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private interface HandlerCall {
+        SpeechletResponse call(Session session) throws SpeechletException;
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import io.fabric8.kubernetes.alexa.request.RequestHandler;
+import io.fabric8.kubernetes.alexa.request.RequestHandlerFactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Holds the {@link RequestHandler} instances of a context (e.g. a client).
+ * Handlers are stateless, so each one is created once, on first use, and then shared by all requests and threads.
+ * Types without a handler are not remembered: the type comes from the request, so remembering them would let clients
+ * grow the registry without bounds, and looking a factory up in the generated index is cheap anyway.
+ * Handlers that delegate to other handlers (e.g. More) look the registry of their context up via {@link #of(Object)}, so
+ * that they share the handlers of the dispatcher instead of creating their own.
+ *
+ * @param <C>   The context type.
+ */
+public class RequestHandlerRegistry<C> {
+
+    private static final Map<Object, RequestHandlerRegistry<?>> INSTANCES = new ConcurrentHashMap<>();
+
+    private final C context;
+    private final Function<String, RequestHandlerFactory> factories;
+    private final ConcurrentMap<String, RequestHandler> handlers = new ConcurrentHashMap<>();
+
+    public RequestHandlerRegistry(C context) {
+        this(context, GetRequestHandlerFactory.FUNCTION);
+    }
+
+    RequestHandlerRegistry(C context, Function<String, RequestHandlerFactory> factories) {
+        this.context = context;
+        this.factories = factories;
+    }
+
+    /**
+     * Returns the registry of the specified context.
+     * @param context   The context.
+     * @param <C>       The context type.
+     * @return          The registry shared by everything that handles requests with the context.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C> RequestHandlerRegistry<C> of(C context) {
+        return (RequestHandlerRegistry<C>) INSTANCES.computeIfAbsent(context, RequestHandlerRegistry::new);
+    }
+
+    /**
+     * Returns the handler of the specified type.
+     * @param type  The request type (e.g. the intent name).
+     * @return      The handler or empty if the type is not supported.
+     */
+    public Optional<RequestHandler> get(String type) {
+        if (type == null) {
+            return Optional.empty();
+        }
+        //Null results are not stored by computeIfAbsent.
+        return Optional.ofNullable(handlers.computeIfAbsent(type, this::create));
+    }
+
+    private RequestHandler create(String type) {
+        RequestHandlerFactory<?, C> factory = factories.apply(type);
+        return factory != null ? factory.create(context) : null;
+    }
+}
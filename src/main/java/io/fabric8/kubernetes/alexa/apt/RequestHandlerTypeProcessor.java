@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.apt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Generates an index of request type to {@link io.fabric8.kubernetes.alexa.request.RequestHandlerFactory}, out of the
+ * factories annotated with {@link io.fabric8.kubernetes.alexa.request.RequestHandlerType}.
+ * The index is validated against the intents of the interaction model (intents.json): types claimed by more than one
+ * factory fail the build, intents without a factory (and vice versa) are reported as warnings.
+ * This processor is compiled in a separate compiler execution before the rest of the sources, which names it as one of
+ * its annotation processors (see pom.xml). It is not registered as a service and not packaged.
+ */
+@SupportedAnnotationTypes(RequestHandlerTypeProcessor.ANNOTATION)
+public class RequestHandlerTypeProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "io.fabric8.kubernetes.alexa.request.RequestHandlerType";
+    static final String FACTORY = "io.fabric8.kubernetes.alexa.request.RequestHandlerFactory";
+    static final String INDEX_PACKAGE = "io.fabric8.kubernetes.alexa";
+    static final String INDEX_CLASS = "RequestHandlerFactoryIndex";
+    static final String INTENTS = "intents.json";
+    static final String BUILT_IN_INTENT_PREFIX = "AMAZON.";
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (generated || annotations.isEmpty()) {
+            return false;
+        }
+
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(ANNOTATION);
+        TypeMirror factoryType = processingEnv.getTypeUtils().erasure(processingEnv.getElementUtils().getTypeElement(FACTORY).asType());
+
+        Map<String, TypeElement> factories = new TreeMap<>();
+        Set<String> intents = new TreeSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            TypeElement type = (TypeElement) element;
+            String value = getValue(element, "value", null);
+            boolean intent = Boolean.parseBoolean(getValue(element, "intent", "true"));
+
+            if (!isInstantiableFactory(type, factoryType)) {
+                error(element, "@RequestHandlerType can only be used on public, non abstract RequestHandlerFactory implementations with a public no-arg constructor.");
+            } else if (factories.containsKey(value)) {
+                error(element, "Request type: [" + value + "] is already handled by: [" + factories.get(value).getQualifiedName() + "].");
+            } else {
+                factories.put(value, type);
+                if (intent) {
+                    intents.add(value);
+                }
+            }
+        }
+
+        validate(intents);
+        generate(factories);
+        generated = true;
+        return true;
+    }
+
+    private boolean isInstantiableFactory(TypeElement type, TypeMirror factoryType) {
+        if (type.getKind() != ElementKind.CLASS
+                || !type.getModifiers().contains(Modifier.PUBLIC)
+                || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type.asType()), factoryType)) {
+            return false;
+        }
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.CONSTRUCTOR
+                    && ((ExecutableElement) enclosed).getParameters().isEmpty()
+                    && enclosed.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares the handled intents with the ones declared in intents.json (which has already been copied to the output).
+     */
+    private void validate(Set<String> handled) {
+        Set<String> declared = new TreeSet<>();
+        try (InputStream is = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INTENTS).openInputStream()) {
+            for (JsonNode intent : new ObjectMapper().readTree(is).path("intents")) {
+                declared.add(intent.path("name").asText());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not read " + INTENTS + ", skipping intent validation: " + e.getMessage());
+            return;
+        }
+
+        for (String intent : handled) {
+            if (!declared.contains(intent)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Intent: [" + intent + "] has a handler, but is not declared in " + INTENTS + ".");
+            }
+        }
+        for (String intent : declared) {
+            if (!handled.contains(intent)) {
+                processingEnv.getMessager().printMessage(intent.startsWith(BUILT_IN_INTENT_PREFIX) ? Diagnostic.Kind.NOTE : Diagnostic.Kind.WARNING,
+                        "Intent: [" + intent + "] is declared in " + INTENTS + ", but has no handler.");
+            }
+        }
+    }
+
+    private void generate(Map<String, TypeElement> factories) {
+        try {
+            FileObject file = processingEnv.getFiler().createSourceFile(INDEX_PACKAGE + "." + INDEX_CLASS,
+                    factories.values().toArray(new Element[factories.size()]));
+            try (Writer writer = file.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+                out.println("package " + INDEX_PACKAGE + ";");
+                out.println();
+                out.println("import " + FACTORY + ";");
+                out.println();
+                out.println("/**");
+                out.println(" * Generated by " + getClass().getName() + ". Do not edit.");
+                out.println(" */");
+                out.println("final class " + INDEX_CLASS + " {");
+                out.println();
+                int i = 0;
+                for (TypeElement factory : factories.values()) {
+                    out.println("    private static final RequestHandlerFactory FACTORY_" + (i++) + " = new " + factory.getQualifiedName() + "();");
+                }
+                out.println();
+                out.print("    static final String[] TYPES = {");
+                i = 0;
+                for (String type : factories.keySet()) {
+                    out.print((i++ > 0 ? ", " : "") + "\"" + type + "\"");
+                }
+                out.println("};");
+                out.println();
+                out.println("    private " + INDEX_CLASS + "() {");
+                out.println("    }");
+                out.println();
+                out.println("    static RequestHandlerFactory get(String type) {");
+                out.println("        if (type == null) {");
+                out.println("            return null;");
+                out.println("        }");
+                out.println("        switch (type) {");
+                i = 0;
+                for (String type : factories.keySet()) {
+                    out.println("            case \"" + type + "\":");
+                    out.println("                return FACTORY_" + (i++) + ";");
+                }
+                out.println("            default:");
+                out.println("                return null;");
+                out.println("        }");
+                out.println("    }");
+                out.println("}");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to generate " + INDEX_CLASS + ": " + e.getMessage());
+        }
+    }
+
+    private static String getValue(Element element, String name, String defaultValue) {
+        return element.getAnnotationMirrors().stream()
+                .filter(m -> ANNOTATION.equals(m.getAnnotationType().toString()))
+                .flatMap(m -> m.getElementValues().entrySet().stream())
+                .filter(e -> e.getKey().getSimpleName().contentEquals(name))
+                .map(e -> String.valueOf(e.getValue().getValue()))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.client.HttpClientAware;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.utils.Utils;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which API groups (and kinds) the cluster serves, so that handlers can tell whether they talk to OpenShift
+ * without probing the API server on every request.
+ * The root paths are discovered once and the kinds of a group version the first time they are asked for. What has been
+ * discovered is kept in a small snapshot file (under /tmp by default), so that warm lambda containers and restarts
+ * start from it, and is refreshed in the background once {@link #start()} has been called.
+ * The last snapshot is served for as long as discovery keeps failing, however old it is. Without one, a failed discovery
+ * is only retried after a short backoff, so that an unreachable API server doesn't cost every request a probe.
+ */
+public class ApiDiscovery implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ApiDiscovery.class);
+
+    public static final String SNAPSHOT_FILE_ENV_VAR = "ALEXA_DISCOVERY_SNAPSHOT";
+    //Takes precedence over the environment, so that builds can keep tests away from the snapshot of the real skill.
+    public static final String SNAPSHOT_FILE_PROPERTY = "kubernetes.alexa.discovery.snapshot";
+    public static final String DISCOVERY_TTL_ENV_VAR = "ALEXA_DISCOVERY_TTL";
+
+    private static final String DEFAULT_SNAPSHOT_FILE = "kubernetes-alexa-discovery.json";
+    private static final long DEFAULT_TTL_SECONDS = 600;
+    static final long FAILURE_BACKOFF_MILLIS = 5000;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Map<KubernetesClient, ApiDiscovery> INSTANCES = new ConcurrentHashMap<>();
+
+    private static final String MASTER_URL = "masterUrl";
+    private static final String DISCOVERED_AT = "discoveredAt";
+    private static final String PATHS = "paths";
+    private static final String KINDS = "kinds";
+
+    private final OkHttpClient httpClient;
+    private final String masterUrl;
+    private final Path snapshotFile;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private volatile Snapshot snapshot;
+    private volatile long retryAt = Long.MIN_VALUE;
+    private ScheduledExecutorService scheduler;
+
+    ApiDiscovery(OkHttpClient httpClient, String masterUrl, Path snapshotFile, long ttlMillis, LongSupplier clock) {
+        this.httpClient = httpClient;
+        this.masterUrl = masterUrl.endsWith("/") ? masterUrl.substring(0, masterUrl.length() - 1) : masterUrl;
+        this.snapshotFile = snapshotFile;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the discovery of the specified client.
+     * @param client    The client.
+     * @return          The discovery (possibly not started).
+     */
+    public static ApiDiscovery of(KubernetesClient client) {
+        return INSTANCES.computeIfAbsent(client, c -> new ApiDiscovery(((HttpClientAware) c).getHttpClient(),
+                c.getMasterUrl().toString(), getSnapshotFile(), TimeUnit.SECONDS.toMillis(getTtlSeconds()), System::currentTimeMillis));
+    }
+
+    /**
+     * Discovers the API (unless a snapshot of the same cluster is found) and refreshes it in the background.
+     * @return  This instance.
+     */
+    public synchronized ApiDiscovery start() {
+        if (scheduler != null) {
+            return this;
+        }
+        getSnapshot();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kubernetes-alexa-discovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshIfStale, 0, ttlMillis, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * @return True if the cluster serves the OpenShift API (either the legacy /oapi or the openshift.io groups).
+     */
+    public boolean isOpenShift() {
+        Snapshot current = getSnapshot();
+        if (current == null) {
+            return false;
+        }
+        for (String path : current.paths) {
+            if (path.equals("/oapi") || (path.startsWith("/apis/") && path.contains(".openshift.io"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the cluster serves the specified kind.
+     * @param group     The API group (empty or null for the core group).
+     * @param version   The version.
+     * @param kind      The kind.
+     * @return          True if the kind is served.
+     */
+    public boolean supports(String group, String version, String kind) {
+        String path = Utils.isNullOrEmpty(group) ? "/api/" + version : "/apis/" + group + "/" + version;
+        Snapshot current = getSnapshot();
+        if (current == null || !current.paths.contains(path)) {
+            return false;
+        }
+        Set<String> kinds = current.kinds.get(path);
+        if (kinds == null) {
+            if (isBackingOff()) {
+                return false;
+            }
+            kinds = discoverKinds(path);
+            if (kinds == null) {
+                backOff();
+                return false;
+            }
+            update(current.withKinds(path, kinds));
+        }
+        return kinds.contains(kind);
+    }
+
+    /**
+     * Discovers the API again and stores the result.
+     */
+    public void refresh() {
+        Set<String> paths = discoverPaths();
+        if (paths != null) {
+            update(new Snapshot(paths, Collections.emptyMap(), clock.getAsLong()));
+        } else {
+            backOff();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null && !isBackingOff()) {
+            synchronized (this) {
+                current = snapshot;
+                //Whoever held the lock may just have failed, in which case there is no point in probing again.
+                if (current == null && !isBackingOff()) {
+                    current = load();
+                    if (current == null) {
+                        refresh();
+                        current = snapshot;
+                    } else {
+                        snapshot = current;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private boolean isBackingOff() {
+        return clock.getAsLong() < retryAt;
+    }
+
+    private void backOff() {
+        retryAt = clock.getAsLong() + FAILURE_BACKOFF_MILLIS;
+    }
+
+    private void refreshIfStale() {
+        Snapshot current = snapshot;
+        if (current == null || clock.getAsLong() - current.discoveredAt >= ttlMillis) {
+            try {
+                refresh();
+            } catch (Throwable t) {
+                LOGGER.warn("Failed to refresh the API discovery.", t);
+            }
+        }
+    }
+
+    private synchronized void update(Snapshot fresh) {
+        snapshot = fresh;
+        save(fresh);
+    }
+
+    private Set<String> discoverPaths() {
+        JsonNode root = get(masterUrl + "/");
+        if (root == null || !root.has(PATHS)) {
+            return null;
+        }
+        Set<String> paths = new HashSet<>();
+        root.get(PATHS).forEach(p -> paths.add(p.asText()));
+        return paths;
+    }
+
+    private Set<String> discoverKinds(String path) {
+        JsonNode resources = get(masterUrl + path);
+        if (resources == null || !resources.has("resources")) {
+            return null;
+        }
+        Set<String> kinds = new HashSet<>();
+        for (JsonNode resource : resources.get("resources")) {
+            //Subresources (e.g. pods/log) carry the kind of what they return, not of something that can be listed.
+            if (!resource.path("name").asText().contains("/")) {
+                kinds.add(resource.path("kind").asText());
+            }
+        }
+        return kinds;
+    }
+
+    private JsonNode get(String url) {
+        Request request = new Request.Builder().get().url(url).build();
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                LOGGER.warn("Failed to discover {}: {}.", url, response.code());
+                return null;
+            }
+            return MAPPER.readTree(response.body().byteStream());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to discover {}: {}.", url, e.getMessage());
+            return null;
+        }
+    }
+
+    private Snapshot load() {
+        if (snapshotFile == null || !Files.isRegularFile(snapshotFile)) {
+            return null;
+        }
+        try {
+            JsonNode node = MAPPER.readTree(snapshotFile.toFile());
+            if (!masterUrl.equals(node.path(MASTER_URL).asText())) {
+                return null;
+            }
+            Set<String> paths = new HashSet<>();
+            node.path(PATHS).forEach(p -> paths.add(p.asText()));
+            Map<String, Set<String>> kinds = new HashMap<>();
+            node.path(KINDS).fields().forEachRemaining(e -> {
+                Set<String> k = new HashSet<>();
+                e.getValue().forEach(v -> k.add(v.asText()));
+                kinds.put(e.getKey(), k);
+            });
+            return new Snapshot(paths, kinds, node.path(DISCOVERED_AT).asLong());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Ignoring unreadable API discovery snapshot {}: {}.", snapshotFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private void save(Snapshot current) {
+        if (snapshotFile == null) {
+            return;
+        }
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put(MASTER_URL, masterUrl);
+        node.put(DISCOVERED_AT, current.discoveredAt);
+        current.paths.stream().sorted().forEach(node.putArray(PATHS)::add);
+        ObjectNode kinds = node.putObject(KINDS);
+        current.kinds.forEach((path, k) -> k.stream().sorted().forEach(kinds.putArray(path)::add));
+        try {
+            //Write next to the snapshot and move it in place, so that concurrent readers never see half of it.
+            Path tmp = Files.createTempFile(snapshotFile.toAbsolutePath().getParent(), DEFAULT_SNAPSHOT_FILE, ".tmp");
+            MAPPER.writeValue(tmp.toFile(), node);
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to write API discovery snapshot {}: {}.", snapshotFile, e.getMessage());
+        }
+    }
+
+    private static Path getSnapshotFile() {
+        String value = System.getProperty(SNAPSHOT_FILE_PROPERTY, System.getenv(SNAPSHOT_FILE_ENV_VAR));
+        return Utils.isNotNullOrEmpty(value) ? Paths.get(value) : Paths.get(System.getProperty("java.io.tmpdir"), DEFAULT_SNAPSHOT_FILE);
+    }
+
+    private static long getTtlSeconds() {
+        String value = System.getenv(DISCOVERY_TTL_ENV_VAR);
+        try {
+            return value != null ? Long.parseLong(value) : DEFAULT_TTL_SECONDS;
+        } catch (NumberFormatException e) {
+            return DEFAULT_TTL_SECONDS;
+        }
+    }
+
+    private static class Snapshot {
+        private final Set<String> paths;
+        private final Map<String, Set<String>> kinds;
+        private final long discoveredAt;
+
+        private Snapshot(Set<String> paths, Map<String, Set<String>> kinds, long discoveredAt) {
+            this.paths = paths;
+            this.kinds = kinds;
+            this.discoveredAt = discoveredAt;
+        }
+
+        private Snapshot withKinds(String path, Set<String> k) {
+            Map<String, Set<String>> fresh = new HashMap<>(kinds);
+            fresh.put(path, k);
+            return new Snapshot(paths, fresh, discoveredAt);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.cache;
+
+import io.fabric8.kubernetes.alexa.match.NameMatcher;
+import io.fabric8.kubernetes.alexa.match.NameMatcherFactory;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.utils.Utils;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An index of resource names per kind and namespace, used to resolve what Alexa heard to an actual resource name.
+ * When the {@link ResourceCache} of the kind is warm, names are taken from the cache and the index is invalidated
+ * whenever items of the kind are added or deleted (modifications don't change the names, so they are ignored).
+ * Otherwise names are loaded from the API server and kept for a TTL.
+ * Each set of names gets its own {@link NameMatcher}, and both successful and failed resolutions are remembered for as
+ * long as the set of names stays the same. Only the {@link #MAX_ENTRIES} most recently used sets of names are kept.
+ */
+public class NameIndex {
+
+    static final long DEFAULT_TTL_MILLIS = 30000;
+    private static final int MAX_REMEMBERED_LOOKUPS = 1024;
+    //Namespaces and selectors come from what the user says, so only keep the most recently used sets of names.
+    static final int MAX_ENTRIES = 256;
+    //The names version of entries loaded from the API server rather than taken from a cache.
+    private static final long LOADED = -1;
+
+    private final ResourceCaches caches;
+    private final NameMatcherFactory matcherFactory;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    });
+
+    NameIndex(ResourceCaches caches, NameMatcherFactory matcherFactory, long ttlMillis, LongSupplier clock) {
+        this.caches = caches;
+        this.matcherFactory = matcherFactory;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Resolves the specified name.
+     * @param type      The resource type.
+     * @param namespace The namespace of the names, or null for all namespaces and cluster scoped kinds.
+     * @param selector  The label / field selectors that narrow down the names, or null.
+     * @param loader    Supplies the names from the API server when they can't be taken from the cache.
+     * @param name      The name as Alexa heard it.
+     * @return          The matching name or null if nothing matches.
+     */
+    public String resolve(Class<? extends HasMetadata> type, String namespace, String selector, Supplier<Stream<String>> loader, String name) {
+        if (Utils.isNullOrEmpty(name)) {
+            return null;
+        }
+        return getEntry(type, namespace, selector, loader).resolve(name);
+    }
+
+    /**
+     * Drops all entries.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private Entry getEntry(Class<? extends HasMetadata> type, String namespace, String selector, Supplier<Stream<String>> loader) {
+        boolean selective = Utils.isNotNullOrEmpty(selector);
+        String key = type.getName() + "/" + (namespace != null ? namespace : "") + (selective ? "?" + selector : "");
+        //The cache doesn't evaluate selectors, so selective lookups always go through the loader.
+        ResourceCache<?, ?> cache = selective ? null : caches.get(type);
+        Entry entry = entries.get(key);
+
+        if (cache != null && cache.isWarm()) {
+            long namesVersion = cache.getNamesVersion();
+            if (entry == null || entry.namesVersion != namesVersion) {
+                entry = new Entry(matcherFactory, cache.list(namespace).stream().map(i -> i.getMetadata().getName()).collect(Collectors.toList()),
+                        namesVersion, Long.MAX_VALUE);
+                entries.put(key, entry);
+            }
+        } else if (entry == null || entry.namesVersion != LOADED || entry.expiresAt <= clock.getAsLong()) {
+            entry = new Entry(matcherFactory, loader.get().collect(Collectors.toList()), LOADED, clock.getAsLong() + ttlMillis);
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    private static class Entry {
+        private final NameMatcherFactory matcherFactory;
+        private final List<String> names;
+        private final Set<String> known;
+        private final long namesVersion;
+        private final long expiresAt;
+        private final Map<String, String> resolved = new ConcurrentHashMap<>();
+        private final Set<String> missing = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        private volatile NameMatcher matcher;
+
+        private Entry(NameMatcherFactory matcherFactory, List<String> names, long namesVersion, long expiresAt) {
+            this.matcherFactory = matcherFactory;
+            this.names = names;
+            this.known = new HashSet<>(names);
+            this.namesVersion = namesVersion;
+            this.expiresAt = expiresAt;
+        }
+
+        private String resolve(String name) {
+            if (known.contains(name)) {
+                return name;
+            } else if (missing.contains(name)) {
+                return null;
+            }
+
+            String result = resolved.get(name);
+            if (result == null) {
+                result = getMatcher().match(name);
+                if (result == null) {
+                    if (missing.size() < MAX_REMEMBERED_LOOKUPS) {
+                        missing.add(name);
+                    }
+                } else if (resolved.size() < MAX_REMEMBERED_LOOKUPS) {
+                    resolved.put(name, result);
+                }
+            }
+            return result;
+        }
+
+        //The matcher is only needed when the name isn't an exact match, so build it lazily (once per set of names).
+        private NameMatcher getMatcher() {
+            NameMatcher result = matcher;
+            if (result == null) {
+                synchronized (this) {
+                    result = matcher;
+                    if (result == null) {
+                        result = matcherFactory.create(names);
+                        matcher = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
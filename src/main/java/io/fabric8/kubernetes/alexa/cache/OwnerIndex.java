@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.cache;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.extensions.ReplicaSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A graph of the ownerReferences between the cached pods, ReplicaSets and ReplicationControllers, used to find the pods of
+ * a workload (e.g. Deployment -> ReplicaSets -> pods, or DeploymentConfig -> ReplicationControllers -> pods) and the
+ * workload that controls a pod without going through label selectors, which may overlap or still match old ReplicaSets.
+ * The graph is rebuilt on the scheduler of the caches, at most once per interval and only once one of the caches has
+ * moved to a new resourceVersion, and then published: lookups are map lookups in the last published graph and never
+ * build it themselves, so pods created since the last rebuild are only found after the next one.
+ * Until a graph of warm caches has been published, lookups return null and callers should fall back to selector queries.
+ */
+public class OwnerIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OwnerIndex.class);
+
+    static final List<Class<? extends HasMetadata>> INDEXED_TYPES = Arrays.asList(Pod.class, ReplicaSet.class, ReplicationController.class);
+
+    //Ownership chains are short (Deployment -> ReplicaSet -> Pod), so this only guards against cycles.
+    private static final int MAX_DEPTH = 8;
+
+    static final long DEFAULT_REBUILD_INTERVAL_MILLIS = 5000;
+
+    private final ResourceCaches caches;
+    private volatile Graph graph;
+
+    OwnerIndex(ResourceCaches caches) {
+        this.caches = caches;
+    }
+
+    /**
+     * Finds the pods that are (directly or transitively) owned by the specified resource.
+     * @param owner The owner (e.g. a Deployment or a DeploymentConfig).
+     * @return      The pods, or null if the index can't tell (caches are cold or nothing is known to be owned by the resource).
+     */
+    public List<Pod> podsOf(HasMetadata owner) {
+        Graph current = graph;
+        String uid = owner.getMetadata() != null ? owner.getMetadata().getUid() : null;
+        if (current == null || uid == null || !current.dependents.containsKey(uid)) {
+            return null;
+        }
+
+        List<Pod> result = new ArrayList<>();
+        Deque<String> owners = new ArrayDeque<>();
+        owners.add(uid);
+        for (int depth = 0; depth < MAX_DEPTH && !owners.isEmpty(); depth++) {
+            Deque<String> next = new ArrayDeque<>();
+            for (String o : owners) {
+                for (HasMetadata dependent : current.dependents.getOrDefault(o, Collections.emptyList())) {
+                    if (dependent instanceof Pod) {
+                        result.add((Pod) dependent);
+                    } else {
+                        next.add(dependent.getMetadata().getUid());
+                    }
+                }
+            }
+            owners = next;
+        }
+        return result;
+    }
+
+    /**
+     * Finds the top-most controller of the specified resource (e.g. the Deployment of a pod, via its ReplicaSet).
+     * @param resource  The resource.
+     * @return          The reference to the controller, or null if the resource isn't controlled or the caches are cold.
+     */
+    public OwnerReference controllerOf(HasMetadata resource) {
+        Graph current = graph;
+        if (current == null) {
+            return null;
+        }
+        OwnerReference result = null;
+        HasMetadata dependent = resource;
+        for (int depth = 0; depth < MAX_DEPTH && dependent != null; depth++) {
+            OwnerReference controller = controllerRefOf(dependent);
+            if (controller == null) {
+                break;
+            }
+            result = controller;
+            dependent = current.byUid.get(controller.getUid());
+        }
+        return result;
+    }
+
+    /**
+     * Drops the graph.
+     */
+    public void clear() {
+        graph = null;
+    }
+
+    /**
+     * Rebuilds and publishes the graph if all the caches are warm and one of them has moved to a new resourceVersion
+     * since the last rebuild, else keeps the current one.
+     * Called periodically by the scheduler of the caches (see {@link ResourceCaches#start()}).
+     */
+    void refresh() {
+        try {
+            List<ResourceCache<?, ?>> sources = new ArrayList<>(INDEXED_TYPES.size());
+            List<String> versions = new ArrayList<>(INDEXED_TYPES.size());
+            for (Class<? extends HasMetadata> type : INDEXED_TYPES) {
+                ResourceCache<?, ?> cache = caches.get((Class) type);
+                if (cache == null || !cache.isWarm()) {
+                    return;
+                }
+                sources.add(cache);
+                versions.add(cache.getResourceVersion());
+            }
+            Graph current = graph;
+            if (current == null || !current.versions.equals(versions)) {
+                graph = new Graph(versions, sources);
+            }
+        } catch (RuntimeException e) {
+            //Don't stop the periodic rebuilds, the next one may succeed.
+            LOGGER.warn("Failed to rebuild the owner index.", e);
+        }
+    }
+
+    private static OwnerReference controllerRefOf(HasMetadata resource) {
+        List<OwnerReference> references = resource.getMetadata() != null ? resource.getMetadata().getOwnerReferences() : null;
+        if (references != null) {
+            for (OwnerReference reference : references) {
+                if (Boolean.TRUE.equals(reference.getController()) && reference.getUid() != null) {
+                    return reference;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static class Graph {
+        private final List<String> versions;
+        private final Map<String, HasMetadata> byUid = new HashMap<>();
+        private final Map<String, List<HasMetadata>> dependents = new HashMap<>();
+
+        private Graph(List<String> versions, List<ResourceCache<?, ?>> sources) {
+            this.versions = versions;
+            for (ResourceCache<?, ?> source : sources) {
+                for (HasMetadata item : source.list((String) null)) {
+                    if (item.getMetadata().getUid() != null) {
+                        byUid.put(item.getMetadata().getUid(), item);
+                    }
+                    OwnerReference controller = controllerRefOf(item);
+                    if (controller != null) {
+                        dependents.computeIfAbsent(controller.getUid(), k -> new ArrayList<>()).add(item);
+                    }
+                }
+            }
+        }
+    }
+}
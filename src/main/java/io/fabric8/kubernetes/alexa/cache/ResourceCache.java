@@ -0,0 +1,518 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.cache;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.fabric8.kubernetes.client.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * An informer-style cache of a single resource kind across all namespaces.
+ * The cache performs an initial list, then keeps itself up to date by watching from the last seen resourceVersion.
+ * A periodic resync re-lists the kind to recover from any missed events: the watch is stopped while listing and resumed
+ * from the resourceVersion of the list, so that events are never applied to a store that is about to be replaced.
+ * Until the initial list completes (or after the watch has been lost) the cache is considered cold and callers should
+ * fall back to live calls.
+ * A cache can also be restored from a snapshot of a previous run (unless it is older than the resync period), in which
+ * case it resumes watching from the resourceVersion of the snapshot and only relists if that resourceVersion is gone.
+ * The watch first replays what has happened since the snapshot, so a restored cache only turns warm with the first
+ * event after resuming, and relists if none comes in time.
+ *
+ * @param <T>   The resource type.
+ * @param <L>   The resource list type.
+ */
+public class ResourceCache<T extends HasMetadata, L extends KubernetesResourceList> implements Watcher<T>, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceCache.class);
+
+    static final String CLUSTER_SCOPE = "";
+
+    private static final String CLUSTER = "cluster";
+    private static final String KIND = "kind";
+    private static final String RESOURCE_VERSION = "resourceVersion";
+    private static final String SNAPSHOT_AT = "snapshotAt";
+    private static final String ITEMS = "items";
+    //Large and never used by the handlers, so not worth keeping in snapshots.
+    private static final String LAST_APPLIED_ANNOTATION = "kubectl.kubernetes.io/last-applied-configuration";
+
+    static final long RESUME_TIMEOUT_MILLIS = 10000;
+
+    private final Class<T> type;
+    private final boolean namespaced;
+    private final Supplier<BaseOperation<T, L, ?, ?>> operation;
+    private final Function<List<T>, L> listFactory;
+    private final ScheduledExecutorService scheduler;
+    private final long resyncPeriodMillis;
+    private final LongSupplier clock;
+
+    //Items indexed by namespace and then by name, kept sorted like the API server does. Replaced as a whole on every (re)list.
+    private volatile ConcurrentMap<String, ConcurrentMap<String, T>> store = new ConcurrentSkipListMap<>();
+    private volatile String resourceVersion;
+    //Moves whenever items are added or removed, unlike the resourceVersion which also moves on every modification.
+    private final AtomicLong namesVersion = new AtomicLong();
+    private volatile boolean warm;
+    private volatile boolean closed;
+    private volatile Watch watch;
+    //Events are only applied if they come from the current watch, not from one that is being closed.
+    private volatile Watcher<T> watcher;
+    private volatile ScheduledFuture<?> resync;
+    private volatile boolean restored;
+    //Set while the watch of a restored cache has not delivered anything yet.
+    private volatile boolean resuming;
+
+    /**
+     * Creates a new cache.
+     * @param type                  The resource type.
+     * @param namespaced            Whether the resource kind is namespaced.
+     * @param operation             Supplies an operation that lists / watches the kind in all namespaces.
+     * @param listFactory           Wraps cached items into the list type the handlers expect.
+     * @param scheduler             The scheduler to use for resyncs and reconnects.
+     * @param resyncPeriodMillis    The period between full resyncs.
+     */
+    public ResourceCache(Class<T> type, boolean namespaced, Supplier<BaseOperation<T, L, ?, ?>> operation, Function<List<T>, L> listFactory,
+                         ScheduledExecutorService scheduler, long resyncPeriodMillis) {
+        this(type, namespaced, operation, listFactory, scheduler, resyncPeriodMillis, System::currentTimeMillis);
+    }
+
+    ResourceCache(Class<T> type, boolean namespaced, Supplier<BaseOperation<T, L, ?, ?>> operation, Function<List<T>, L> listFactory,
+                  ScheduledExecutorService scheduler, long resyncPeriodMillis, LongSupplier clock) {
+        this.type = type;
+        this.namespaced = namespaced;
+        this.operation = operation;
+        this.listFactory = listFactory;
+        this.scheduler = scheduler;
+        this.resyncPeriodMillis = resyncPeriodMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts the cache asynchronously: lists, watches and schedules the periodic resync.
+     */
+    public synchronized void start() {
+        if (resync != null) {
+            return;
+        }
+        scheduler.execute(restored ? this::resume : this::relist);
+        resync = scheduler.scheduleWithFixedDelay(this::resync, resyncPeriodMillis, resyncPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        warm = false;
+        if (resync != null) {
+            resync.cancel(false);
+        }
+        closeWatch();
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * @return The resourceVersion of the most recent list or event seen by the cache.
+     */
+    public String getResourceVersion() {
+        return resourceVersion;
+    }
+
+    /**
+     * @return A version of the set of cached names, which changes when items are added or deleted but not when they
+     *         are modified.
+     */
+    public long getNamesVersion() {
+        return namesVersion.get();
+    }
+
+    /**
+     * Checks if the specified operation can be answered by the cache.
+     * Operations carrying label or field selectors are left to the API server.
+     * @param operation     The operation.
+     * @return              True if the cache is warm and can answer the operation.
+     */
+    public boolean canServe(BaseOperation<T, L, ?, ?> operation) {
+        return warm
+                && type.equals(operation.getType())
+                && Utils.isNullOrEmpty(operation.getLabelQueryParam())
+                && Utils.isNullOrEmpty(operation.getFieldQueryParam());
+    }
+
+    /**
+     * Lists the cached items that match the namespace of the specified operation.
+     * @param operation     The operation.
+     * @return              The matching items wrapped in the kind's list type.
+     */
+    public L list(BaseOperation<T, L, ?, ?> operation) {
+        return listFactory.apply(list(namespaced ? operation.getNamespace() : null));
+    }
+
+    /**
+     * Returns the cached item that matches the namespace and name of the specified operation.
+     * @param operation     The operation.
+     * @return              The cached item or null.
+     */
+    public T get(BaseOperation<T, L, ?, ?> operation) {
+        return get(namespaced ? operation.getNamespace() : null, operation.getName());
+    }
+
+    /**
+     * Lists the cached items of the specified namespace.
+     * @param namespace     The namespace or null for all namespaces.
+     * @return              A snapshot of the matching items.
+     */
+    public List<T> list(String namespace) {
+        Map<String, ConcurrentMap<String, T>> current = store;
+        List<T> result = new ArrayList<>();
+        if (namespace == null || !namespaced) {
+            for (Map<String, T> items : current.values()) {
+                result.addAll(items.values());
+            }
+        } else {
+            Map<String, T> items = current.get(namespace);
+            if (items != null) {
+                result.addAll(items.values());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param namespace     The namespace or null for cluster scoped kinds.
+     * @param name          The name of the item.
+     * @return              The cached item or null.
+     */
+    public T get(String namespace, String name) {
+        if (name == null) {
+            return null;
+        }
+        Map<String, T> items = store.get(keyOf(namespace));
+        return items != null ? items.get(name) : null;
+    }
+
+    @Override
+    public void eventReceived(Action action, T resource) {
+        switch (action) {
+            case ADDED:
+            case MODIFIED:
+                if (store.computeIfAbsent(keyOf(resource), k -> new ConcurrentSkipListMap<>())
+                        .put(resource.getMetadata().getName(), resource) == null) {
+                    namesVersion.incrementAndGet();
+                }
+                break;
+            case DELETED:
+                Map<String, T> items = store.get(keyOf(resource));
+                if (items != null && items.remove(resource.getMetadata().getName()) != null) {
+                    namesVersion.incrementAndGet();
+                }
+                break;
+            case ERROR:
+                LOGGER.warn("Received error event while watching {}. Relisting.", type.getSimpleName());
+                warm = false;
+                scheduler.execute(this::relist);
+                return;
+        }
+        if (resource != null && resource.getMetadata() != null && resource.getMetadata().getResourceVersion() != null) {
+            resourceVersion = resource.getMetadata().getResourceVersion();
+        }
+        if (resuming) {
+            resuming = false;
+            warm = true;
+        }
+    }
+
+    @Override
+    public void onClose(KubernetesClientException cause) {
+        if (closed || cause == null) {
+            return;
+        }
+        LOGGER.warn("Watch for {} closed: {}.", type.getSimpleName(), cause.getMessage());
+        warm = false;
+        scheduler.execute(cause.getCode() == HttpURLConnection.HTTP_GONE ? this::relist : this::rewatch);
+    }
+
+    /**
+     * Replaces the cached items with a fresh list and marks the cache as warm.
+     * @param items             The items.
+     * @param resourceVersion   The resourceVersion of the list.
+     */
+    synchronized void replace(Collection<T> items, String resourceVersion) {
+        this.store = storeOf(items);
+        this.resourceVersion = resourceVersion;
+        this.namesVersion.incrementAndGet();
+        this.resuming = false;
+        this.warm = true;
+    }
+
+    /**
+     * Writes the cached items along with the resourceVersion they are at.
+     * @param out       The stream to write to (left open).
+     * @param cluster   Identifies the cluster, so that snapshots of other clusters are not restored.
+     * @return          False if the cache is cold and there was nothing to write.
+     */
+    public boolean writeSnapshot(OutputStream out, String cluster) throws IOException {
+        if (!warm) {
+            return false;
+        }
+        //Read the resourceVersion first: items that are newer than it are simply replayed by the watch when resuming.
+        String version = resourceVersion;
+        List<T> items = list((String) null);
+        ObjectMapper mapper = Serialization.jsonMapper();
+        JsonGenerator generator = mapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        generator.writeStringField(CLUSTER, cluster);
+        generator.writeStringField(KIND, type.getSimpleName());
+        generator.writeStringField(RESOURCE_VERSION, version);
+        generator.writeNumberField(SNAPSHOT_AT, clock.getAsLong());
+        generator.writeArrayFieldStart(ITEMS);
+        for (T item : items) {
+            Map<String, String> annotations = item.getMetadata().getAnnotations();
+            if (annotations != null && annotations.containsKey(LAST_APPLIED_ANNOTATION)) {
+                //Cached items are shared, so strip the annotation from a copy.
+                ObjectNode node = mapper.valueToTree(item);
+                ((ObjectNode) node.path("metadata").path("annotations")).remove(LAST_APPLIED_ANNOTATION);
+                mapper.writeTree(generator, node);
+            } else {
+                mapper.writeValue(generator, item);
+            }
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+        return true;
+    }
+
+    /**
+     * Restores the items of a snapshot written by {@link #writeSnapshot(OutputStream, String)}, so that once started the
+     * cache resumes watching from the resourceVersion of the snapshot instead of relisting.
+     * @param in        The stream to read from.
+     * @param cluster   Identifies the cluster.
+     * @return          True if the snapshot has been restored, false if it is of another cluster or kind, older than the
+     *                  resync period, or the cache is already populated.
+     */
+    public boolean restoreSnapshot(InputStream in, String cluster) throws IOException {
+        ObjectMapper mapper = Serialization.jsonMapper();
+        String snapshotCluster = null;
+        String kind = null;
+        String version = null;
+        long snapshotAt = -1;
+        List<T> items = new ArrayList<>();
+        try (JsonParser parser = mapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if (ITEMS.equals(field)) {
+                    //The header comes first, so don't bother reading the items of the wrong snapshot.
+                    if (!cluster.equals(snapshotCluster) || !type.getSimpleName().equals(kind)) {
+                        return false;
+                    }
+                    //A resync would have replaced an older snapshot by now, so relist instead.
+                    if (snapshotAt < 0 || clock.getAsLong() - snapshotAt > resyncPeriodMillis) {
+                        LOGGER.info("Ignoring {} snapshot that is older than the resync period.", type.getSimpleName());
+                        return false;
+                    }
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        items.add(mapper.readValue(parser, type));
+                    }
+                } else if (CLUSTER.equals(field)) {
+                    snapshotCluster = parser.getValueAsString();
+                } else if (KIND.equals(field)) {
+                    kind = parser.getValueAsString();
+                } else if (RESOURCE_VERSION.equals(field)) {
+                    version = parser.getValueAsString();
+                } else if (SNAPSHOT_AT.equals(field)) {
+                    snapshotAt = parser.getValueAsLong(-1);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (Utils.isNullOrEmpty(version)) {
+            return false;
+        }
+
+        synchronized (this) {
+            if (warm || resync != null) {
+                return false;
+            }
+            this.store = storeOf(items);
+            this.resourceVersion = version;
+            this.namesVersion.incrementAndGet();
+            this.restored = true;
+        }
+        return true;
+    }
+
+    private synchronized void relist() {
+        if (closed) {
+            return;
+        }
+        closeWatch();
+        try {
+            L list = operation.get().list();
+            replace(list.getItems(), list.getMetadata() != null ? list.getMetadata().getResourceVersion() : null);
+            LOGGER.info("Cached {} {} items at resourceVersion {}.", list.getItems().size(), type.getSimpleName(), resourceVersion);
+            watch();
+        } catch (Throwable t) {
+            LOGGER.warn("Failed to list {}. Will retry on next resync.", type.getSimpleName(), t);
+            warm = false;
+        }
+    }
+
+    private synchronized void resume() {
+        if (closed) {
+            return;
+        }
+        //Set before watching, as the first event may arrive before watch() returns.
+        resuming = true;
+        try {
+            watch();
+            scheduler.schedule(this::relistIfResuming, Math.min(RESUME_TIMEOUT_MILLIS, resyncPeriodMillis), TimeUnit.MILLISECONDS);
+        } catch (KubernetesClientException e) {
+            //Most likely the resourceVersion of the snapshot is too old.
+            relist();
+        }
+    }
+
+    private synchronized void relistIfResuming() {
+        if (resuming) {
+            LOGGER.info("No {} events since resuming from the snapshot. Relisting.", type.getSimpleName());
+            relist();
+        }
+    }
+
+    private synchronized void rewatch() {
+        if (closed) {
+            return;
+        }
+        try {
+            watch();
+            //A restored cache that lost its watch before the first event stays cold until that event.
+            warm = !resuming;
+        } catch (KubernetesClientException e) {
+            //Most likely our resourceVersion is too old.
+            relist();
+        }
+    }
+
+    private synchronized void resync() {
+        if (closed) {
+            return;
+        }
+        if (watch == null || !warm) {
+            relist();
+            return;
+        }
+        closeWatch();
+        try {
+            L list = operation.get().list();
+            replace(list.getItems(), list.getMetadata() != null ? list.getMetadata().getResourceVersion() : null);
+        } catch (Throwable t) {
+            LOGGER.warn("Failed to resync {}. Resuming the watch.", type.getSimpleName(), t);
+        }
+        rewatch();
+    }
+
+    private void watch() {
+        closeWatch();
+        Watcher<T> current = new Watcher<T>() {
+            @Override
+            public void eventReceived(Action action, T resource) {
+                if (watcher == this) {
+                    ResourceCache.this.eventReceived(action, resource);
+                }
+            }
+
+            @Override
+            public void onClose(KubernetesClientException cause) {
+                if (watcher == this) {
+                    ResourceCache.this.onClose(cause);
+                }
+            }
+        };
+        watcher = current;
+        watch = operation.get().watch(resourceVersion, current);
+    }
+
+    private void closeWatch() {
+        Watch current = watch;
+        watcher = null;
+        watch = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (Throwable t) {
+                //ignore
+            }
+        }
+    }
+
+    private ConcurrentMap<String, ConcurrentMap<String, T>> storeOf(Collection<T> items) {
+        ConcurrentMap<String, ConcurrentMap<String, T>> result = new ConcurrentSkipListMap<>();
+        for (T item : items) {
+            result.computeIfAbsent(keyOf(item), k -> new ConcurrentSkipListMap<>()).put(item.getMetadata().getName(), item);
+        }
+        return result;
+    }
+
+    private String keyOf(HasMetadata resource) {
+        return keyOf(resource.getMetadata().getNamespace());
+    }
+
+    private String keyOf(String namespace) {
+        return namespaced && namespace != null ? namespace : CLUSTER_SCOPE;
+    }
+}
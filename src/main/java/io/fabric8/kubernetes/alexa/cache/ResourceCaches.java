@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.cache;
+
+import io.fabric8.kubernetes.alexa.match.BkTreeNameMatcher;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceList;
+import io.fabric8.kubernetes.api.model.NamespaceListBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.ReplicationControllerList;
+import io.fabric8.kubernetes.api.model.ReplicationControllerListBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.api.model.ServiceListBuilder;
+import io.fabric8.kubernetes.api.model.extensions.Deployment;
+import io.fabric8.kubernetes.api.model.extensions.DeploymentList;
+import io.fabric8.kubernetes.api.model.extensions.DeploymentListBuilder;
+import io.fabric8.kubernetes.api.model.extensions.ReplicaSet;
+import io.fabric8.kubernetes.api.model.extensions.ReplicaSetList;
+import io.fabric8.kubernetes.api.model.extensions.ReplicaSetListBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
+import io.fabric8.kubernetes.client.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The set of {@link ResourceCache} instances that are shared by all handlers using the same {@link KubernetesClient}.
+ * Caches are only populated once {@link #start()} has been called, so by default every lookup falls back to the API server.
+ * The {@link NameIndex} is always available and falls back to a TTL when the caches are not running, while the
+ * {@link OwnerIndex} only answers once the caches are warm and its graph has been built on the scheduler.
+ * Warm caches are periodically written to gzipped snapshots on local disk, which are restored on the next start, so that
+ * a restarted container resumes watching where it left off instead of relisting the whole cluster.
+ */
+public class ResourceCaches implements Closeable {
+
+    public static final String CACHE_ENABLED_ENV_VAR = "ALEXA_CACHE_ENABLED";
+    public static final String CACHE_RESYNC_PERIOD_ENV_VAR = "ALEXA_CACHE_RESYNC_PERIOD";
+    public static final String CACHE_SNAPSHOT_DIR_ENV_VAR = "ALEXA_CACHE_SNAPSHOT_DIR";
+    public static final String CACHE_SNAPSHOT_PERIOD_ENV_VAR = "ALEXA_CACHE_SNAPSHOT_PERIOD";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceCaches.class);
+
+    private static final long DEFAULT_RESYNC_PERIOD_SECONDS = 600;
+    private static final long DEFAULT_SNAPSHOT_PERIOD_SECONDS = 60;
+    private static final String DEFAULT_SNAPSHOT_DIR = "kubernetes-alexa-cache";
+    private static final String SNAPSHOT_SUFFIX = ".json.gz";
+    private static final Map<KubernetesClient, ResourceCaches> INSTANCES = new ConcurrentHashMap<>();
+
+    private final KubernetesClient client;
+    private final Map<Class<?>, ResourceCache<?, ?>> caches = new ConcurrentHashMap<>();
+    private final NameIndex nameIndex = new NameIndex(this, BkTreeNameMatcher.FACTORY, NameIndex.DEFAULT_TTL_MILLIS, System::currentTimeMillis);
+    private final OwnerIndex ownerIndex = new OwnerIndex(this);
+    private final Map<Class<?>, String> snapshotVersions = new ConcurrentHashMap<>();
+    private final Path snapshotDir;
+    private ScheduledExecutorService scheduler;
+
+    ResourceCaches(KubernetesClient client) {
+        this(client, getSnapshotDir());
+    }
+
+    ResourceCaches(KubernetesClient client, Path snapshotDir) {
+        this.client = client;
+        this.snapshotDir = snapshotDir;
+    }
+
+    /**
+     * Returns the caches of the specified client.
+     * @param client    The client.
+     * @return          The caches (possibly not started).
+     */
+    public static ResourceCaches of(KubernetesClient client) {
+        return INSTANCES.computeIfAbsent(client, ResourceCaches::new);
+    }
+
+    /**
+     * @return True if caching has been enabled via the environment.
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getenv(CACHE_ENABLED_ENV_VAR));
+    }
+
+    /**
+     * Starts caching pods, services, deployments, namespaces and (for the {@link OwnerIndex}) replica sets and
+     * replication controllers.
+     * @return  This instance.
+     */
+    public synchronized ResourceCaches start() {
+        if (scheduler != null) {
+            return this;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kubernetes-alexa-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long resyncPeriod = TimeUnit.SECONDS.toMillis(getResyncPeriodSeconds());
+        register(new ResourceCache<Pod, PodList>(Pod.class, true,
+                () -> (BaseOperation<Pod, PodList, ?, ?>) client.pods().inAnyNamespace(),
+                items -> new PodListBuilder().withItems(items).build(), scheduler, resyncPeriod));
+        register(new ResourceCache<Service, ServiceList>(Service.class, true,
+                () -> (BaseOperation<Service, ServiceList, ?, ?>) client.services().inAnyNamespace(),
+                items -> new ServiceListBuilder().withItems(items).build(), scheduler, resyncPeriod));
+        register(new ResourceCache<Deployment, DeploymentList>(Deployment.class, true,
+                () -> (BaseOperation<Deployment, DeploymentList, ?, ?>) client.extensions().deployments().inAnyNamespace(),
+                items -> new DeploymentListBuilder().withItems(items).build(), scheduler, resyncPeriod));
+        register(new ResourceCache<ReplicaSet, ReplicaSetList>(ReplicaSet.class, true,
+                () -> (BaseOperation<ReplicaSet, ReplicaSetList, ?, ?>) client.extensions().replicaSets().inAnyNamespace(),
+                items -> new ReplicaSetListBuilder().withItems(items).build(), scheduler, resyncPeriod));
+        register(new ResourceCache<ReplicationController, ReplicationControllerList>(ReplicationController.class, true,
+                () -> (BaseOperation<ReplicationController, ReplicationControllerList, ?, ?>) client.replicationControllers().inAnyNamespace(),
+                items -> new ReplicationControllerListBuilder().withItems(items).build(), scheduler, resyncPeriod));
+        register(new ResourceCache<Namespace, NamespaceList>(Namespace.class, false,
+                () -> (BaseOperation<Namespace, NamespaceList, ?, ?>) client.namespaces(),
+                items -> new NamespaceListBuilder().withItems(items).build(), scheduler, resyncPeriod));
+
+        //Requests only read the published graph, the scheduler builds it.
+        scheduler.scheduleWithFixedDelay(ownerIndex::refresh, 0, OwnerIndex.DEFAULT_REBUILD_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        long snapshotPeriod = TimeUnit.SECONDS.toMillis(getSnapshotPeriodSeconds());
+        scheduler.scheduleWithFixedDelay(this::writeSnapshots, snapshotPeriod, snapshotPeriod, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Returns the cache for the specified type.
+     * @param type  The resource type.
+     * @return      The cache or null if the type is not cached.
+     */
+    public <T extends HasMetadata, L extends KubernetesResourceList> ResourceCache<T, L> get(Class<T> type) {
+        return (ResourceCache<T, L>) caches.get(type);
+    }
+
+    /**
+     * @return True if every started cache has completed its initial list (trivially true if caching hasn't been started).
+     */
+    public boolean isReady() {
+        return caches.values().stream().allMatch(ResourceCache::isWarm);
+    }
+
+    /**
+     * @return The index used to resolve names of resources.
+     */
+    public NameIndex getNameIndex() {
+        return nameIndex;
+    }
+
+    /**
+     * @return The index used to find the pods of workloads and the workloads of pods.
+     */
+    public OwnerIndex getOwnerIndex() {
+        return ownerIndex;
+    }
+
+    @Override
+    public synchronized void close() {
+        writeSnapshots();
+        caches.values().forEach(ResourceCache::close);
+        caches.clear();
+        nameIndex.clear();
+        ownerIndex.clear();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        INSTANCES.remove(client);
+    }
+
+    private void register(ResourceCache<?, ?> cache) {
+        restoreSnapshot(cache);
+        caches.put(cache.getType(), cache);
+        cache.start();
+    }
+
+    /**
+     * Restores the cache from its snapshot, if there is one of the same cluster.
+     * @param cache The cache (not started yet).
+     */
+    void restoreSnapshot(ResourceCache<?, ?> cache) {
+        Path file = snapshotFileOf(cache);
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            if (cache.restoreSnapshot(in, getCluster())) {
+                snapshotVersions.put(cache.getType(), cache.getResourceVersion());
+                LOGGER.info("Restored {} {} items at resourceVersion {} from {}.", cache.list((String) null).size(),
+                        cache.getType().getSimpleName(), cache.getResourceVersion(), file);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Ignoring unreadable cache snapshot {}: {}.", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a snapshot of every warm cache that has changed since its last snapshot.
+     */
+    void writeSnapshots() {
+        for (ResourceCache<?, ?> cache : caches.values()) {
+            Path file = snapshotFileOf(cache);
+            String resourceVersion = cache.getResourceVersion();
+            if (file == null || !cache.isWarm() || resourceVersion == null || resourceVersion.equals(snapshotVersions.get(cache.getType()))) {
+                continue;
+            }
+            Path tmp = null;
+            try {
+                Files.createDirectories(snapshotDir);
+                //Write next to the snapshot and move it in place, so that a crash never leaves half a snapshot behind.
+                tmp = Files.createTempFile(snapshotDir, cache.getType().getSimpleName(), ".tmp");
+                boolean written;
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                    written = cache.writeSnapshot(out, getCluster());
+                }
+                //The cache may have gone cold since it was checked, in which case there is nothing worth keeping.
+                if (written) {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    snapshotVersions.put(cache.getType(), resourceVersion);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Failed to write cache snapshot {}: {}.", file, e.getMessage());
+            } finally {
+                deleteQuietly(tmp);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.debug("Failed to delete {}.", file, e);
+        }
+    }
+
+    private Path snapshotFileOf(ResourceCache<?, ?> cache) {
+        return snapshotDir != null ? snapshotDir.resolve(cache.getType().getSimpleName() + SNAPSHOT_SUFFIX) : null;
+    }
+
+    private String getCluster() {
+        return client.getMasterUrl().toString();
+    }
+
+    private static Path getSnapshotDir() {
+        String value = System.getenv(CACHE_SNAPSHOT_DIR_ENV_VAR);
+        return Utils.isNotNullOrEmpty(value) ? Paths.get(value) : Paths.get(System.getProperty("java.io.tmpdir"), DEFAULT_SNAPSHOT_DIR);
+    }
+
+    private static long getSnapshotPeriodSeconds() {
+        String value = System.getenv(CACHE_SNAPSHOT_PERIOD_ENV_VAR);
+        try {
+            return value != null ? Long.parseLong(value) : DEFAULT_SNAPSHOT_PERIOD_SECONDS;
+        } catch (NumberFormatException e) {
+            return DEFAULT_SNAPSHOT_PERIOD_SECONDS;
+        }
+    }
+
+    private static long getResyncPeriodSeconds() {
+        String value = System.getenv(CACHE_RESYNC_PERIOD_ENV_VAR);
+        try {
+            return value != null ? Long.parseLong(value) : DEFAULT_RESYNC_PERIOD_SECONDS;
+        } catch (NumberFormatException e) {
+            return DEFAULT_RESYNC_PERIOD_SECONDS;
+        }
+    }
+}
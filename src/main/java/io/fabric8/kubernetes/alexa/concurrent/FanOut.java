@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.concurrent;
+
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs independent lookups concurrently and gives up on them once a time budget is exhausted.
+ * On a JDK with virtual threads every task gets its own virtual thread, otherwise pooled daemon threads are used.
+ * In both cases no more than a fixed number of tasks run at the same time, so that we don't flood the API server.
+ */
+public class FanOut {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FanOut.class);
+
+    public static final String PARALLELISM_ENV_VAR = "ALEXA_FAN_OUT_PARALLELISM";
+
+    private static final int DEFAULT_PARALLELISM = 16;
+    private static final FanOut INSTANCE = new FanOut(getParallelism());
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    FanOut(int parallelism) {
+        this(createExecutor(), parallelism);
+    }
+
+    FanOut(ExecutorService executor, int parallelism) {
+        this.executor = executor;
+        this.permits = new Semaphore(parallelism);
+    }
+
+    /**
+     * @return The shared instance.
+     */
+    public static FanOut getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Applies the function to all items concurrently, waiting no longer than the specified timeout.
+     * @param items     The items.
+     * @param function  The function to apply to each item.
+     * @param timeout   The time budget.
+     * @param unit      The unit of the time budget.
+     * @return          The results that completed within the budget, in the order of the items.
+     */
+    public <T, R> Result<R> map(Collection<T> items, Function<? super T, ? extends R> function, long timeout, TimeUnit unit) {
+        if (items.isEmpty()) {
+            return new Result<>(Collections.emptyList(), 0, 0);
+        }
+
+        List<Callable<R>> tasks = new ArrayList<>(items.size());
+        for (T item : items) {
+            tasks.add(RequestScope.wrap(() -> {
+                permits.acquire();
+                try {
+                    return function.apply(item);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        //Never wait past the deadline of the request.
+        RequestScope scope = RequestScope.current();
+        long timeoutNanos = unit.toNanos(timeout);
+        if (scope != null) {
+            timeoutNanos = Math.min(timeoutNanos, scope.getDeadline().remaining(TimeUnit.NANOSECONDS));
+        }
+
+        List<Future<R>> futures;
+        try {
+            futures = executor.invokeAll(tasks, Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result<>(Collections.emptyList(), items.size(), 0);
+        }
+
+        List<R> completed = new ArrayList<>(items.size());
+        int pending = 0;
+        int failed = 0;
+        for (Future<R> future : futures) {
+            try {
+                completed.add(future.get());
+            } catch (CancellationException e) {
+                pending++;
+            } catch (ExecutionException e) {
+                LOGGER.debug("Fan-out task failed.", e.getCause());
+                failed++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending++;
+            }
+        }
+        return new Result<>(completed, pending, failed);
+    }
+
+    /**
+     * Runs a single task in the background, within the scope of the current request.
+     * Unlike {@link #map(Collection, Function, long, TimeUnit)} this doesn't count against the parallelism limit, as the
+     * task is expected to fan out itself.
+     * @param task  The task.
+     * @return      The future of the task.
+     */
+    public <R> Future<R> submit(Callable<R> task) {
+        return executor.submit(RequestScope.wrap(task));
+    }
+
+    /**
+     * Creates a virtual thread per task executor if the JDK supports it, else a cached pool of daemon threads.
+     */
+    private static ExecutorService createExecutor() {
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        if (executor != null) {
+            LOGGER.info("Using virtual threads for fan-out.");
+            return executor;
+        }
+        //Submitted requests may fan out themselves, so the pool must not be bounded (the permits are).
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                VirtualThreads.daemonThreadFactory("kubernetes-alexa-fan-out"));
+    }
+
+    private static int getParallelism() {
+        String value = System.getenv(PARALLELISM_ENV_VAR);
+        try {
+            return value != null ? Math.max(1, Integer.parseInt(value)) : DEFAULT_PARALLELISM;
+        } catch (NumberFormatException e) {
+            return DEFAULT_PARALLELISM;
+        }
+    }
+
+    /**
+     * The outcome of a fan-out.
+     * @param <R>   The result type.
+     */
+    public static class Result<R> {
+        private final List<R> completed;
+        private final int pending;
+        private final int failed;
+
+        Result(List<R> completed, int pending, int failed) {
+            this.completed = completed;
+            this.pending = pending;
+            this.failed = failed;
+        }
+
+        /**
+         * @return The results of the tasks that completed within the budget.
+         */
+        public List<R> getCompleted() {
+            return completed;
+        }
+
+        /**
+         * @return The number of tasks that didn't complete within the budget.
+         */
+        public int getPending() {
+            return pending;
+        }
+
+        /**
+         * @return The number of tasks that failed.
+         */
+        public int getFailed() {
+            return failed;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fabric8.kubernetes.alexa.deadline;
+
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An application interceptor that applies the {@link Deadline} of the current {@link RequestScope} to Kubernetes calls.
+ * Calls are refused once the deadline has expired. Otherwise the call is cancelled when the deadline expires or when
+ * the request is cancelled, whichever comes first, for as long as its response body hasn't been consumed.
+ * The client we use supports neither per call timeouts nor tagging calls, so the call is looked up among the running
+ * calls of the dispatcher by its original request, which is the request the first application interceptor sees. The
+ * interceptor has to be added first for that reason, and leaves calls it can't find alone. Cancelling the call works the same for HTTP/1.1 and multiplexed
+ * (HTTP/2) connections, where only the stream of the call is reset.
+ */
+public class DeadlineInterceptor implements Interceptor {
+
+    private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+    private final Dispatcher dispatcher;
+
+    /**
+     * @param dispatcher    The dispatcher of the client the interceptor is added to.
+     */
+    public DeadlineInterceptor(Dispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        RequestScope scope = RequestScope.current();
+        Request request = chain.request();
+        if (scope == null) {
+            return chain.proceed(request);
+        } else if (scope.isDone()) {
+            throw new InterruptedIOException("Request deadline exceeded before calling: " + request.url());
+        }
+
+        Call call = callOf(request);
+        if (call == null) {
+            return chain.proceed(request);
+        }
+        Runnable abort = call::cancel;
+        //Nanoseconds, so that the deadline has really expired when the call is cancelled.
+        long remaining = Math.max(1, scope.getDeadline().remaining(TimeUnit.NANOSECONDS));
+        Release release = new Release(scope, abort, TIMER.schedule(abort, remaining, TimeUnit.NANOSECONDS));
+        scope.register(abort);
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            release.run();
+            throw e;
+        }
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            release.run();
+            return response;
+        }
+        //The body is read after we return, so keep the deadline in place until it is consumed or closed.
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(new ForwardingSource(body.source()) {
+                    @Override
+                    public long read(Buffer sink, long byteCount) throws IOException {
+                        long result = super.read(sink, byteCount);
+                        if (result == -1) {
+                            release.run();
+                        }
+                        return result;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            release.run();
+                        }
+                    }
+                })))
+                .build();
+    }
+
+    //Synchronous calls are only listed while they execute, which is why the call is looked up before proceeding.
+    private Call callOf(Request request) {
+        for (Call call : dispatcher.runningCalls()) {
+            if (call.request() == request) {
+                return call;
+            }
+        }
+        return null;
+    }
+
+    private static ScheduledThreadPoolExecutor createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "kubernetes-alexa-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        //Most calls complete in time, so don't keep their timeouts around until they would have fired.
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private static class Release implements Runnable {
+        private final RequestScope scope;
+        private final Runnable abort;
+        private final ScheduledFuture<?> timeout;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Release(RequestScope scope, Runnable abort, ScheduledFuture<?> timeout) {
+            this.scope = scope;
+            this.abort = abort;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public void run() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            scope.unregister(abort);
+            timeout.cancel(false);
+        }
+    }
+}
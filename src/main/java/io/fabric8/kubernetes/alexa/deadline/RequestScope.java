@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.deadline;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.alexa.metrics.RequestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The state of the Alexa request that is currently being handled: its {@link Deadline} and what is needed for sending
+ * progressive responses. The scope is bound to the thread handling the request and has to be explicitly propagated to
+ * any other thread doing work on behalf of the request (see {@link #wrap(Callable)}).
+ * Kubernetes calls made within a scope are tracked, so that they can be aborted once the request is cancelled.
+ */
+public class RequestScope {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestScope.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ThreadLocal<RequestScope> CURRENT = new ThreadLocal<>();
+
+    private final Deadline deadline;
+    private final String requestId;
+    private final String apiEndpoint;
+    private final String apiAccessToken;
+    private final RequestMetrics metrics = new RequestMetrics();
+    //Aborts the Kubernetes calls in flight, see DeadlineInterceptor.
+    private final Set<Runnable> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private volatile boolean cancelled;
+
+    public RequestScope(Deadline deadline, String requestId, String apiEndpoint, String apiAccessToken) {
+        this.deadline = deadline;
+        this.requestId = requestId;
+        this.apiEndpoint = apiEndpoint;
+        this.apiAccessToken = apiAccessToken;
+    }
+
+    /**
+     * Creates the scope of a raw Alexa request.
+     * The api access token is read from the request envelope, as the speechlet api doesn't expose it.
+     * @param request   The serialized request envelope.
+     * @param deadline  The deadline of the request.
+     * @return          The scope.
+     */
+    public static RequestScope fromRequest(byte[] request, Deadline deadline) throws IOException {
+        JsonNode root = MAPPER.readTree(request);
+        JsonNode system = root.path("context").path("System");
+        return new RequestScope(deadline,
+                root.path("request").path("requestId").asText(null),
+                system.path("apiEndpoint").asText(null),
+                system.path("apiAccessToken").asText(null));
+    }
+
+    /**
+     * @return The scope bound to the current thread, or null.
+     */
+    public static RequestScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs the callable with this scope bound to the current thread.
+     * @param callable  The callable.
+     * @return          The result of the callable.
+     */
+    public <V> V call(Callable<V> callable) throws Exception {
+        RequestScope previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return callable.call();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Wraps the callable so that it runs within the scope of the current thread, wherever it is called.
+     * @param callable  The callable.
+     * @return          The wrapped callable, or the callable itself if there is no current scope.
+     */
+    public static <V> Callable<V> wrap(Callable<V> callable) {
+        RequestScope scope = current();
+        return scope != null ? () -> scope.call(callable) : callable;
+    }
+
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public String getApiEndpoint() {
+        return apiEndpoint;
+    }
+
+    public String getApiAccessToken() {
+        return apiAccessToken;
+    }
+
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return True if the deadline has expired or the request has been cancelled.
+     */
+    public boolean isDone() {
+        return cancelled || deadline.isExpired();
+    }
+
+    /**
+     * Cancels the request: Kubernetes calls in flight are aborted and no new ones are allowed.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Runnable abort : inFlight) {
+            try {
+                abort.run();
+            } catch (RuntimeException e) {
+                LOGGER.debug("Failed to abort call of cancelled request.", e);
+            }
+        }
+        inFlight.clear();
+    }
+
+    void register(Runnable abort) {
+        inFlight.add(abort);
+        //Don't leave a call running if we were cancelled in the meantime.
+        if (cancelled) {
+            cancel();
+        }
+    }
+
+    void unregister(Runnable abort) {
+        inFlight.remove(abort);
+    }
+}
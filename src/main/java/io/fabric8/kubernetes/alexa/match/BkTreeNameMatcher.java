@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.match;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static org.apache.commons.lang3.StringUtils.getLevenshteinDistance;
+
+/**
+ * A {@link NameMatcher} backed by a BK-tree, so that a lookup only computes distances against a small part of the names.
+ * The tree is built once per set of names and is safe to share between threads once built.
+ */
+public class BkTreeNameMatcher implements NameMatcher {
+
+    public static final NameMatcherFactory FACTORY = BkTreeNameMatcher::new;
+
+    private final Node root;
+    private final int maxLength;
+
+    public BkTreeNameMatcher(List<String> names) {
+        Node root = null;
+        int maxLength = 0;
+        int index = 0;
+        for (String name : names) {
+            if (root == null) {
+                root = new Node(name, index);
+            } else {
+                root.add(name, index);
+            }
+            maxLength = Math.max(maxLength, name.length());
+            index++;
+        }
+        this.root = root;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public String match(String name) {
+        if (root == null) {
+            return null;
+        }
+
+        //A candidate of length n can only match if n - |name| <= threshold(n), which bounds the length of any match
+        //and therefore the largest threshold (the search radius) we need to consider.
+        int longestMatch = Math.min(maxLength, Math.max(name.length() + 1, (name.length() * 4) / 3));
+        int radius = NameMatcher.thresholdOf(longestMatch);
+
+        Node best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            //Distances above radius + the largest edge can't lead to any child within the radius.
+            int distance = getLevenshteinDistance(node.name, name, radius + node.maxEdge);
+            if (distance < 0) {
+                continue;
+            }
+            if (distance <= NameMatcher.thresholdOf(node.name)
+                    && (distance < bestDistance || (distance == bestDistance && node.index < best.index))) {
+                best = node;
+                bestDistance = distance;
+            }
+            if (node.children != null) {
+                for (int edge = Math.max(1, distance - radius); edge <= Math.min(node.maxEdge, distance + radius); edge++) {
+                    Node child = node.children[edge];
+                    if (child != null) {
+                        pending.push(child);
+                    }
+                }
+            }
+        }
+        return best != null ? best.name : null;
+    }
+
+    private static class Node {
+        private final String name;
+        private final int index;
+        private Node[] children;
+        private int maxEdge;
+
+        private Node(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        private void add(String name, int index) {
+            Node node = this;
+            while (true) {
+                int distance = getLevenshteinDistance(node.name, name);
+                if (distance == 0) {
+                    //Duplicate: the first occurrence wins.
+                    return;
+                }
+                if (node.children == null) {
+                    node.children = new Node[Math.max(distance + 1, 8)];
+                } else if (node.children.length <= distance) {
+                    Node[] children = new Node[Math.max(distance + 1, node.children.length * 2)];
+                    System.arraycopy(node.children, 0, children, 0, node.children.length);
+                    node.children = children;
+                }
+                node.maxEdge = Math.max(node.maxEdge, distance);
+                Node child = node.children[distance];
+                if (child == null) {
+                    node.children[distance] = new Node(name, index);
+                    return;
+                }
+                node = child;
+            }
+        }
+    }
+}
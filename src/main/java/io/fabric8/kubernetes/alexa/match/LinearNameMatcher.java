@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.match;
+
+import java.util.List;
+
+import static org.apache.commons.lang3.StringUtils.getLevenshteinDistance;
+
+/**
+ * A {@link NameMatcher} that scans all names, using a length filter and a distance computation that gives up as soon as
+ * the candidate can no longer beat the best match found so far.
+ */
+public class LinearNameMatcher implements NameMatcher {
+
+    public static final NameMatcherFactory FACTORY = LinearNameMatcher::new;
+
+    private final List<String> names;
+
+    public LinearNameMatcher(List<String> names) {
+        this.names = names;
+    }
+
+    @Override
+    public String match(String name) {
+        String best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (String candidate : names) {
+            //Only a strictly smaller distance can replace a match found earlier.
+            int threshold = Math.min(NameMatcher.thresholdOf(candidate), bestDistance - 1);
+            if (threshold < 0 || Math.abs(candidate.length() - name.length()) > threshold) {
+                continue;
+            }
+            int distance = getLevenshteinDistance(candidate, name, threshold);
+            if (distance >= 0) {
+                best = candidate;
+                bestDistance = distance;
+                if (distance == 0) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.match;
+
+/**
+ * Selects the name that sounds like what Alexa heard, out of a fixed set of names.
+ * A candidate is accepted if it is within a Levenshtein distance of 25% of its length (and at least 1) from the name.
+ * Among accepted candidates the closest one wins, ties going to the candidate that came first.
+ */
+public interface NameMatcher {
+
+    /**
+     * Finds the closest name.
+     * @param name  The name as Alexa heard it.
+     * @return      The closest name or null if no name is close enough.
+     */
+    String match(String name);
+
+    /**
+     * Returns the maximum distance a candidate may have from the specified name.
+     * @param candidate The candidate.
+     * @return          The threshold.
+     */
+    static int thresholdOf(String candidate) {
+        return thresholdOf(candidate.length());
+    }
+
+    /**
+     * Returns the maximum distance a candidate of the specified length may have from the name.
+     * @param length    The length of the candidate.
+     * @return          The threshold.
+     */
+    static int thresholdOf(int length) {
+        return Math.max(1, (int) (length * 0.25));
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.match;
+
+import java.util.List;
+
+public interface NameMatcherFactory {
+
+    /**
+     * Creates a {@link NameMatcher}.
+     * @param names     The names to match against, in order of preference.
+     * @return          The created {@link NameMatcher}.
+     */
+    NameMatcher create(List<String> names);
+}
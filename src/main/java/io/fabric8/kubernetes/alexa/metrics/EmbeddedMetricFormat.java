@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Formats {@link RequestMetrics} as a CloudWatch Embedded Metric Format log line.
+ * When running as a lambda, CloudWatch extracts the metrics from the log, so no agent or API call is needed.
+ */
+public final class EmbeddedMetricFormat {
+
+    public static final String METRICS_NAMESPACE_ENV_VAR = "ALEXA_METRICS_NAMESPACE";
+
+    private static final String DEFAULT_NAMESPACE = "KubernetesAlexa";
+    private static final String INTENT = "Intent";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private EmbeddedMetricFormat() {
+        //Utility class
+    }
+
+    /**
+     * @param requestId     The id of the request (logged as a property, so that it can be searched).
+     * @param request       The metrics of the request.
+     * @param timestamp     The time of the request in milliseconds since the epoch.
+     * @return              A single line of json.
+     */
+    public static String format(String requestId, RequestMetrics request, long timestamp) {
+        ObjectNode root = MAPPER.createObjectNode();
+        ObjectNode directive = root.putObject("_aws")
+                .put("Timestamp", timestamp)
+                .putArray("CloudWatchMetrics")
+                .addObject()
+                .put("Namespace", getNamespace());
+        directive.putArray("Dimensions").addArray().add(INTENT);
+        ArrayNode metrics = directive.putArray("Metrics");
+        metrics.addObject().put("Name", "Latency").put("Unit", "Milliseconds");
+        metrics.addObject().put("Name", "Errors").put("Unit", "Count");
+        metrics.addObject().put("Name", "KubernetesCalls").put("Unit", "Count");
+        metrics.addObject().put("Name", "KubernetesCallTime").put("Unit", "Milliseconds");
+        metrics.addObject().put("Name", "KubernetesResponseSize").put("Unit", "Bytes");
+        metrics.addObject().put("Name", "CacheHits").put("Unit", "Count");
+        metrics.addObject().put("Name", "CacheMisses").put("Unit", "Count");
+
+        root.put(INTENT, request.getIntent() != null ? request.getIntent() : Metrics.NO_INTENT);
+        root.put("RequestId", requestId);
+        root.put("Latency", request.getElapsedMillis());
+        root.put("Errors", request.isError() ? 1 : 0);
+        root.put("KubernetesCalls", request.getApiCalls());
+        root.put("KubernetesCallTime", request.getApiCallMillis());
+        root.put("KubernetesResponseSize", request.getApiResponseBytes());
+        root.put("CacheHits", request.getCacheHits());
+        root.put("CacheMisses", request.getCacheMisses());
+        return root.toString();
+    }
+
+    private static String getNamespace() {
+        String namespace = System.getenv(METRICS_NAMESPACE_ENV_VAR);
+        return namespace != null && !namespace.isEmpty() ? namespace : DEFAULT_NAMESPACE;
+    }
+}
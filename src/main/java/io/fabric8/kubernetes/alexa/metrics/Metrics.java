@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.metrics;
+
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of the process, aggregated per intent: request latency and errors, number / duration of Kubernetes calls
+ * and the size of their responses. Cache hits and misses are aggregated per resource type.
+ * Kubernetes calls and cache lookups are attributed to the intent of the current {@link RequestScope}. Those made
+ * outside of a request (e.g. by the caches themselves) are attributed to {@link #NO_INTENT}.
+ */
+public class Metrics {
+
+    public static final String NO_INTENT = "none";
+
+    private static final Metrics INSTANCE = new Metrics();
+
+    private final Map<String, IntentMetrics> intents = new ConcurrentHashMap<>();
+    private final Map<String, CacheMetrics> caches = new ConcurrentHashMap<>();
+
+    Metrics() {
+    }
+
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records the completion of a request.
+     * @param request   The metrics of the request.
+     */
+    public void recordRequest(RequestMetrics request) {
+        long elapsed = request.complete();
+        IntentMetrics metrics = get(request.getIntent());
+        metrics.duration.record(toSeconds(elapsed));
+        if (request.isError()) {
+            metrics.errors.increment();
+        }
+    }
+
+    /**
+     * Records a Kubernetes call made within the current request scope (if any).
+     * @param nanos     The duration of the call, including reading the response.
+     * @param bytes     The size of the response body or -1 if unknown.
+     */
+    public void recordApiCall(long nanos, long bytes) {
+        RequestMetrics request = currentRequest();
+        if (request != null) {
+            request.recordApiCall(nanos, bytes);
+        }
+        IntentMetrics metrics = get(request != null ? request.getIntent() : null);
+        metrics.apiCallDuration.record(toSeconds(nanos));
+        if (bytes >= 0) {
+            metrics.apiResponseSize.record(bytes);
+        }
+    }
+
+    /**
+     * Records a lookup of a {@link io.fabric8.kubernetes.alexa.cache.ResourceCache}.
+     * @param type      The type of resource looked up.
+     * @param hit       Whether the cache could serve the lookup.
+     */
+    public void recordCacheLookup(Class<?> type, boolean hit) {
+        RequestMetrics request = currentRequest();
+        if (request != null) {
+            request.recordCacheLookup(hit);
+        }
+        CacheMetrics metrics = caches.computeIfAbsent(type.getSimpleName(), k -> new CacheMetrics());
+        (hit ? metrics.hits : metrics.misses).increment();
+    }
+
+    /**
+     * @return The metrics per intent, sorted by intent.
+     */
+    public SortedMap<String, IntentMetrics> getIntents() {
+        return new TreeMap<>(intents);
+    }
+
+    /**
+     * @return The cache metrics per resource type, sorted by type.
+     */
+    public SortedMap<String, CacheMetrics> getCaches() {
+        return new TreeMap<>(caches);
+    }
+
+    private IntentMetrics get(String intent) {
+        return intents.computeIfAbsent(intent != null ? intent : NO_INTENT, k -> new IntentMetrics());
+    }
+
+    private static RequestMetrics currentRequest() {
+        RequestScope scope = RequestScope.current();
+        return scope != null ? scope.getMetrics() : null;
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    public static class IntentMetrics {
+        private final Histogram duration = new Histogram(Histogram.DURATION_BOUNDS);
+        private final LongAdder errors = new LongAdder();
+        private final Histogram apiCallDuration = new Histogram(Histogram.DURATION_BOUNDS);
+        private final Histogram apiResponseSize = new Histogram(Histogram.SIZE_BOUNDS);
+
+        /**
+         * @return The duration of requests in seconds (its count is the number of requests).
+         */
+        public Histogram getDuration() {
+            return duration;
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        /**
+         * @return The duration of Kubernetes calls in seconds (its count is the number of calls).
+         */
+        public Histogram getApiCallDuration() {
+            return apiCallDuration;
+        }
+
+        /**
+         * @return The size of Kubernetes responses in bytes.
+         */
+        public Histogram getApiResponseSize() {
+            return apiResponseSize;
+        }
+    }
+
+    public static class CacheMetrics {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.metrics;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An application interceptor that records the number and duration of Kubernetes calls, and the size of their responses.
+ * As the client reads the response body after the call returns, a call is recorded once its body is consumed or closed.
+ * Watches are long running by design and are not recorded.
+ */
+public class MetricsInterceptor implements Interceptor {
+
+    private final Metrics metrics;
+
+    public MetricsInterceptor() {
+        this(Metrics.getInstance());
+    }
+
+    public MetricsInterceptor(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if ("true".equals(chain.request().url().queryParameter("watch"))) {
+            return chain.proceed(chain.request());
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            metrics.recordApiCall(System.nanoTime() - start, -1);
+            throw e;
+        }
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            metrics.recordApiCall(System.nanoTime() - start, -1);
+            return response;
+        }
+        Record record = new Record(metrics, start);
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(new ForwardingSource(body.source()) {
+                    @Override
+                    public long read(Buffer sink, long byteCount) throws IOException {
+                        long result = super.read(sink, byteCount);
+                        if (result == -1) {
+                            record.run();
+                        } else {
+                            record.bytes += result;
+                        }
+                        return result;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            record.run();
+                        }
+                    }
+                })))
+                .build();
+    }
+
+    private static class Record implements Runnable {
+        private final Metrics metrics;
+        private final long start;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        //Only updated by the thread reading the body.
+        private long bytes;
+
+        private Record(Metrics metrics, long start) {
+            this.metrics = metrics;
+            this.start = start;
+        }
+
+        @Override
+        public void run() {
+            if (recorded.compareAndSet(false, true)) {
+                metrics.recordApiCall(System.nanoTime() - start, bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes {@link Metrics} in the Prometheus text exposition format.
+ */
+public final class PrometheusFormat {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private PrometheusFormat() {
+        //Utility class
+    }
+
+    public static void write(Metrics metrics, Appendable out) throws IOException {
+        Map<String, Metrics.IntentMetrics> intents = metrics.getIntents();
+
+        header(out, "alexa_request_duration_seconds", "histogram", "The time it took to answer Alexa requests.");
+        for (Map.Entry<String, Metrics.IntentMetrics> entry : intents.entrySet()) {
+            histogram(out, "alexa_request_duration_seconds", entry.getKey(), entry.getValue().getDuration());
+        }
+
+        header(out, "alexa_request_errors_total", "counter", "The number of Alexa requests answered with a failure.");
+        for (Map.Entry<String, Metrics.IntentMetrics> entry : intents.entrySet()) {
+            sample(out, "alexa_request_errors_total", "intent=\"" + escape(entry.getKey()) + "\"", entry.getValue().getErrors());
+        }
+
+        header(out, "alexa_kubernetes_request_duration_seconds", "histogram", "The time it took to call Kubernetes and read the response.");
+        for (Map.Entry<String, Metrics.IntentMetrics> entry : intents.entrySet()) {
+            histogram(out, "alexa_kubernetes_request_duration_seconds", entry.getKey(), entry.getValue().getApiCallDuration());
+        }
+
+        header(out, "alexa_kubernetes_response_size_bytes", "histogram", "The size of Kubernetes responses.");
+        for (Map.Entry<String, Metrics.IntentMetrics> entry : intents.entrySet()) {
+            histogram(out, "alexa_kubernetes_response_size_bytes", entry.getKey(), entry.getValue().getApiResponseSize());
+        }
+
+        header(out, "alexa_cache_lookups_total", "counter", "The number of lookups of the resource caches.");
+        for (Map.Entry<String, Metrics.CacheMetrics> entry : metrics.getCaches().entrySet()) {
+            String type = "type=\"" + escape(entry.getKey()) + "\"";
+            sample(out, "alexa_cache_lookups_total", type + ",result=\"hit\"", entry.getValue().getHits());
+            sample(out, "alexa_cache_lookups_total", type + ",result=\"miss\"", entry.getValue().getMisses());
+        }
+    }
+
+    private static void header(Appendable out, String name, String type, String help) throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void histogram(Appendable out, String name, String intent, Histogram histogram) throws IOException {
+        String labels = "intent=\"" + escape(intent) + "\"";
+        double[] bounds = histogram.getBounds();
+        long[] counts = histogram.getCumulativeCounts();
+        for (int i = 0; i < bounds.length; i++) {
+            sample(out, name + "_bucket", labels + ",le=\"" + bounds[i] + "\"", counts[i]);
+        }
+        sample(out, name + "_bucket", labels + ",le=\"+Inf\"", counts[bounds.length]);
+        sample(out, name + "_sum", labels, histogram.getSum());
+        sample(out, name + "_count", labels, counts[bounds.length]);
+    }
+
+    private static void sample(Appendable out, String name, String labels, Number value) throws IOException {
+        out.append(name).append('{').append(labels).append("} ").append(String.valueOf(value)).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a single Alexa request. It is part of the request scope, so Kubernetes calls and cache lookups made
+ * on behalf of the request (on whatever thread) add up here.
+ */
+public class RequestMetrics {
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder apiCalls = new LongAdder();
+    private final LongAdder apiCallNanos = new LongAdder();
+    private final LongAdder apiResponseBytes = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private volatile String intent;
+    private volatile boolean error;
+    private volatile long elapsedNanos = -1;
+
+    /**
+     * @return The name of the intent (or "Launch") being handled, or null if not known yet.
+     */
+    public String getIntent() {
+        return intent;
+    }
+
+    public void setIntent(String intent) {
+        this.intent = intent;
+    }
+
+    /**
+     * Marks the request as failed, e.g. when answering with a failure notice.
+     */
+    public void markError() {
+        error = true;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    void recordApiCall(long nanos, long bytes) {
+        apiCalls.increment();
+        apiCallNanos.add(nanos);
+        if (bytes > 0) {
+            apiResponseBytes.add(bytes);
+        }
+    }
+
+    void recordCacheLookup(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    /**
+     * Stops the clock.
+     * @return  The time elapsed since the request started.
+     */
+    long complete() {
+        if (elapsedNanos < 0) {
+            elapsedNanos = System.nanoTime() - startNanos;
+        }
+        return elapsedNanos;
+    }
+
+    /**
+     * @return The time it took to handle the request (so far, if not complete yet).
+     */
+    public double getElapsedMillis() {
+        long elapsed = elapsedNanos;
+        return toMillis(elapsed >= 0 ? elapsed : System.nanoTime() - startNanos);
+    }
+
+    public long getApiCalls() {
+        return apiCalls.sum();
+    }
+
+    public double getApiCallMillis() {
+        return toMillis(apiCallNanos.sum());
+    }
+
+    public long getApiResponseBytes() {
+        return apiResponseBytes.sum();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.paging;
+
+import com.amazon.speech.slu.Intent;
+import com.amazon.speech.slu.Slot;
+import com.amazon.speech.speechlet.IntentRequest;
+import com.amazon.speech.speechlet.Session;
+import io.fabric8.kubernetes.client.utils.Utils;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps track of spoken listings that span multiple pages.
+ * Only a page of a listing is spoken at a time. Where to continue is kept in the session, along with the intent and the
+ * slots that started the listing, so that a subsequent "More" intent can ask for the next page and nothing else.
+ */
+public final class Continuation {
+
+    public static final String MORE_INTENT = "More";
+    public static final String PAGE_SIZE_ENV_VAR = "ALEXA_SPOKEN_PAGE_SIZE";
+
+    //Anything longer than this is hard to follow when spoken.
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    static final String INTENT_ATTRIBUTE = "ContinueIntent";
+    static final String SLOTS_ATTRIBUTE = "ContinueSlots";
+    static final String TOKEN_ATTRIBUTE = "ContinueToken";
+
+    //Pages served from a cache are tracked by offset, prefixed so that they can be told apart from API server tokens.
+    private static final String OFFSET_PREFIX = "offset:";
+
+    private static final String MORE_TEXT = " Say more to continue.";
+
+    private Continuation() {
+        //Utility class
+    }
+
+    /**
+     * @return The number of items to speak per page (the default, unless the environment specifies a positive number).
+     */
+    public static int getPageSize() {
+        return getPageSize(System.getenv(PAGE_SIZE_ENV_VAR));
+    }
+
+    static int getPageSize(String value) {
+        try {
+            int pageSize = value != null ? Integer.parseInt(value.trim()) : DEFAULT_PAGE_SIZE;
+            return pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+
+    /**
+     * @param request   The request.
+     * @return          True if the request asks for the next page of a listing.
+     */
+    public static boolean isMore(IntentRequest request) {
+        return request.getIntent() != null && MORE_INTENT.equals(request.getIntent().getName());
+    }
+
+    /**
+     * @param session   The session.
+     * @return          The name of the intent that started the listing that can be continued, or null if there is none.
+     */
+    public static String getIntentName(Session session) {
+        Object value = session.getAttribute(INTENT_ATTRIBUTE);
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    /**
+     * Returns the intent a request should be handled as.
+     * For "More" intents this is the intent that started the listing, else the intent of the request.
+     * @param request   The request.
+     * @param session   The session.
+     * @return          The intent.
+     */
+    public static Intent intentOf(IntentRequest request, Session session) {
+        String name = getIntentName(session);
+        if (!isMore(request) || name == null) {
+            return request.getIntent();
+        }
+
+        Map<String, Slot> slots = new HashMap<>();
+        Object values = session.getAttribute(SLOTS_ATTRIBUTE);
+        if (values instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) values).entrySet()) {
+                String slot = String.valueOf(entry.getKey());
+                slots.put(slot, Slot.builder().withName(slot).withValue(String.valueOf(entry.getValue())).build());
+            }
+        }
+        return Intent.builder().withName(name).withSlots(slots).build();
+    }
+
+    /**
+     * @param request   The request.
+     * @param session   The session.
+     * @return          The token of the page to speak next, or null if the listing should start from the beginning.
+     */
+    public static String tokenOf(IntentRequest request, Session session) {
+        if (!isMore(request)) {
+            return null;
+        }
+        Object value = session.getAttribute(TOKEN_ATTRIBUTE);
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    /**
+     * Remembers where to continue a listing, or forgets about it if there is nothing left.
+     * @param session       The session.
+     * @param intent        The intent that started the listing.
+     * @param continueToken The token of the next page, or null if this was the last page.
+     */
+    public static void save(Session session, Intent intent, String continueToken) {
+        if (Utils.isNullOrEmpty(continueToken)) {
+            clear(session);
+            return;
+        }
+
+        //Slots are stored as plain strings, as that is what survives the round trip to Alexa.
+        Map<String, String> slots = new LinkedHashMap<>();
+        for (Slot slot : intent.getSlots().values()) {
+            if (Utils.isNotNullOrEmpty(slot.getValue())) {
+                slots.put(slot.getName(), slot.getValue());
+            }
+        }
+        session.setAttribute(INTENT_ATTRIBUTE, intent.getName());
+        session.setAttribute(SLOTS_ATTRIBUTE, slots);
+        session.setAttribute(TOKEN_ATTRIBUTE, continueToken);
+    }
+
+    /**
+     * Forgets about any listing that could be continued.
+     * @param session   The session.
+     */
+    public static void clear(Session session) {
+        session.removeAttribute(INTENT_ATTRIBUTE);
+        session.removeAttribute(SLOTS_ATTRIBUTE);
+        session.removeAttribute(TOKEN_ATTRIBUTE);
+    }
+
+    /**
+     * @param session   The session.
+     * @return          True if the listing last spoken in the session can be continued.
+     */
+    public static boolean hasMore(Session session) {
+        return session.getAttribute(TOKEN_ATTRIBUTE) != null;
+    }
+
+    /**
+     * Follows the text of a page with a hint on how to continue, if there are more pages.
+     * @param text      The text of the page.
+     * @param session   The session.
+     * @return          The text.
+     */
+    public static StringBuilder appendHint(StringBuilder text, Session session) {
+        return hasMore(session) ? text.append('.').append(MORE_TEXT) : text;
+    }
+
+    /**
+     * @param offset    The offset of the next item.
+     * @return          A token for continuing a listing served from memory.
+     */
+    public static String offsetToken(int offset) {
+        return OFFSET_PREFIX + offset;
+    }
+
+    /**
+     * @param continueToken The token.
+     * @return              True if this is a token created by {@link #offsetToken(int)}.
+     */
+    public static boolean isOffsetToken(String continueToken) {
+        return continueToken != null && continueToken.startsWith(OFFSET_PREFIX);
+    }
+
+    /**
+     * @param continueToken The token.
+     * @return              The offset of an offset token, or zero if it is not one or it can't be read.
+     */
+    public static int offsetOf(String continueToken) {
+        if (!isOffsetToken(continueToken)) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(continueToken.substring(OFFSET_PREFIX.length())));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
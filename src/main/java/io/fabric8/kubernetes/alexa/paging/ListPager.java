@@ -0,0 +1,316 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.paging;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListMeta;
+import io.fabric8.kubernetes.client.HttpClientAware;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
+import io.fabric8.kubernetes.client.dsl.base.OperationSupport;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.fabric8.kubernetes.client.utils.Utils;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lists resources in chunks, using the limit / continue parameters of the list API.
+ * The client we use doesn't support chunking, so pages are requested directly with the client's http client, using the
+ * url and the label / field selectors of the operation. API servers that don't support chunking just return everything
+ * in the first page.
+ * Pages can optionally be fetched as metadata only (a PartialObjectMetadataList), which leaves out specs, statuses etc.
+ * and is a fraction of the size. Items then only have their metadata set. API servers that don't support it (before
+ * Kubernetes 1.15) fall back to returning the full objects.
+ * Summaries can optionally be fetched in protobuf, which is cheaper to decode. The decoder is picked by the content type
+ * of the response, so types that are not served in protobuf (e.g. custom resources) just come back as JSON. Openshift
+ * types are always fetched as JSON. Pages of the model are always fetched as JSON, as we don't have protobuf bindings.
+ *
+ * @param <T>   The resource type.
+ * @param <L>   The resource list type.
+ */
+public class ListPager<T extends HasMetadata, L extends KubernetesResourceList> {
+
+    public static final int DEFAULT_PAGE_SIZE = 250;
+
+    static final String CONTINUE = "continue";
+    static final String REMAINING_ITEM_COUNT = "remainingItemCount";
+
+    public static final String PROTOBUF_ENABLED_ENV_VAR = "ALEXA_PROTOBUF_ENABLED";
+
+    //Ask for metadata only, preferring the stable version, else settle for the full objects.
+    static final String METADATA_ONLY_ACCEPT = "application/json;as=PartialObjectMetadataList;g=meta.k8s.io;v=v1,"
+            + "application/json;as=PartialObjectMetadataList;g=meta.k8s.io;v=v1beta1,"
+            + "application/json";
+
+    static final String PROTOBUF_ACCEPT = ProtobufSummaryDecoder.CONTENT_TYPE + ",application/json";
+    static final String PROTOBUF_METADATA_ONLY_ACCEPT = ProtobufSummaryDecoder.CONTENT_TYPE + ";as=PartialObjectMetadataList;g=meta.k8s.io;v=v1,"
+            + METADATA_ONLY_ACCEPT;
+
+    private final OkHttpClient httpClient;
+    private final BaseOperation<T, L, ?, ?> operation;
+    private final int pageSize;
+    private final boolean metadataOnly;
+    private final boolean protobuf;
+
+    public ListPager(OkHttpClient httpClient, BaseOperation<T, L, ?, ?> operation, int pageSize) {
+        this(httpClient, operation, pageSize, false);
+    }
+
+    public ListPager(OkHttpClient httpClient, BaseOperation<T, L, ?, ?> operation, int pageSize, boolean metadataOnly) {
+        this(httpClient, operation, pageSize, metadataOnly, false);
+    }
+
+    private ListPager(OkHttpClient httpClient, BaseOperation<T, L, ?, ?> operation, int pageSize, boolean metadataOnly, boolean protobuf) {
+        this.httpClient = httpClient;
+        this.operation = operation;
+        this.pageSize = pageSize;
+        this.metadataOnly = metadataOnly;
+        this.protobuf = protobuf;
+    }
+
+    /**
+     * Creates a pager for the specified operation.
+     * @param client        The client the operation belongs to.
+     * @param operation     The operation.
+     * @return              A pager using the default page size.
+     */
+    public static <T extends HasMetadata, L extends KubernetesResourceList> ListPager<T, L> of(KubernetesClient client, BaseOperation<T, L, ?, ?> operation) {
+        return of(client, operation, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Creates a pager for the specified operation.
+     * @param client        The client the operation belongs to.
+     * @param operation     The operation.
+     * @param pageSize      The maximum number of items per page.
+     * @return              A pager using the specified page size.
+     */
+    public static <T extends HasMetadata, L extends KubernetesResourceList> ListPager<T, L> of(KubernetesClient client, BaseOperation<T, L, ?, ?> operation, int pageSize) {
+        return new ListPager<>(((HttpClientAware) client).getHttpClient(), operation, pageSize);
+    }
+
+    /**
+     * Creates a pager for summarizing the items of the operation: only their metadata is fetched, in protobuf if that
+     * has been enabled via the environment.
+     * @param client        The client the operation belongs to.
+     * @param operation     The operation.
+     * @param pageSize      The maximum number of items per page.
+     * @return              The pager.
+     */
+    public static <T extends HasMetadata, L extends KubernetesResourceList> ListPager<T, L> forSummaries(KubernetesClient client, BaseOperation<T, L, ?, ?> operation, int pageSize) {
+        ListPager<T, L> pager = of(client, operation, pageSize).metadataOnly();
+        return isProtobufEnabled() ? pager.protobuf() : pager;
+    }
+
+    /**
+     * @return True if fetching summaries in protobuf has been enabled via the environment.
+     */
+    public static boolean isProtobufEnabled() {
+        return Boolean.parseBoolean(System.getenv(PROTOBUF_ENABLED_ENV_VAR));
+    }
+
+    /**
+     * @return A pager like this one, which only fetches the metadata of the items.
+     */
+    public ListPager<T, L> metadataOnly() {
+        return new ListPager<>(httpClient, operation, pageSize, true, protobuf);
+    }
+
+    /**
+     * @return A pager like this one, which asks for protobuf when summarizing, unless the type is an Openshift type.
+     */
+    public ListPager<T, L> protobuf() {
+        return new ListPager<>(httpClient, operation, pageSize, metadataOnly, !isOpenshiftType());
+    }
+
+    /**
+     * Fetches a single page.
+     * @param continueToken The token returned with the previous page, or null for the first page.
+     * @return              The page.
+     */
+    public L page(String continueToken) {
+        return page(continueToken, pageSize);
+    }
+
+    private L page(String continueToken, int limit) {
+        return execute(continueToken, limit, metadataOnly ? METADATA_ONLY_ACCEPT : null,
+                body -> Serialization.jsonMapper().readValue(body.byteStream(), operation.getListType()));
+    }
+
+    /**
+     * Fetches a single page, passing a summary of each item to the consumer as the response is read.
+     * The page is never materialized, see {@link SummaryDecoder} and {@link ProtobufSummaryDecoder}.
+     * @param continueToken The token returned with the previous page, or null for the first page.
+     * @param consumer      The consumer.
+     * @return              The token to use for fetching the next page, or null if this was the last page.
+     */
+    public String summarize(String continueToken, Consumer<? super ResourceSummary> consumer) {
+        String accept = protobuf
+                ? (metadataOnly ? PROTOBUF_METADATA_ONLY_ACCEPT : PROTOBUF_ACCEPT)
+                : (metadataOnly ? METADATA_ONLY_ACCEPT : null);
+        return execute(continueToken, pageSize, accept, body -> isProtobuf(body)
+                ? ProtobufSummaryDecoder.decode(body.byteStream(), consumer)
+                : SummaryDecoder.decode(body.byteStream(), consumer));
+    }
+
+    /**
+     * Passes a summary of every matching item to the consumer, one page at a time.
+     * Only the summary at hand is kept in memory.
+     * @param consumer      The consumer.
+     */
+    public void forEachSummary(Consumer<? super ResourceSummary> consumer) {
+        String continueToken = null;
+        do {
+            continueToken = summarize(continueToken, consumer);
+        } while (Utils.isNotNullOrEmpty(continueToken));
+    }
+
+    private <R> R execute(String continueToken, int limit, String accept, BodyReader<R> reader) {
+        Request.Builder builder = new Request.Builder().get().url(urlOf(continueToken, limit));
+        if (accept != null) {
+            builder.header("Accept", accept);
+        }
+        Request request = builder.build();
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw OperationSupport.requestFailure(request, OperationSupport.createStatus(response));
+            }
+            try (ResponseBody body = response.body()) {
+                return reader.read(body);
+            }
+        } catch (IOException e) {
+            throw OperationSupport.requestException(request, e);
+        }
+    }
+
+    /**
+     * Passes every matching item to the consumer, one page at a time.
+     * Only the current page is kept in memory.
+     * @param consumer      The consumer.
+     */
+    public void forEach(Consumer<? super T> consumer) {
+        String continueToken = null;
+        do {
+            L page = page(continueToken);
+            ((List<T>) page.getItems()).forEach(consumer);
+            continueToken = continueOf(page);
+        } while (Utils.isNotNullOrEmpty(continueToken));
+    }
+
+    /**
+     * Counts the matching items, fetching as little as possible.
+     * A single item is requested and the rest is taken from the remaining item count of the response. API servers that
+     * don't report it (or return everything) are paged through, counting the items of each page.
+     * @return      The number of matching items.
+     */
+    public long count() {
+        L first = page(null, 1);
+        long count = first.getItems().size();
+        Long remaining = remainingItemCountOf(first);
+        if (remaining != null) {
+            return count + remaining;
+        }
+
+        String continueToken = continueOf(first);
+        while (Utils.isNotNullOrEmpty(continueToken)) {
+            L page = page(continueToken);
+            count += page.getItems().size();
+            continueToken = continueOf(page);
+        }
+        return count;
+    }
+
+    /**
+     * @param list  A list returned by the API server.
+     * @return      The number of items after this page, or null if the API server didn't tell.
+     */
+    public static Long remainingItemCountOf(KubernetesResourceList<?> list) {
+        //Like the continue token, the count is not part of the model we use.
+        ListMeta metadata = list.getMetadata();
+        Object value = metadata != null ? metadata.getAdditionalProperties().get(REMAINING_ITEM_COUNT) : null;
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        try {
+            return value != null ? Long.parseLong(String.valueOf(value)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param list  A list returned by the API server.
+     * @return      The token to use for fetching the next page, or null if this was the last page.
+     */
+    public static String continueOf(KubernetesResourceList<?> list) {
+        //The model we use predates chunking, so the continue token ends up in the additional properties.
+        ListMeta metadata = list.getMetadata();
+        Object value = metadata != null ? metadata.getAdditionalProperties().get(CONTINUE) : null;
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    private HttpUrl urlOf(String continueToken, int limit) {
+        try {
+            HttpUrl.Builder builder = HttpUrl.get(operation.getNamespacedUrl()).newBuilder();
+            if (Utils.isNotNullOrEmpty(operation.getLabelQueryParam())) {
+                builder.addQueryParameter("labelSelector", operation.getLabelQueryParam());
+            }
+            if (Utils.isNotNullOrEmpty(operation.getFieldQueryParam())) {
+                builder.addQueryParameter("fieldSelector", operation.getFieldQueryParam());
+            }
+            if (limit > 0) {
+                builder.addQueryParameter("limit", String.valueOf(limit));
+            }
+            if (Utils.isNotNullOrEmpty(continueToken)) {
+                builder.addQueryParameter(CONTINUE, continueToken);
+            }
+            return builder.build();
+        } catch (MalformedURLException e) {
+            throw KubernetesClientException.launderThrowable(e);
+        }
+    }
+
+    private static boolean isProtobuf(ResponseBody body) {
+        MediaType contentType = body.contentType();
+        return contentType != null && ProtobufSummaryDecoder.CONTENT_TYPE.equals(contentType.type() + "/" + contentType.subtype());
+    }
+
+    //Openshift types live under the legacy /oapi root or in the openshift.io groups.
+    private boolean isOpenshiftType() {
+        try {
+            String path = operation.getNamespacedUrl().getPath();
+            return path.startsWith("/oapi/") || path.contains(".openshift.io/");
+        } catch (MalformedURLException e) {
+            return true;
+        }
+    }
+
+    private interface BodyReader<R> {
+        R read(ResponseBody body) throws IOException;
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.paging;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Decodes a list response in the protobuf encoding of the API server into {@link ResourceSummary} instances as it is
+ * read, like {@link SummaryDecoder} does for JSON.
+ * We don't depend on the generated Kubernetes protobuf classes. Only the handful of fields that make up a summary are
+ * read off the wire and everything else is skipped by length, which is what makes protobuf cheap to decode.
+ *
+ * The response is the 4 byte "k8s\0" prefix, followed by a runtime.Unknown message with the TypeMeta (1) and the raw
+ * list (2). All lists, including PartialObjectMetadataList, share the same layout for what we need:
+ * <pre>
+ * List:       ListMeta metadata = 1 (continue = 3); repeated item = 2
+ * Item:       ObjectMeta metadata = 1 (name = 1, namespace = 3, labels = 11); status = 3 (phase = 1)
+ * </pre>
+ * The phase is only read for pods and namespaces, since field 1 of other statuses is something else.
+ */
+public final class ProtobufSummaryDecoder {
+
+    public static final String CONTENT_TYPE = "application/vnd.kubernetes.protobuf";
+
+    private static final byte[] MAGIC = {'k', '8', 's', 0};
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+    private static final int WIRE_FIXED32 = 5;
+
+    private ProtobufSummaryDecoder() {
+        //Utility class
+    }
+
+    /**
+     * Passes a summary of every item of the list to the consumer, in order.
+     * @param in        The list in protobuf. The stream is not closed.
+     * @param consumer  The consumer.
+     * @return          The continue token of the list, or null if this was the last page.
+     * @throws IOException If the stream can't be read or is not a list.
+     */
+    public static String decode(InputStream in, Consumer<? super ResourceSummary> consumer) throws IOException {
+        WireReader reader = new WireReader(in);
+        for (byte b : MAGIC) {
+            if (reader.readByte() != b) {
+                throw new IOException("Not a Kubernetes protobuf message.");
+            }
+        }
+
+        String kind = null;
+        String continueToken = null;
+        while (!reader.isAtEnd()) {
+            int key = reader.readVarint32();
+            int field = key >>> 3;
+            if (field == 1 && (key & 7) == WIRE_LENGTH_DELIMITED) {
+                kind = readKind(reader, reader.readLength());
+            } else if (field == 2 && (key & 7) == WIRE_LENGTH_DELIMITED) {
+                continueToken = readList(reader, reader.readLength(), hasPhase(kind), consumer);
+            } else {
+                reader.skip(key & 7);
+            }
+        }
+        return continueToken;
+    }
+
+    private static boolean hasPhase(String kind) {
+        return "PodList".equals(kind) || "NamespaceList".equals(kind);
+    }
+
+    private static String readKind(WireReader reader, long length) throws IOException {
+        long end = reader.position() + length;
+        String kind = null;
+        while (reader.position() < end) {
+            int key = reader.readVarint32();
+            if (key >>> 3 == 2 && (key & 7) == WIRE_LENGTH_DELIMITED) {
+                kind = reader.readString();
+            } else {
+                reader.skip(key & 7);
+            }
+        }
+        return kind;
+    }
+
+    private static String readList(WireReader reader, long length, boolean hasPhase, Consumer<? super ResourceSummary> consumer) throws IOException {
+        long end = reader.position() + length;
+        String continueToken = null;
+        while (reader.position() < end) {
+            int key = reader.readVarint32();
+            int field = key >>> 3;
+            if (field == 1 && (key & 7) == WIRE_LENGTH_DELIMITED) {
+                continueToken = readContinue(reader, reader.readLength());
+            } else if (field == 2 && (key & 7) == WIRE_LENGTH_DELIMITED) {
+                consumer.accept(readItem(reader, reader.readLength(), hasPhase));
+            } else {
+                reader.skip(key & 7);
+            }
+        }
+        return continueToken != null && !continueToken.isEmpty() ? continueToken : null;
+    }
+
+    private static String readContinue(WireReader reader, long length) throws IOException {
+        long end = reader.position() + length;
+        String continueToken = null;
+        while (reader.position() < end) {
+            int key = reader.readVarint32();
+            if (key >>> 3 == 3 && (key & 7) == WIRE_LENGTH_DELIMITED) {
+                continueToken = reader.readString();
+            } else {
+                reader.skip(key & 7);
+            }
+        }
+        return continueToken;
+    }
+
+    private static ResourceSummary readItem(WireReader reader, long length, boolean hasPhase) throws IOException {
+        long end = reader.position() + length;
+        String name = null;
+        String namespace = null;
+        String phase = null;
+        Map<String, String> labels = null;
+        while (reader.position() < end) {
+            int key = reader.readVarint32();
+            int field = key >>> 3;
+            if (field == 1 && (key & 7) == WIRE_LENGTH_DELIMITED) {
+                long metadataEnd = reader.position() + reader.readLength();
+                while (reader.position() < metadataEnd) {
+                    int metadataKey = reader.readVarint32();
+                    int metadataField = metadataKey >>> 3;
+                    if (metadataField == 1 && (metadataKey & 7) == WIRE_LENGTH_DELIMITED) {
+                        name = reader.readString();
+                    } else if (metadataField == 3 && (metadataKey & 7) == WIRE_LENGTH_DELIMITED) {
+                        namespace = reader.readString();
+                    } else if (metadataField == 11 && (metadataKey & 7) == WIRE_LENGTH_DELIMITED) {
+                        labels = readLabel(reader, reader.readLength(), labels);
+                    } else {
+                        reader.skip(metadataKey & 7);
+                    }
+                }
+            } else if (field == 3 && hasPhase && (key & 7) == WIRE_LENGTH_DELIMITED) {
+                long statusEnd = reader.position() + reader.readLength();
+                while (reader.position() < statusEnd) {
+                    int statusKey = reader.readVarint32();
+                    if (statusKey >>> 3 == 1 && (statusKey & 7) == WIRE_LENGTH_DELIMITED) {
+                        phase = reader.readString();
+                    } else {
+                        reader.skip(statusKey & 7);
+                    }
+                }
+            } else {
+                reader.skip(key & 7);
+            }
+        }
+        return new ResourceSummary(name, namespace, phase, labels);
+    }
+
+    //Maps are encoded as repeated entries, with the key as field 1 and the value as field 2.
+    private static Map<String, String> readLabel(WireReader reader, long length, Map<String, String> labels) throws IOException {
+        long end = reader.position() + length;
+        String key = null;
+        String value = "";
+        while (reader.position() < end) {
+            int entryKey = reader.readVarint32();
+            int field = entryKey >>> 3;
+            if (field == 1 && (entryKey & 7) == WIRE_LENGTH_DELIMITED) {
+                key = reader.readString();
+            } else if (field == 2 && (entryKey & 7) == WIRE_LENGTH_DELIMITED) {
+                value = reader.readString();
+            } else {
+                reader.skip(entryKey & 7);
+            }
+        }
+        Map<String, String> result = labels != null ? labels : new HashMap<>();
+        if (key != null) {
+            result.put(key, value);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the protobuf wire format off a stream, keeping track of the position for nested messages.
+     */
+    private static final class WireReader {
+
+        private final InputStream in;
+        private long position;
+        private int peeked = -2;
+
+        private WireReader(InputStream in) {
+            this.in = in;
+        }
+
+        long position() {
+            return position;
+        }
+
+        boolean isAtEnd() throws IOException {
+            if (peeked == -2) {
+                peeked = in.read();
+            }
+            return peeked == -1;
+        }
+
+        byte readByte() throws IOException {
+            int b;
+            if (peeked != -2) {
+                b = peeked;
+                peeked = -2;
+            } else {
+                b = in.read();
+            }
+            if (b == -1) {
+                throw new EOFException("Truncated protobuf message.");
+            }
+            position++;
+            return (byte) b;
+        }
+
+        long readVarint() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IOException("Malformed varint.");
+        }
+
+        int readVarint32() throws IOException {
+            return (int) readVarint();
+        }
+
+        long readLength() throws IOException {
+            long length = readVarint();
+            if (length < 0) {
+                throw new IOException("Negative length.");
+            }
+            return length;
+        }
+
+        String readString() throws IOException {
+            long length = readLength();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("String too long: " + length);
+            }
+            byte[] bytes = new byte[(int) length];
+            int offset = 0;
+            if (bytes.length > 0 && peeked != -2) {
+                bytes[offset++] = readByte();
+            }
+            while (offset < bytes.length) {
+                int read = in.read(bytes, offset, bytes.length - offset);
+                if (read == -1) {
+                    throw new EOFException("Truncated protobuf message.");
+                }
+                offset += read;
+                position += read;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void skip(int wireType) throws IOException {
+            switch (wireType) {
+                case WIRE_VARINT:
+                    readVarint();
+                    break;
+                case WIRE_FIXED64:
+                    skipBytes(8);
+                    break;
+                case WIRE_LENGTH_DELIMITED:
+                    skipBytes(readLength());
+                    break;
+                case WIRE_FIXED32:
+                    skipBytes(4);
+                    break;
+                default:
+                    throw new IOException("Unsupported wire type: " + wireType);
+            }
+        }
+
+        private void skipBytes(long count) throws IOException {
+            long remaining = count;
+            if (remaining > 0 && peeked != -2) {
+                readByte();
+                remaining--;
+            }
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    //Some streams can't skip, read instead to tell the end of the stream apart.
+                    readByte();
+                    remaining--;
+                } else {
+                    position += skipped;
+                    remaining -= skipped;
+                }
+            }
+        }
+    }
+}
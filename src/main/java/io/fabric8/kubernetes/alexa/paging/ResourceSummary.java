@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.paging;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The few fields of a resource that the skill actually speaks about.
+ * Much smaller than the resource itself, so that a long listing can be held in memory without its object graph.
+ */
+public final class ResourceSummary {
+
+    private final String name;
+    private final String namespace;
+    private final String phase;
+    private final Map<String, String> labels;
+
+    public ResourceSummary(String name, String namespace, String phase, Map<String, String> labels) {
+        this.name = name;
+        this.namespace = namespace;
+        this.phase = phase;
+        this.labels = labels != null && !labels.isEmpty() ? Collections.unmodifiableMap(labels) : Collections.emptyMap();
+    }
+
+    /**
+     * @param resource  The resource.
+     * @return          The summary of the resource.
+     */
+    public static ResourceSummary of(HasMetadata resource) {
+        ObjectMeta metadata = resource.getMetadata();
+        String phase = resource instanceof Pod && ((Pod) resource).getStatus() != null
+                ? ((Pod) resource).getStatus().getPhase()
+                : null;
+        return metadata != null
+                ? new ResourceSummary(metadata.getName(), metadata.getNamespace(), phase, metadata.getLabels())
+                : new ResourceSummary(null, null, phase, null);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return The phase of the status (for pods and namespaces), or null if unknown or not fetched.
+     */
+    public String getPhase() {
+        return phase;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    @Override
+    public String toString() {
+        return namespace != null ? namespace + "/" + name : name;
+    }
+}
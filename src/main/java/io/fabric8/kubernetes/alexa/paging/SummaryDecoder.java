@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.paging;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Decodes a list response into {@link ResourceSummary} instances as it is read, without materializing the list.
+ * Everything but the summarized fields is skipped token by token, so memory stays bounded by the size of a single
+ * summary, no matter how long the list or how large its items are.
+ */
+public final class SummaryDecoder {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final String METADATA = "metadata";
+    private static final String ITEMS = "items";
+    private static final String STATUS = "status";
+    private static final String NAME = "name";
+    private static final String NAMESPACE = "namespace";
+    private static final String LABELS = "labels";
+    private static final String PHASE = "phase";
+
+    private SummaryDecoder() {
+        //Utility class
+    }
+
+    /**
+     * Passes a summary of every item of the list to the consumer, in order.
+     * @param in        The list as JSON. The stream is not closed.
+     * @param consumer  The consumer.
+     * @return          The continue token of the list, or null if this was the last page.
+     * @throws IOException If the stream can't be read or is not a list.
+     */
+    public static String decode(InputStream in, Consumer<? super ResourceSummary> consumer) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a list object, but got: " + parser.getCurrentToken());
+            }
+
+            String continueToken = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (METADATA.equals(field) && value == JsonToken.START_OBJECT) {
+                    continueToken = readContinue(parser);
+                } else if (ITEMS.equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        consumer.accept(readItem(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return continueToken;
+        }
+    }
+
+    private static String readContinue(JsonParser parser) throws IOException {
+        String continueToken = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (ListPager.CONTINUE.equals(field)) {
+                continueToken = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return continueToken != null && !continueToken.isEmpty() ? continueToken : null;
+    }
+
+    private static ResourceSummary readItem(JsonParser parser) throws IOException {
+        String name = null;
+        String namespace = null;
+        String phase = null;
+        Map<String, String> labels = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (METADATA.equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String metadataField = parser.getCurrentName();
+                    JsonToken metadataValue = parser.nextToken();
+                    if (NAME.equals(metadataField)) {
+                        name = parser.getValueAsString();
+                    } else if (NAMESPACE.equals(metadataField)) {
+                        namespace = parser.getValueAsString();
+                    } else if (LABELS.equals(metadataField) && metadataValue == JsonToken.START_OBJECT) {
+                        labels = readLabels(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (STATUS.equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String statusField = parser.getCurrentName();
+                    parser.nextToken();
+                    if (PHASE.equals(statusField)) {
+                        phase = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new ResourceSummary(name, namespace, phase, labels);
+    }
+
+    private static Map<String, String> readLabels(JsonParser parser) throws IOException {
+        Map<String, String> labels = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            parser.nextToken();
+            labels.put(key, parser.getValueAsString());
+        }
+        return labels;
+    }
+}
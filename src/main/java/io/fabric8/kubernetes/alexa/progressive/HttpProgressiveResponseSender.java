@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.progressive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
+import io.fabric8.kubernetes.client.utils.Utils;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends progressive responses to the directives api of the Alexa service.
+ */
+public class HttpProgressiveResponseSender implements ProgressiveResponseSender {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String DIRECTIVES_PATH = "/v1/directives";
+    private static final long TIMEOUT_MILLIS = 1000;
+
+    private final OkHttpClient httpClient;
+
+    public HttpProgressiveResponseSender() {
+        this(new OkHttpClient.Builder()
+                .connectTimeout(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .readTimeout(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .writeTimeout(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .build());
+    }
+
+    public HttpProgressiveResponseSender(OkHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public void send(RequestScope scope, String speech) throws IOException {
+        if (Utils.isNullOrEmpty(scope.getApiEndpoint()) || Utils.isNullOrEmpty(scope.getApiAccessToken())) {
+            //Not available on every request (e.g. when testing from the console).
+            return;
+        }
+
+        ObjectNode body = MAPPER.createObjectNode();
+        body.putObject("header").put("requestId", scope.getRequestId());
+        body.putObject("directive").put("type", "VoicePlayer.Speak").put("speech", speech);
+
+        Request request = new Request.Builder()
+                .url(scope.getApiEndpoint() + DIRECTIVES_PATH)
+                .header("Authorization", "Bearer " + scope.getApiAccessToken())
+                .post(RequestBody.create(JSON, MAPPER.writeValueAsBytes(body)))
+                .build();
+
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Failed to send progressive response. Status: " + response.code());
+            }
+        }
+    }
+}
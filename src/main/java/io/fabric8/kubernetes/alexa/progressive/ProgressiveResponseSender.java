@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.progressive;
+
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
+
+import java.io.IOException;
+
+/**
+ * Sends progressive responses, i.e. speech that Alexa plays while the actual response is being prepared.
+ */
+public interface ProgressiveResponseSender {
+
+    /**
+     * A sender that doesn't send anything.
+     */
+    ProgressiveResponseSender NOOP = (scope, speech) -> {};
+
+    /**
+     * Sends the specified speech for the request of the scope.
+     * @param scope     The scope of the request (provides the request id, the api endpoint and token).
+     * @param speech    The text to speak.
+     * @throws IOException  If the response can't be sent.
+     */
+    void send(RequestScope scope, String speech) throws IOException;
+}
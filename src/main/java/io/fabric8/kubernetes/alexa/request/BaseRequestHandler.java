@@ -18,59 +18,38 @@ package io.fabric8.kubernetes.alexa.request;
 
 import com.amazon.speech.speechlet.SpeechletRequest;
 import com.amazon.speech.speechlet.SpeechletResponse;
-import com.amazon.speech.speechlet.SpeechletResponseBuilder;
-import io.fabric8.kubernetes.api.builder.TypedVisitor;
-import io.fabric8.kubernetes.client.utils.Utils;
-
-import static org.apache.commons.lang3.StringUtils.join;
-import static org.apache.commons.lang3.StringUtils.splitByCharacterTypeCamelCase;
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
 
 public abstract class BaseRequestHandler<R extends SpeechletRequest> implements RequestHandler<R> {
 
-    public SpeechletResponse newResponse(String responseText) {
-        return new SpeechletResponseBuilder()
-                .withNewSimpleCard()
-                    .withTitle("Kubernetes")
-                    .withContent(getAction())
-                .endSimpleCard()
-                .withNewPlainTextOutputSpeech()
-                    .withText(responseText)
-                .endPlainTextOutputSpeech()
-                .withShouldEndSession(false)
-                .build();
+    //Created on first use, as the type is not available during construction. Racing threads create equal instances.
+    private ResponseFactory responses;
+
+    public SpeechletResponse newResponse(CharSequence responseText) {
+        return getResponseFactory().newResponse(responseText);
     }
 
     public SpeechletResponse newFailureNotice(String responseText) {
-        String message = "Failed to " + getAction() + "!" +
-                (Utils.isNotNullOrEmpty(responseText) ? responseText : "");
-
-        return new SpeechletResponseBuilder()
-                .withNewSimpleCard()
-                .withTitle("Kubernetes")
-                .withContent(getAction())
-                .endSimpleCard()
-                .withNewPlainTextOutputSpeech()
-                .withText(message)
-                .endPlainTextOutputSpeech()
-                .withShouldEndSession(false)
-                .build();
+        RequestScope scope = RequestScope.current();
+        if (scope != null) {
+            scope.getMetrics().markError();
+        }
+        return getResponseFactory().newFailureNotice(responseText);
     }
 
-    public SpeechletResponse newResponse(String responseText, String repromptText) {
-        return new SpeechletResponseBuilder(newResponse(responseText))
-                .accept(new TypedVisitor<SpeechletResponseBuilder>() {
-                    @Override
-                    public void visit(SpeechletResponseBuilder builder) {
-                        builder.withNewReprompt()
-                          .withNewPlainTextOutputSpeech()
-                                .withText(repromptText)
-                                .endPlainTextOutputSpeech()
-                                .endReprompt();
-                    }
-                }).build();
+    public SpeechletResponse newResponse(CharSequence responseText, CharSequence repromptText) {
+        return getResponseFactory().newResponse(responseText, repromptText);
     }
 
-    private String getAction() {
-        return join(splitByCharacterTypeCamelCase(getType()), " ");
+    /**
+     * @return The factory of the responses of this handler.
+     */
+    protected ResponseFactory getResponseFactory() {
+        ResponseFactory result = responses;
+        if (result == null) {
+            result = ResponseFactory.forType(getType());
+            responses = result;
+        }
+        return result;
     }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.request;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link RequestHandlerFactory} and declares the type of request it handles.
+ * Annotated factories are indexed at compile time, so that finding the factory of a request is a single lookup.
+ * The value must match {@link RequestHandlerFactory#getType()}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface RequestHandlerType {
+
+    /**
+     * @return The type of the request (e.g. the intent name).
+     */
+    String value();
+
+    /**
+     * @return False for requests that are not declared as intents of the interaction model, either because they are
+     *         not intents (e.g. Launch) or because the skill doesn't expose them yet, so they are not expected in intents.json.
+     */
+    boolean intent() default true;
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.request;
+
+import com.amazon.speech.speechlet.SpeechletResponse;
+import com.amazon.speech.ui.PlainTextOutputSpeech;
+import com.amazon.speech.ui.Reprompt;
+import com.amazon.speech.ui.SimpleCard;
+import io.fabric8.kubernetes.client.utils.Utils;
+
+import static org.apache.commons.lang3.StringUtils.join;
+import static org.apache.commons.lang3.StringUtils.splitByCharacterTypeCamelCase;
+
+/**
+ * Creates the responses of a handler.
+ * Everything that only depends on the handler (the card title, the action and the failure prefix) is computed once, and
+ * responses are assembled directly, rather than through builders that copy them around.
+ * Speech text can be written into the {@link #speech()} buffer of the thread, so that long texts are not built out of
+ * intermediate strings.
+ */
+public final class ResponseFactory {
+
+    public static final String DEFAULT_TITLE = "Kubernetes";
+
+    //Larger buffers are not kept around, so that a single long listing doesn't pin memory for good.
+    private static final int MAX_RETAINED_CAPACITY = 8192;
+    private static final ThreadLocal<StringBuilder> SPEECH = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String title;
+    private final String action;
+    private final String failurePrefix;
+
+    public ResponseFactory(String title, String action) {
+        this.title = title;
+        this.action = action;
+        this.failurePrefix = "Failed to " + action + "!";
+    }
+
+    /**
+     * @param type  The type of the handler (e.g. GetPods).
+     * @return      A factory for the handler, with the type spelled out as the action (e.g. Get Pods).
+     */
+    public static ResponseFactory forType(String type) {
+        return new ResponseFactory(DEFAULT_TITLE, join(splitByCharacterTypeCamelCase(type), " "));
+    }
+
+    /**
+     * Returns the empty speech buffer of the current thread.
+     * The buffer is only valid until the next call on the same thread, so it should be turned into a response right away.
+     * @return  The buffer.
+     */
+    public static StringBuilder speech() {
+        StringBuilder sb = SPEECH.get();
+        if (sb.capacity() > MAX_RETAINED_CAPACITY) {
+            sb = new StringBuilder(256);
+            SPEECH.set(sb);
+        }
+        sb.setLength(0);
+        return sb;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * @param text  The text to speak.
+     * @return      A response that keeps the session open.
+     */
+    public SpeechletResponse newResponse(CharSequence text) {
+        SpeechletResponse response = new SpeechletResponse();
+        response.setCard(newCard());
+        response.setOutputSpeech(newSpeech(text));
+        response.setShouldEndSession(false);
+        return response;
+    }
+
+    /**
+     * @param text      The text to speak.
+     * @param reprompt  The text to speak if the user doesn't answer.
+     * @return          A response that keeps the session open.
+     */
+    public SpeechletResponse newResponse(CharSequence text, CharSequence reprompt) {
+        SpeechletResponse response = newResponse(text);
+        Reprompt r = new Reprompt();
+        r.setOutputSpeech(newSpeech(reprompt));
+        response.setReprompt(r);
+        return response;
+    }
+
+    /**
+     * @param reason    The reason of the failure, if known.
+     * @return          A response telling the user that the action failed.
+     */
+    public SpeechletResponse newFailureNotice(String reason) {
+        return newResponse(Utils.isNotNullOrEmpty(reason) ? failurePrefix + reason : failurePrefix);
+    }
+
+    private SimpleCard newCard() {
+        SimpleCard card = new SimpleCard();
+        card.setTitle(title);
+        card.setContent(action);
+        return card;
+    }
+
+    private static PlainTextOutputSpeech newSpeech(CharSequence text) {
+        PlainTextOutputSpeech speech = new PlainTextOutputSpeech();
+        speech.setText(text.toString());
+        return speech;
+    }
+}
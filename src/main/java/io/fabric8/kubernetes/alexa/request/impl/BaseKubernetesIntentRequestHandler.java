@@ -19,23 +19,37 @@ package io.fabric8.kubernetes.alexa.request.impl;
 import com.amazon.speech.slu.Intent;
 import com.amazon.speech.speechlet.IntentRequest;
 import com.amazon.speech.speechlet.Session;
+import com.amazon.speech.speechlet.SpeechletResponse;
 import io.fabric8.kubernetes.alexa.IntentContext;
+import io.fabric8.kubernetes.alexa.cache.ResourceCache;
+import io.fabric8.kubernetes.alexa.cache.ResourceCaches;
+import io.fabric8.kubernetes.alexa.metrics.Metrics;
+import io.fabric8.kubernetes.alexa.paging.Continuation;
+import io.fabric8.kubernetes.alexa.paging.ListPager;
+import io.fabric8.kubernetes.alexa.paging.ResourceSummary;
 import io.fabric8.kubernetes.alexa.request.BaseRequestHandler;
-import io.fabric8.kubernetes.api.model.KubernetesResource;
+import io.fabric8.kubernetes.alexa.request.ResponseFactory;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
+import io.fabric8.kubernetes.client.utils.Utils;
 
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
+import static io.fabric8.kubernetes.alexa.IntentContext.FIELD_FILTER;
 import static io.fabric8.kubernetes.alexa.IntentContext.LABEL_FILTER;
 import static io.fabric8.kubernetes.alexa.IntentContext.NAMESPACE_FILTER;
 import static io.fabric8.kubernetes.alexa.IntentContext.NAME_FILTER;
 
 
-public abstract class BaseKubernetesIntentRequestHandler<T extends KubernetesResource, L extends KubernetesResourceList> extends BaseRequestHandler<IntentRequest> {
+public abstract class BaseKubernetesIntentRequestHandler<T extends HasMetadata, L extends KubernetesResourceList> extends BaseRequestHandler<IntentRequest> {
 
     private final KubernetesClient kubernetesClient;
 
@@ -58,12 +72,157 @@ public abstract class BaseKubernetesIntentRequestHandler<T extends KubernetesRes
                 .build();
     }
 
+    /**
+     * Creates the context of a request that may continue a paged listing.
+     * For "More" intents the context is that of the intent that started the listing.
+     * @param request   The request.
+     * @param session   The session.
+     * @return          The intent context.
+     */
+    public IntentContext<BaseOperation<T, L, ?, ?>> createContext(IntentRequest request, Session session) {
+        return createContext(Continuation.intentOf(request, session), session);
+    }
+
+    /**
+     * Lists the resources that match the context, using the shared cache when it is warm.
+     * @param ctx   The intent context.
+     * @return      The matching resources.
+     */
     public L list(IntentContext<BaseOperation<T, L, ?, ?>> ctx) {
-        return ctx.asOperation(getListOperationFilters()).list();
+        BaseOperation<T, L, ?, ?> operation = ctx.asOperation(getListOperationFilters());
+        ResourceCache<T, L> cache = getServingCache(operation);
+        if (cache != null) {
+            return cache.list(operation);
+        }
+        return operation.list();
+    }
+
+    /**
+     * Counts the resources that match the context, using the shared cache when it is warm.
+     * Otherwise a single item is listed and the count is taken from the response, see {@link ListPager#count()}.
+     * @param ctx   The intent context.
+     * @return      The number of matching resources.
+     */
+    public long count(IntentContext<BaseOperation<T, L, ?, ?>> ctx) {
+        BaseOperation<T, L, ?, ?> operation = ctx.asOperation(getListOperationFilters());
+        ResourceCache<T, L> cache = getServingCache(operation);
+        if (cache != null) {
+            return cache.list(operation).getItems().size();
+        }
+        return ListPager.of(kubernetesClient, operation).metadataOnly().count();
     }
 
+    /**
+     * Lists a single spoken page of the resources that match the context.
+     * The first page is listed, unless the request is a "More" intent, in which case the listing continues from where
+     * the previous page left off. Where to continue next is kept in the session.
+     * Pages are meant for speaking names, so only the metadata of the resources is fetched (unless the cache serves
+     * them) and it is decoded into summaries as it is read, so that no list is ever materialized. See
+     * {@link ListPager#forSummaries} for the use of protobuf.
+     * @param request   The request.
+     * @param ctx       The intent context.
+     * @return          The summaries of the resources of the page.
+     */
+    public List<ResourceSummary> listPage(IntentRequest request, IntentContext<BaseOperation<T, L, ?, ?>> ctx) {
+        Session session = ctx.getSession();
+        String continueToken = Continuation.tokenOf(request, session);
+        int pageSize = Continuation.getPageSize();
+        BaseOperation<T, L, ?, ?> operation = ctx.asOperation(getListOperationFilters());
+
+        if (Utils.isNotNullOrEmpty(continueToken) && !Continuation.isOffsetToken(continueToken)) {
+            List<ResourceSummary> items = new ArrayList<>();
+            Continuation.save(session, ctx.getIntent(), summarize(operation, pageSize, continueToken, items::add));
+            return items;
+        }
+
+        int offset = Continuation.offsetOf(continueToken);
+        ResourceCache<T, L> cache = getServingCache(operation);
+        Window window = new Window(offset, pageSize);
+        if (cache != null) {
+            List<T> items = cache.list(operation).getItems();
+            items.subList(Math.min(offset, items.size()), Math.min(offset + pageSize, items.size()))
+                    .forEach(r -> window.items.add(ResourceSummary.of(r)));
+            window.total = items.size();
+        } else if (offset > 0) {
+            //The page before was served from memory, but the cache has gone cold since.
+            ListPager.forSummaries(kubernetesClient, operation, 0).summarize(null, window);
+        } else {
+            String next = summarize(operation, pageSize, null, window);
+            if (Utils.isNotNullOrEmpty(next) || window.total <= pageSize) {
+                Continuation.save(session, ctx.getIntent(), next);
+                return window.items;
+            }
+            //The API server doesn't support chunking and returned everything.
+        }
+
+        int to = offset + pageSize;
+        Continuation.save(session, ctx.getIntent(), to < window.total ? Continuation.offsetToken(to) : null);
+        return window.items;
+    }
+
+    private String summarize(BaseOperation<T, L, ?, ?> operation, int pageSize, String continueToken, Consumer<ResourceSummary> consumer) {
+        try {
+            return ListPager.forSummaries(kubernetesClient, operation, pageSize).summarize(continueToken, consumer);
+        } catch (KubernetesClientException e) {
+            //Continue tokens expire after a few minutes, so the user may have taken too long. Start over.
+            if (continueToken != null && e.getCode() == HttpURLConnection.HTTP_GONE) {
+                return ListPager.forSummaries(kubernetesClient, operation, pageSize).summarize(null, consumer);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a response for a page of a listing, telling the user how to continue if there are more pages.
+     * @param responseText  The text of the page (usually the {@link ResponseFactory#speech()} buffer).
+     * @param session       The session.
+     * @return              The response.
+     */
+    public SpeechletResponse newPageResponse(StringBuilder responseText, Session session) {
+        return newResponse(Continuation.appendHint(responseText, session));
+    }
+
+    /**
+     * Appends the names of the resources, separated by commas.
+     * @param text      The text to append to.
+     * @param resources The resources.
+     * @return          The text.
+     */
+    public static StringBuilder appendNames(StringBuilder text, List<ResourceSummary> resources) {
+        for (int i = 0; i < resources.size(); i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(resources.get(i).getName());
+        }
+        return text;
+    }
+
+    /**
+     * Gets the resource that matches the context, using the shared cache when it is warm.
+     * @param ctx   The intent context.
+     * @return      The matching resource or null.
+     */
     public T get(IntentContext<BaseOperation<T, L, ?, ?>> ctx) {
-        return ctx.asOperation(getGetOperationFilters()).get();
+        BaseOperation<T, L, ?, ?> operation = ctx.asOperation(getGetOperationFilters());
+        ResourceCache<T, L> cache = getServingCache(operation);
+        if (cache != null) {
+            return cache.get(operation);
+        }
+        return operation.get();
+    }
+
+    /**
+     * @return The cache that can serve the operation, or null if the type is not cached or the cache can't serve it.
+     */
+    private ResourceCache<T, L> getServingCache(BaseOperation<T, L, ?, ?> operation) {
+        ResourceCache<T, L> cache = ResourceCaches.of(kubernetesClient).get(operation.getType());
+        if (cache == null) {
+            return null;
+        }
+        boolean hit = cache.canServe(operation);
+        Metrics.getInstance().recordCacheLookup(operation.getType(), hit);
+        return hit ? cache : null;
     }
 
 
@@ -78,6 +237,29 @@ public abstract class BaseKubernetesIntentRequestHandler<T extends KubernetesRes
      * @return The default set of filters to be applies to list operations.
      */
     public List<Function<IntentContext, IntentContext>> getListOperationFilters() {
-        return Arrays.asList(NAMESPACE_FILTER, LABEL_FILTER);
+        return Arrays.asList(NAMESPACE_FILTER, LABEL_FILTER, FIELD_FILTER);
+    }
+
+    /**
+     * Keeps the summaries within a range and counts them all.
+     */
+    private static class Window implements Consumer<ResourceSummary> {
+        private final int from;
+        private final int to;
+        private final List<ResourceSummary> items = new ArrayList<>();
+        private int total;
+
+        private Window(int from, int size) {
+            this.from = from;
+            this.to = from + size;
+        }
+
+        @Override
+        public void accept(ResourceSummary summary) {
+            if (total >= from && total < to) {
+                items.add(summary);
+            }
+            total++;
+        }
     }
 }
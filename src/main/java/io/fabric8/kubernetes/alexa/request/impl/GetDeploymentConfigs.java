@@ -22,6 +22,9 @@ import com.amazon.speech.speechlet.SpeechletException;
 import com.amazon.speech.speechlet.SpeechletResponse;
 import io.fabric8.kubernetes.alexa.IntentContext;
 import io.fabric8.kubernetes.alexa.Variable;
+import io.fabric8.kubernetes.alexa.cache.ApiDiscovery;
+import io.fabric8.kubernetes.alexa.paging.ResourceSummary;
+import io.fabric8.kubernetes.alexa.request.ResponseFactory;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
@@ -32,9 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-import static org.apache.commons.lang3.StringUtils.join;
 
 public class GetDeploymentConfigs extends BaseKubernetesIntentRequestHandler<DeploymentConfig, DeploymentConfigList> {
 
@@ -53,24 +54,22 @@ public class GetDeploymentConfigs extends BaseKubernetesIntentRequestHandler<Dep
 
     @Override
     public SpeechletResponse onRequest(IntentRequest request, Session session) throws SpeechletException {
-        if (!getKubernetesClient().isAdaptable(OpenShiftClient.class)) {
+        if (!ApiDiscovery.of(getKubernetesClient()).isOpenShift()) {
             return newFailureNotice("Your cluster is not Openshift!");
         }
 
-        IntentContext<BaseOperation<DeploymentConfig, DeploymentConfigList, ?, ?>> ctx = createContext(request.getIntent(), session);
+        IntentContext<BaseOperation<DeploymentConfig, DeploymentConfigList, ?, ?>> ctx = createContext(request, session);
         String namespace = ctx.getVariable(Variable.Namespace, getKubernetesClient().getNamespace());
         LOGGER.info("Listing all deployment configs for namespace:" + namespace);
 
         try {
-            List<String> deployments = list(ctx)
-                    .getItems()
-                    .stream()
-                    .map(d -> d.getMetadata().getName()).collect(Collectors.toList());
+            List<ResourceSummary> deployments = listPage(request, ctx);
 
             if (deployments.isEmpty()) {
                 return newResponse("No deployment configs found.");
             } else {
-                return newResponse("The available deployment configs are: " + join(deployments, ","));
+                StringBuilder text = ResponseFactory.speech().append("The available deployment configs are: ");
+                return newPageResponse(appendNames(text, deployments), session);
             }
         } catch (KubernetesClientException e) {
             return newFailureNotice(e.getStatus().getMessage());
@@ -17,13 +17,15 @@
 package io.fabric8.kubernetes.alexa.request.impl;
 
 import io.fabric8.kubernetes.alexa.request.RequestHandlerFactory;
+import io.fabric8.kubernetes.alexa.request.RequestHandlerType;
 import io.fabric8.kubernetes.client.KubernetesClient;
 
+@RequestHandlerType(value = GetDeploymentConfigs.INTENT_NAME, intent = false)
 public class GetDeploymentConfigsFactory implements RequestHandlerFactory<GetDeploymentConfigs, KubernetesClient> {
 
     @Override
     public String getType() {
-        return GetDeployments.INTENT_NAME;
+        return GetDeploymentConfigs.INTENT_NAME;
     }
 
     @Override
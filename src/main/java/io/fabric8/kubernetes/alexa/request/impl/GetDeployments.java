@@ -22,6 +22,8 @@ import com.amazon.speech.speechlet.SpeechletException;
 import com.amazon.speech.speechlet.SpeechletResponse;
 import io.fabric8.kubernetes.alexa.IntentContext;
 import io.fabric8.kubernetes.alexa.Variable;
+import io.fabric8.kubernetes.alexa.paging.ResourceSummary;
+import io.fabric8.kubernetes.alexa.request.ResponseFactory;
 import io.fabric8.kubernetes.api.model.extensions.Deployment;
 import io.fabric8.kubernetes.api.model.extensions.DeploymentList;
 import io.fabric8.kubernetes.client.KubernetesClient;
@@ -31,9 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-import static org.apache.commons.lang3.StringUtils.join;
 
 public class GetDeployments extends BaseKubernetesIntentRequestHandler<Deployment, DeploymentList> {
 
@@ -52,20 +52,18 @@ public class GetDeployments extends BaseKubernetesIntentRequestHandler<Deploymen
 
     @Override
     public SpeechletResponse onRequest(IntentRequest request, Session session) throws SpeechletException {
-        IntentContext<BaseOperation<Deployment, DeploymentList, ?, ?>> ctx = createContext(request.getIntent(), session);
+        IntentContext<BaseOperation<Deployment, DeploymentList, ?, ?>> ctx = createContext(request, session);
         String namespace = ctx.getVariable(Variable.Namespace, getKubernetesClient().getNamespace());
         LOGGER.info("Listing all deployments for namespace:" + namespace);
 
         try {
-            List<String> deployments = list(ctx)
-                    .getItems()
-                    .stream()
-                    .map(d -> d.getMetadata().getName()).collect(Collectors.toList());
+            List<ResourceSummary> deployments = listPage(request, ctx);
 
             if (deployments.isEmpty()) {
                 return newResponse("No deployments found.");
             } else {
-                return newResponse("The available deployments are: " + join(deployments, ","));
+                StringBuilder text = ResponseFactory.speech().append("The available deployments are: ");
+                return newPageResponse(appendNames(text, deployments), session);
             }
         } catch (KubernetesClientException e) {
             return newFailureNotice(e.getStatus().getMessage());
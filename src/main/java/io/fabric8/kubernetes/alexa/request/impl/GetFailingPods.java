@@ -22,6 +22,8 @@ import com.amazon.speech.speechlet.SpeechletException;
 import com.amazon.speech.speechlet.SpeechletResponse;
 import io.fabric8.kubernetes.alexa.IntentContext;
 import io.fabric8.kubernetes.alexa.Variable;
+import io.fabric8.kubernetes.alexa.paging.ResourceSummary;
+import io.fabric8.kubernetes.alexa.request.ResponseFactory;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.client.KubernetesClient;
@@ -30,10 +32,13 @@ import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
-import static org.apache.commons.lang3.StringUtils.join;
+import static io.fabric8.kubernetes.alexa.IntentContext.FIELD_FILTER;
+import static io.fabric8.kubernetes.alexa.IntentContext.LABEL_FILTER;
+import static io.fabric8.kubernetes.alexa.IntentContext.NAMESPACE_FILTER;
 
 public class GetFailingPods extends BaseKubernetesIntentRequestHandler<Pod, PodList> {
 
@@ -42,6 +47,12 @@ public class GetFailingPods extends BaseKubernetesIntentRequestHandler<Pod, PodL
     static final String INTENT_NAME = "GetFailingPods";
 
     private static final String FAILED_PHASE = "Failed";
+    private static final String PHASE_FIELD = "status.phase";
+
+    //Let the API server do the filtering, so that healthy pods never leave the server.
+    private static final Function<IntentContext, IntentContext> FAILED_PHASE_FILTER = o -> new IntentContext.Builder<>(o)
+            .withOperation((BaseOperation) o.getOperation().withField(PHASE_FIELD, FAILED_PHASE))
+            .build();
 
     public GetFailingPods(KubernetesClient kubernetesClient) {
         super(kubernetesClient);
@@ -54,21 +65,18 @@ public class GetFailingPods extends BaseKubernetesIntentRequestHandler<Pod, PodL
 
     @Override
     public SpeechletResponse onRequest(IntentRequest request, Session session) throws SpeechletException {
-        IntentContext<BaseOperation<Pod, PodList, ?, ?>> ctx = createContext(request.getIntent(), session);
+        IntentContext<BaseOperation<Pod, PodList, ?, ?>> ctx = createContext(request, session);
         String namespace = ctx.getVariable(Variable.Namespace, getKubernetesClient().getNamespace());
         LOGGER.info("Listing all failing pods for namespace:" + namespace);
 
         try {
-            List<String> pods = list(ctx)
-                    .getItems()
-                    .stream()
-                    .filter(p -> FAILED_PHASE.equalsIgnoreCase(p.getStatus().getPhase()))
-                    .map(d -> d.getMetadata().getName()).collect(Collectors.toList());
+            List<ResourceSummary> pods = listPage(request, ctx);
 
             if (pods.isEmpty()) {
                 return newResponse("No failing pods found in namespace " + namespace);
             } else {
-                return newResponse("The failing pods in namespace " + namespace + " are: " + join(pods, ","));
+                StringBuilder text = ResponseFactory.speech().append("The failing pods in namespace ").append(namespace).append(" are: ");
+                return newPageResponse(appendNames(text, pods), session);
             }
         } catch (KubernetesClientException e) {
             return newFailureNotice(e.getStatus().getMessage());
@@ -76,6 +84,11 @@ public class GetFailingPods extends BaseKubernetesIntentRequestHandler<Pod, PodL
     }
 
 
+    @Override
+    public List<Function<IntentContext, IntentContext>> getListOperationFilters() {
+        return Arrays.asList(NAMESPACE_FILTER, LABEL_FILTER, FIELD_FILTER, FAILED_PHASE_FILTER);
+    }
+
     @Override
     public BaseOperation<Pod, PodList, ?, ?> newOperation() {
         return (BaseOperation<Pod, PodList, ?, ?>) getKubernetesClient().pods();
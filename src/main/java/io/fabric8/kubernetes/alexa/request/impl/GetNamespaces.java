@@ -21,6 +21,8 @@ import com.amazon.speech.speechlet.Session;
 import com.amazon.speech.speechlet.SpeechletException;
 import com.amazon.speech.speechlet.SpeechletResponse;
 import io.fabric8.kubernetes.alexa.IntentContext;
+import io.fabric8.kubernetes.alexa.paging.ResourceSummary;
+import io.fabric8.kubernetes.alexa.request.ResponseFactory;
 import io.fabric8.kubernetes.api.model.Namespace;
 import io.fabric8.kubernetes.api.model.NamespaceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
@@ -32,11 +34,9 @@ import org.slf4j.LoggerFactory;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static io.fabric8.kubernetes.alexa.IntentContext.LABEL_FILTER;
 import static io.fabric8.kubernetes.alexa.IntentContext.NAME_FILTER;
-import static org.apache.commons.lang3.StringUtils.join;
 
 public class GetNamespaces extends BaseKubernetesIntentRequestHandler<Namespace, NamespaceList> {
 
@@ -56,19 +56,17 @@ public class GetNamespaces extends BaseKubernetesIntentRequestHandler<Namespace,
 
     @Override
     public SpeechletResponse onRequest(IntentRequest request, Session session) throws SpeechletException {
-        IntentContext<BaseOperation<Namespace, NamespaceList, ?, ?>> ctx = createContext(request.getIntent(), session);
+        IntentContext<BaseOperation<Namespace, NamespaceList, ?, ?>> ctx = createContext(request, session);
         LOGGER.info("Listing all namespaces.");
 
         try {
-            List<String> namespaces = list(ctx)
-                    .getItems()
-                    .stream()
-                    .map(d -> d.getMetadata().getName()).collect(Collectors.toList());
+            List<ResourceSummary> namespaces = listPage(request, ctx);
 
             if (namespaces.isEmpty()) {
                 return newResponse("No namespaces found.");
             } else {
-                return newResponse("The available namespaces are: " + join(namespaces, ","));
+                StringBuilder text = ResponseFactory.speech().append("The available namespaces are: ");
+                return newPageResponse(appendNames(text, namespaces), session);
             }
         } catch (KubernetesClientException e) {
             return newFailureNotice(e.getStatus().getMessage());
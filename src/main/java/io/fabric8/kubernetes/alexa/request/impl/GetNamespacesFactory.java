@@ -17,8 +17,10 @@
 package io.fabric8.kubernetes.alexa.request.impl;
 
 import io.fabric8.kubernetes.alexa.request.RequestHandlerFactory;
+import io.fabric8.kubernetes.alexa.request.RequestHandlerType;
 import io.fabric8.kubernetes.client.KubernetesClient;
 
+@RequestHandlerType(GetNamespaces.INTENT_NAME)
 public class GetNamespacesFactory implements RequestHandlerFactory<GetNamespaces, KubernetesClient> {
 
     @Override
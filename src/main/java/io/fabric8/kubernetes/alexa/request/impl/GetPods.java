@@ -22,6 +22,8 @@ import com.amazon.speech.speechlet.SpeechletException;
 import com.amazon.speech.speechlet.SpeechletResponse;
 import io.fabric8.kubernetes.alexa.IntentContext;
 import io.fabric8.kubernetes.alexa.Variable;
+import io.fabric8.kubernetes.alexa.paging.ResourceSummary;
+import io.fabric8.kubernetes.alexa.request.ResponseFactory;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.client.KubernetesClient;
@@ -31,9 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-import static org.apache.commons.lang3.StringUtils.join;
 
 public class GetPods extends BaseKubernetesIntentRequestHandler<Pod, PodList> {
 
@@ -52,20 +52,18 @@ public class GetPods extends BaseKubernetesIntentRequestHandler<Pod, PodList> {
 
     @Override
     public SpeechletResponse onRequest(IntentRequest request, Session session) throws SpeechletException {
-        IntentContext<BaseOperation<Pod, PodList, ?, ?>> ctx = createContext(request.getIntent(), session);
+        IntentContext<BaseOperation<Pod, PodList, ?, ?>> ctx = createContext(request, session);
         String namespace = ctx.getVariable(Variable.Namespace, getKubernetesClient().getNamespace());
         LOGGER.info("Listing all pods for namespace:" + namespace);
 
         try {
-            List<String> pods = list(ctx)
-                    .getItems()
-                    .stream()
-                    .map(d -> d.getMetadata().getName()).collect(Collectors.toList());
+            List<ResourceSummary> pods = listPage(request, ctx);
 
             if (pods.isEmpty()) {
                 return newResponse("No pods found in namespace " + namespace);
             } else {
-                return newResponse("The available pods in namespace " + namespace + " are: " + join(pods, ","));
+                StringBuilder text = ResponseFactory.speech().append("The available pods in namespace ").append(namespace).append(" are: ");
+                return newPageResponse(appendNames(text, pods), session);
             }
         } catch (KubernetesClientException e) {
             return newFailureNotice(e.getStatus().getMessage());
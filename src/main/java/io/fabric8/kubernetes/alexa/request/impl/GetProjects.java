@@ -21,6 +21,9 @@ import com.amazon.speech.speechlet.Session;
 import com.amazon.speech.speechlet.SpeechletException;
 import com.amazon.speech.speechlet.SpeechletResponse;
 import io.fabric8.kubernetes.alexa.IntentContext;
+import io.fabric8.kubernetes.alexa.cache.ApiDiscovery;
+import io.fabric8.kubernetes.alexa.paging.ResourceSummary;
+import io.fabric8.kubernetes.alexa.request.ResponseFactory;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
@@ -33,11 +36,9 @@ import org.slf4j.LoggerFactory;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import static io.fabric8.kubernetes.alexa.IntentContext.LABEL_FILTER;
 import static io.fabric8.kubernetes.alexa.IntentContext.NAME_FILTER;
-import static org.apache.commons.lang3.StringUtils.join;
 
 public class GetProjects extends BaseKubernetesIntentRequestHandler<Project, ProjectList> {
 
@@ -56,23 +57,21 @@ public class GetProjects extends BaseKubernetesIntentRequestHandler<Project, Pro
 
     @Override
     public SpeechletResponse onRequest(IntentRequest request, Session session) throws SpeechletException {
-        if (!getKubernetesClient().isAdaptable(OpenShiftClient.class)) {
+        if (!ApiDiscovery.of(getKubernetesClient()).isOpenShift()) {
             return newFailureNotice("Your cluster is not Openshift!");
         }
 
-        IntentContext<BaseOperation<Project, ProjectList, ?, ?>> ctx = createContext(request.getIntent(), session);
+        IntentContext<BaseOperation<Project, ProjectList, ?, ?>> ctx = createContext(request, session);
         LOGGER.info("Listing all projects.");
 
         try {
-            List<String> projects = list(ctx)
-                    .getItems()
-                    .stream()
-                    .map(d -> d.getMetadata().getName()).collect(Collectors.toList());
+            List<ResourceSummary> projects = listPage(request, ctx);
 
             if (projects.isEmpty()) {
                 return newResponse("No projects found.");
             } else {
-                return newResponse("The available projects are: " + join(projects, ","));
+                StringBuilder text = ResponseFactory.speech().append("The available projects are: ");
+                return newPageResponse(appendNames(text, projects), session);
             }
         } catch (KubernetesClientException e) {
             return newFailureNotice(e.getStatus().getMessage());
@@ -22,6 +22,8 @@ import com.amazon.speech.speechlet.SpeechletException;
 import com.amazon.speech.speechlet.SpeechletResponse;
 import io.fabric8.kubernetes.alexa.IntentContext;
 import io.fabric8.kubernetes.alexa.Variable;
+import io.fabric8.kubernetes.alexa.paging.ResourceSummary;
+import io.fabric8.kubernetes.alexa.request.ResponseFactory;
 import io.fabric8.kubernetes.api.model.Service;
 import io.fabric8.kubernetes.api.model.ServiceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
@@ -31,9 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-import static org.apache.commons.lang3.StringUtils.join;
 
 public class GetServices extends BaseKubernetesIntentRequestHandler<Service, ServiceList> {
 
@@ -52,20 +52,18 @@ public class GetServices extends BaseKubernetesIntentRequestHandler<Service, Ser
 
     @Override
     public SpeechletResponse onRequest(IntentRequest request, Session session) throws SpeechletException {
-        IntentContext<BaseOperation<Service, ServiceList, ?, ?>> ctx = createContext(request.getIntent(), session);
+        IntentContext<BaseOperation<Service, ServiceList, ?, ?>> ctx = createContext(request, session);
         String namespace = ctx.getVariable(Variable.Namespace, getKubernetesClient().getNamespace());
         LOGGER.info("Listing all services for namespace:" + namespace);
 
         try {
-            List<String> services = list(ctx)
-                    .getItems()
-                    .stream()
-                    .map(d -> d.getMetadata().getName()).collect(Collectors.toList());
+            List<ResourceSummary> services = listPage(request, ctx);
 
             if (services.isEmpty()) {
                 return newResponse("No services found in namespace " + namespace);
             } else {
-                return newResponse("The available services in namespace " + namespace + " are: " + join(services, ","));
+                StringBuilder text = ResponseFactory.speech().append("The available services in namespace ").append(namespace).append(" are: ");
+                return newPageResponse(appendNames(text, services), session);
             }
         } catch (KubernetesClientException e) {
             return newFailureNotice(e.getStatus().getMessage());
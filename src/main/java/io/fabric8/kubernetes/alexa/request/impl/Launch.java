@@ -19,31 +19,54 @@ import com.amazon.speech.speechlet.LaunchRequest;
 import com.amazon.speech.speechlet.Session;
 import com.amazon.speech.speechlet.SpeechletException;
 import com.amazon.speech.speechlet.SpeechletResponse;
-import com.amazon.speech.speechlet.SpeechletResponseBuilder;
 import io.fabric8.kubernetes.alexa.FeedbackUtils;
+import io.fabric8.kubernetes.alexa.PodIndex;
+import io.fabric8.kubernetes.alexa.cache.ApiDiscovery;
+import io.fabric8.kubernetes.alexa.cache.OwnerIndex;
+import io.fabric8.kubernetes.alexa.cache.ResourceCaches;
+import io.fabric8.kubernetes.alexa.concurrent.FanOut;
+import io.fabric8.kubernetes.alexa.deadline.Deadline;
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
 import io.fabric8.kubernetes.alexa.request.RequestHandler;
+import io.fabric8.kubernetes.alexa.request.ResponseFactory;
 import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.extensions.Deployment;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.internal.readiness.Readiness;
 import io.fabric8.openshift.api.model.DeploymentConfig;
 import io.fabric8.openshift.client.OpenShiftClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class Launch implements RequestHandler<LaunchRequest> {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(Launch.class);
+
     static final String TYPE = "Launch";
 
+    public static final String REPORT_TIMEOUT_ENV_VAR = "ALEXA_REPORT_TIMEOUT";
+
+    //Alexa waits for about 8 seconds, so leave enough room for listing the deployments and sending the response.
+    private static final long DEFAULT_REPORT_TIMEOUT_MILLIS = 4000;
+
+    private static final ResponseFactory WELCOME = new ResponseFactory(ResponseFactory.DEFAULT_TITLE, "Welcome to Kubernetes skill");
+
     private final KubernetesClient kubernetesClient;
-    private final OpenShiftClient openshiftClient;
-    private final Boolean isOpenshift;
+    private final long reportTimeoutMillis = getReportTimeoutMillis();
 
     public Launch(KubernetesClient kubernetesClient) {
         this.kubernetesClient = kubernetesClient;
-        this.isOpenshift = kubernetesClient.isAdaptable(OpenShiftClient.class);
-        this.openshiftClient = this.isOpenshift ? kubernetesClient.adapt(OpenShiftClient.class) : null;
     }
 
     @Override
@@ -64,42 +87,37 @@ public class Launch implements RequestHandler<LaunchRequest> {
     private SpeechletResponse getWelcomeResponse() {
         // Create the welcome message.
         String namespace = kubernetesClient.getNamespace();
+        //Discovery is cached, so this only goes to the API server once it has expired.
+        boolean isOpenshift = ApiDiscovery.of(kubernetesClient).isOpenShift();
+        //Never report past the deadline of the request.
+        Deadline deadline = Deadline.after(reportTimeoutMillis, TimeUnit.MILLISECONDS);
+        RequestScope scope = RequestScope.current();
+        if (scope != null) {
+            deadline = deadline.min(scope.getDeadline());
+        }
 
         String speechText =
-                "Welcome to "+getClusterType()+". You are currently using namespace " + namespace + ". " +
-                (isOpenshift ? getDeploymentConfigReport() : getDeploymentReport());
+                "Welcome to "+getClusterType(isOpenshift)+". You are currently using namespace " + namespace + ". " +
+                (isOpenshift ? getDeploymentConfigReport(deadline) : getDeploymentReport(deadline));
 
         String repromptText =
-                "Welcome to "+getClusterType()+". You are currently using namespace " + namespace + ".";
-
-        return new SpeechletResponseBuilder()
-                .withNewSimpleCard()
-                    .withTitle("Kubernetes")
-                    .withContent("Welcome to Kubernetes skill")
-                .endSimpleCard()
-                .withNewPlainTextOutputSpeech()
-                    .withText(speechText)
-                .endPlainTextOutputSpeech()
-                .withNewReprompt()
-                        .withNewPlainTextOutputSpeech()
-                            .withText(repromptText)
-                        .endPlainTextOutputSpeech()
-                    .endReprompt()
-                .withShouldEndSession(false)
-                .build();
-    }
-
-    private String getClusterType() {
+                "Welcome to "+getClusterType(isOpenshift)+". You are currently using namespace " + namespace + ".";
+
+        return WELCOME.newResponse(speechText, repromptText);
+    }
+
+    private String getClusterType(boolean isOpenshift) {
         return isOpenshift ? "Openshift" : "Kubernetes";
     }
 
     /**
      * Returns a simple report of the deployments.
+     * @param deadline  The time by which the report should be ready.
      * @return  A string containing the text of the report.
      */
-    private String getDeploymentConfigReport() {
+    private String getDeploymentConfigReport(Deadline deadline) {
         StringBuilder sb = new StringBuilder();
-        List<DeploymentConfig> all = openshiftClient.deploymentConfigs().list().getItems();
+        List<DeploymentConfig> all = kubernetesClient.adapt(OpenShiftClient.class).deploymentConfigs().list().getItems();
 
         List<DeploymentConfig> pending = all.stream()
                 .filter(d -> !Readiness.isDeploymentConfigReady(d))
@@ -107,7 +125,7 @@ public class Launch implements RequestHandler<LaunchRequest> {
 
         try {
             sb.append(createDeploymentReport(all.size(), all.size() - pending.size()));
-            sb.append(createPendingReportForDeploymentConfig(pending));
+            sb.append(createPendingReportForDeploymentConfig(pending, deadline));
         } catch (Throwable t) {
             //ignore
         }
@@ -117,9 +135,10 @@ public class Launch implements RequestHandler<LaunchRequest> {
 
     /**
      * Returns a simple report of the deployments.
+     * @param deadline  The time by which the report should be ready.
      * @return  A string containing the text of the report.
      */
-    private String getDeploymentReport() {
+    private String getDeploymentReport(Deadline deadline) {
         StringBuilder sb = new StringBuilder();
         List<Deployment> all = kubernetesClient.extensions().deployments().list().getItems();
 
@@ -129,7 +148,7 @@ public class Launch implements RequestHandler<LaunchRequest> {
 
         try {
             sb.append(createDeploymentReport(all.size(), all.size() - pending.size()));
-            sb.append(createPendingReportForDeployment(pending));
+            sb.append(createPendingReportForDeployment(pending, deadline));
         } catch (Throwable t) {
             //ignore
         }
@@ -155,35 +174,121 @@ public class Launch implements RequestHandler<LaunchRequest> {
         return sb.toString();
     }
 
-    private String createPendingReportForDeployment(List<Deployment> pending) {
+    private String createPendingReportForDeployment(List<Deployment> pending, Deadline deadline) {
+        return createPendingReport("Failed deployments are: ", pending, deadline, " , due to:", "");
+    }
+
+    private String createPendingReportForDeploymentConfig(List<DeploymentConfig> pending, Deadline deadline) {
+        return createPendingReport("Failed deployment configs are: ", pending, deadline, " , due to ", ". ");
+    }
+
+    /**
+     * Names every pending resource, followed by the reason it failed when that could be found out in time.
+     * The failed events and their pods are fetched once per namespace (concurrently and within the budget) and then
+     * joined with each resource in memory: through the {@link OwnerIndex} when it knows the controller of the pods, or
+     * through their labels otherwise.
+     */
+    private <T extends HasMetadata> String createPendingReport(String heading, List<T> pending, Deadline deadline, String reasonPrefix, String reasonSuffix) {
         if (pending == null || pending.isEmpty()) {
             return "";
         }
+        List<String> namespaces = pending.stream().map(p -> p.getMetadata().getNamespace()).distinct().collect(Collectors.toList());
+        FanOut.Result<NamespaceFailures> result = FanOut.getInstance().map(namespaces, this::getNamespaceFailures,
+                deadline.remaining(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        Map<String, NamespaceFailures> failuresByNamespace = new HashMap<>();
+        result.getCompleted().forEach(f -> failuresByNamespace.put(f.namespace, f));
+
         StringBuilder sb = new StringBuilder();
-        sb.append("Failed deployments are: ");
-        for (Deployment p : pending) {
+        sb.append(heading);
+        int unchecked = 0;
+        int failed = 0;
+        for (T p : pending) {
             sb.append(p.getMetadata().getName()).append(" ");
-            List<Event> events = FeedbackUtils.getFailedEvents(kubernetesClient, p);
-            if (!events.isEmpty()) {
-                sb.append(" , due to:" + FeedbackUtils.normalize(events.get(0).getMessage()));
+            NamespaceFailures failures = failuresByNamespace.get(p.getMetadata().getNamespace());
+            if (failures == null) {
+                unchecked++;
+            } else if (failures.failed) {
+                failed++;
+            } else {
+                List<Event> events = failures.getFailedEvents(p);
+                if (!events.isEmpty()) {
+                    sb.append(reasonPrefix).append(FeedbackUtils.normalize(events.get(0).getMessage())).append(reasonSuffix);
+                }
             }
         }
+        //Failed lookups are caught by the task itself, so anything the fan-out didn't complete is still being checked.
+        sb.append(createStillCheckingReport(unchecked));
+        sb.append(createFailedReport(failed));
         return sb.toString();
     }
 
-    private String createPendingReportForDeploymentConfig(List<DeploymentConfig> pending) {
-        if (pending == null || pending.isEmpty()) {
-            return "";
+    private NamespaceFailures getNamespaceFailures(String namespace) {
+        try {
+            Map<String, List<Event>> eventsByUid = FeedbackUtils.getFailedEventsByUid(kubernetesClient, namespace);
+            List<Pod> pods = FeedbackUtils.getPodsWithFailedEvents(kubernetesClient, namespace, eventsByUid);
+            return new NamespaceFailures(namespace, eventsByUid, getEventsByController(pods, eventsByUid), new PodIndex(pods), false);
+        } catch (RuntimeException e) {
+            LOGGER.debug("Failed to look up the failed events of namespace {}.", namespace, e);
+            return new NamespaceFailures(namespace, Collections.emptyMap(), Collections.emptyMap(), null, true);
         }
-        StringBuilder sb = new StringBuilder();
-        sb.append("Failed deployment configs are: ");
-        for (DeploymentConfig p : pending) {
-            sb.append(p.getMetadata().getName()).append(" ");
-            List<Event> events = FeedbackUtils.getFailedEvents(kubernetesClient, p);
-            if (!events.isEmpty()) {
-                sb.append(" , due to " + FeedbackUtils.normalize(events.get(0).getMessage())).append( ". ");
+    }
+
+    /**
+     * Groups the failed events of the pods by the uid of the workload that controls them.
+     * Pods whose controller isn't known to the {@link OwnerIndex} (e.g. because the caches are cold) are left out.
+     */
+    private Map<String, List<Event>> getEventsByController(List<Pod> pods, Map<String, List<Event>> eventsByUid) {
+        OwnerIndex owners = ResourceCaches.of(kubernetesClient).getOwnerIndex();
+        Map<String, List<Event>> result = new HashMap<>();
+        for (Pod pod : pods) {
+            OwnerReference controller = owners.controllerOf(pod);
+            if (controller != null) {
+                result.computeIfAbsent(controller.getUid(), k -> new ArrayList<>())
+                        .addAll(eventsByUid.getOrDefault(pod.getMetadata().getUid(), Collections.emptyList()));
             }
         }
-        return sb.toString();
+        return result;
+    }
+
+    private String createStillCheckingReport(int pending) {
+        return pending > 0 ? "The reasons for " + pending + " are still being checked. " : "";
+    }
+
+    private String createFailedReport(int failed) {
+        return failed > 0 ? "The reasons for " + failed + " could not be checked. " : "";
+    }
+
+    private static long getReportTimeoutMillis() {
+        String value = System.getenv(REPORT_TIMEOUT_ENV_VAR);
+        try {
+            return value != null ? Long.parseLong(value) : DEFAULT_REPORT_TIMEOUT_MILLIS;
+        } catch (NumberFormatException e) {
+            return DEFAULT_REPORT_TIMEOUT_MILLIS;
+        }
+    }
+
+    /**
+     * The failed events of a namespace and the pods they are about.
+     */
+    private static class NamespaceFailures {
+        private final String namespace;
+        private final Map<String, List<Event>> eventsByUid;
+        private final Map<String, List<Event>> eventsByController;
+        private final PodIndex pods;
+        private final boolean failed;
+
+        private NamespaceFailures(String namespace, Map<String, List<Event>> eventsByUid, Map<String, List<Event>> eventsByController,
+                                  PodIndex pods, boolean failed) {
+            this.namespace = namespace;
+            this.eventsByUid = eventsByUid;
+            this.eventsByController = eventsByController;
+            this.pods = pods;
+            this.failed = failed;
+        }
+
+        private List<Event> getFailedEvents(HasMetadata resource) {
+            List<Event> events = eventsByController.get(resource.getMetadata().getUid());
+            return events != null ? events : FeedbackUtils.getFailedEvents(resource, pods, eventsByUid);
+        }
     }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.request.impl;
+
+import com.amazon.speech.speechlet.IntentRequest;
+import com.amazon.speech.speechlet.Session;
+import com.amazon.speech.speechlet.SpeechletException;
+import com.amazon.speech.speechlet.SpeechletResponse;
+import io.fabric8.kubernetes.alexa.RequestHandlerRegistry;
+import io.fabric8.kubernetes.alexa.paging.Continuation;
+import io.fabric8.kubernetes.alexa.request.BaseRequestHandler;
+import io.fabric8.kubernetes.alexa.request.RequestHandler;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * Speaks the next page of the listing last spoken in the session.
+ * The request is passed as is to the handler of the intent that started the listing, which picks up the intent, the
+ * slots and the continue token from the session.
+ */
+public class More extends BaseRequestHandler<IntentRequest> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(More.class);
+
+    static final String INTENT_NAME = Continuation.MORE_INTENT;
+
+    private final RequestHandlerRegistry<KubernetesClient> handlers;
+
+    public More(KubernetesClient kubernetesClient) {
+        this.handlers = RequestHandlerRegistry.of(kubernetesClient);
+    }
+
+    @Override
+    public String getType() {
+        return INTENT_NAME;
+    }
+
+    @Override
+    public SpeechletResponse onRequest(IntentRequest request, Session session) throws SpeechletException {
+        String intentName = Continuation.getIntentName(session);
+        Optional<RequestHandler> handler = INTENT_NAME.equals(intentName) ? Optional.empty() : handlers.get(intentName);
+
+        if (!handler.isPresent() || !Continuation.hasMore(session)) {
+            Continuation.clear(session);
+            return newResponse("There is nothing more to list.");
+        }
+
+        LOGGER.info("Continuing " + intentName + ".");
+        return handler.get().onRequest(request, session);
+    }
+}
@@ -59,23 +59,20 @@ public class SwitchToNamespace extends BaseKubernetesIntentRequestHandler<Namesp
         IntentContext<BaseOperation<Namespace, NamespaceList, ?, ?>> ctx = createContext(request.getIntent(), session);
 
         //The namespace as Alexa heard it.
-        String namespace =  ctx.getVariable(Variable.Namespace, null);
+        String namespace =  ctx.getVariable(Variable.Name, ctx.getVariable(Variable.Namespace, null));
 
         if (Utils.isNullOrEmpty(namespace)) {
           return newFailureNotice("Sorry, didn't understand which namespace you want me to use.");
         }
 
-        //The namespace as matched in kubernetes
-        namespace = IntentContext.selectNamespace(getKubernetesClient(), namespace);
-        LOGGER.info("Switching to namespace:" + ctx.getVariable(Variable.Namespace, getKubernetesClient().getNamespace()));
-
         try {
-            Namespace ns = get(ctx);
+            //The namespace as matched in kubernetes. Resolution goes through the name index, so there is no need to get it again.
+            namespace = IntentContext.selectNamespace(getKubernetesClient(), namespace);
+            LOGGER.info("Switching to namespace:" + namespace);
 
-            if (ns == null) {
+            if (namespace == null) {
                 return newResponse("No namespaces found.");
             } else {
-                 namespace = ns.getMetadata().getName();
                 session.setAttribute(Namespace.name(), namespace);
                 return newResponse("Now using namespace " + namespace);
             }
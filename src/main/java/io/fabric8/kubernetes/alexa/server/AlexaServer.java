@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.server;
+
+import com.amazon.speech.Sdk;
+import com.amazon.speech.speechlet.SpeechletRequestHandler;
+import com.amazon.speech.speechlet.SpeechletRequestHandlerException;
+import com.amazon.speech.speechlet.authentication.SpeechletRequestSignatureVerifier;
+import com.amazon.speech.speechlet.lambda.LambdaSpeechletRequestHandler;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.fabric8.kubernetes.alexa.KubernetesClients;
+import io.fabric8.kubernetes.alexa.RequestDispatcher;
+import io.fabric8.kubernetes.alexa.cache.ApiDiscovery;
+import io.fabric8.kubernetes.alexa.cache.ResourceCaches;
+import io.fabric8.kubernetes.alexa.concurrent.VirtualThreads;
+import io.fabric8.kubernetes.alexa.deadline.Deadline;
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
+import io.fabric8.kubernetes.alexa.metrics.Metrics;
+import io.fabric8.kubernetes.alexa.metrics.PrometheusFormat;
+import io.fabric8.kubernetes.alexa.progressive.HttpProgressiveResponseSender;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A standalone entry point, for running the skill as a long-lived service (e.g. inside the cluster) rather than a lambda.
+ * Unlike a lambda container the server lives across requests, so caches stay warm and connections to the API server
+ * are kept alive. Requests are handled on virtual threads when the JDK supports them, else on a bounded pool.
+ *
+ * Endpoints:
+ * - POST /alexa    the Alexa request envelope, verified like the lambda does (plus the request signature).
+ * - GET /healthz   always OK while the server is running.
+ * - GET /readyz    OK once the caches (if enabled) have completed their initial list.
+ * - GET /metrics   the {@link Metrics} of the process, in the Prometheus text format.
+ */
+public class AlexaServer implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AlexaServer.class);
+
+    public static final String SERVER_PORT_ENV_VAR = "ALEXA_SERVER_PORT";
+    public static final String SERVER_THREADS_ENV_VAR = "ALEXA_SERVER_THREADS";
+
+    static final String ALEXA_PATH = "/alexa";
+    static final String HEALTH_PATH = "/healthz";
+    static final String READY_PATH = "/readyz";
+    static final String METRICS_PATH = "/metrics";
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_THREADS = 64;
+    //Alexa requests are a few KB, anything way bigger than that isn't coming from Alexa.
+    private static final int MAX_REQUEST_BYTES = 128 * 1024;
+
+    private static final String JSON = "application/json;charset=UTF-8";
+    private static final String TEXT = "text/plain;charset=UTF-8";
+
+    private final KubernetesClient client;
+    private final RequestDispatcher<KubernetesClient> dispatcher;
+    private final SpeechletRequestHandler speechletRequestHandler;
+    private final boolean verifySignatures;
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    /**
+     * Creates a server configured from the environment.
+     */
+    public AlexaServer() throws IOException {
+        this(KubernetesClients.create(), KubernetesClients.getSupportedApplicationIds(),
+                getIntFromEnv(SERVER_PORT_ENV_VAR, DEFAULT_PORT),
+                System.getProperty(Sdk.DISABLE_REQUEST_SIGNATURE_CHECK_SYSTEM_PROPERTY) == null);
+    }
+
+    /**
+     * Creates a server.
+     * @param client                    The client.
+     * @param supportedApplicationIds   The ids of the skills that are allowed to call us.
+     * @param port                      The port to listen to (0 for any free port).
+     * @param verifySignatures          Whether to check that requests are signed by Alexa.
+     */
+    public AlexaServer(KubernetesClient client, Set<String> supportedApplicationIds, int port, boolean verifySignatures) throws IOException {
+        this.client = client;
+        this.dispatcher = new RequestDispatcher<>(client, new HttpProgressiveResponseSender());
+        //Despite its name, there is nothing lambda specific to it: it verifies the application id and the timestamp.
+        this.speechletRequestHandler = new LambdaSpeechletRequestHandler(supportedApplicationIds);
+        this.verifySignatures = verifySignatures;
+        this.executor = createExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext(ALEXA_PATH, this::handleAlexa);
+        this.server.createContext(HEALTH_PATH, e -> respond(e, HttpURLConnection.HTTP_OK, TEXT, "OK"));
+        this.server.createContext(READY_PATH, this::handleReady);
+        this.server.createContext(METRICS_PATH, AlexaServer::handleMetrics);
+    }
+
+    public static void main(String[] args) throws Exception {
+        CountDownLatch stopped = new CountDownLatch(1);
+        AlexaServer server = new AlexaServer().start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+
+    /**
+     * Starts the API discovery, the caches (if enabled) and accepting requests.
+     * @return  This instance.
+     */
+    public AlexaServer start() {
+        ApiDiscovery.of(client).start();
+        if (ResourceCaches.isEnabled()) {
+            ResourceCaches.of(client).start();
+        }
+        server.start();
+        LOGGER.info("Listening for Alexa requests on port {}.", getPort());
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        ResourceCaches.of(client).close();
+        ApiDiscovery.of(client).close();
+        client.close();
+    }
+
+    private void handleAlexa(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            respond(exchange, HttpURLConnection.HTTP_BAD_METHOD, TEXT, "Method not allowed");
+            return;
+        }
+
+        byte[] request = readBody(exchange.getRequestBody());
+        if (request == null) {
+            respond(exchange, HttpURLConnection.HTTP_ENTITY_TOO_LARGE, TEXT, "Request too large");
+            return;
+        }
+
+        if (verifySignatures) {
+            try {
+                SpeechletRequestSignatureVerifier.checkRequestSignature(request,
+                        exchange.getRequestHeaders().getFirst(Sdk.SIGNATURE_REQUEST_HEADER),
+                        exchange.getRequestHeaders().getFirst(Sdk.SIGNATURE_CERTIFICATE_CHAIN_URL_REQUEST_HEADER));
+            } catch (SecurityException e) {
+                LOGGER.warn("Rejected request with invalid signature: {}.", e.getMessage());
+                respond(exchange, HttpURLConnection.HTTP_BAD_REQUEST, TEXT, "Invalid signature");
+                return;
+            }
+        }
+
+        try {
+            Deadline deadline = Deadline.after(dispatcher.getResponseTimeoutMillis(), TimeUnit.MILLISECONDS);
+            byte[] response = RequestScope.fromRequest(request, deadline)
+                    .call(() -> speechletRequestHandler.handleSpeechletCall(dispatcher, request));
+            respond(exchange, HttpURLConnection.HTTP_OK, JSON, response);
+        } catch (SpeechletRequestHandlerException | IOException e) {
+            LOGGER.warn("Rejected invalid request: {}.", e.getMessage());
+            respond(exchange, HttpURLConnection.HTTP_BAD_REQUEST, TEXT, "Invalid request");
+        } catch (Exception e) {
+            LOGGER.error("Failed to handle request.", e);
+            respond(exchange, HttpURLConnection.HTTP_INTERNAL_ERROR, TEXT, "Internal error");
+        }
+    }
+
+    private void handleReady(HttpExchange exchange) throws IOException {
+        if (ResourceCaches.of(client).isReady()) {
+            respond(exchange, HttpURLConnection.HTTP_OK, TEXT, "OK");
+        } else {
+            respond(exchange, HttpURLConnection.HTTP_UNAVAILABLE, TEXT, "Caches are not ready");
+        }
+    }
+
+    private static void handleMetrics(HttpExchange exchange) throws IOException {
+        StringBuilder metrics = new StringBuilder();
+        PrometheusFormat.write(Metrics.getInstance(), metrics);
+        respond(exchange, HttpURLConnection.HTTP_OK, PrometheusFormat.CONTENT_TYPE, metrics.toString());
+    }
+
+    /**
+     * @return The body or null if it exceeds {@link #MAX_REQUEST_BYTES}.
+     */
+    private static byte[] readBody(InputStream input) throws IOException {
+        try (InputStream in = input) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (out.size() + read > MAX_REQUEST_BYTES) {
+                    return null;
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int code, String contentType, String body) throws IOException {
+        respond(exchange, code, contentType, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int code, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        if (executor != null) {
+            LOGGER.info("Using virtual threads for handling requests.");
+            return executor;
+        }
+        return Executors.newFixedThreadPool(getIntFromEnv(SERVER_THREADS_ENV_VAR, DEFAULT_THREADS),
+                VirtualThreads.daemonThreadFactory("kubernetes-alexa-server"));
+    }
+
+    private static int getIntFromEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import com.amazon.speech.slu.Intent;
+import com.amazon.speech.slu.Slot;
+import com.amazon.speech.speechlet.IntentRequest;
+import com.amazon.speech.speechlet.LaunchRequest;
+import com.amazon.speech.speechlet.Session;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.alexa.cache.ApiDiscovery;
+import io.fabric8.kubernetes.alexa.progressive.ProgressiveResponseSender;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Asserts an upper bound of Kubernetes calls for every intent of the skill, so that a handler that starts listing more
+ * than it should (or looking things up once per item) fails the build.
+ * Each intent is handled once against a fresh synthetic cluster, so name lookups are not cached yet (the worst case).
+ * The cluster has a few failing items per namespace, so that a per item lookup would blow the budget.
+ */
+@RunWith(Parameterized.class)
+public class ApiCallBudgetTest {
+
+    private static final String LAUNCH = "Launch";
+
+    private static final Map<String, Integer> BUDGETS = new HashMap<>();
+
+    //Whether the cluster is Openshift is discovered once per client (see ApiDiscovery), so it doesn't count against any
+    //budget. Most handlers resolve the namespace (list namespaces) and then list what they were asked for.
+    static {
+        //Deployments, failed events and their pods, no matter how many deployments are pending.
+        BUDGETS.put(LAUNCH, 3);
+        BUDGETS.put("AMAZON.CancelIntent", 0);
+        BUDGETS.put("AMAZON.HelpIntent", 0);
+        BUDGETS.put("AMAZON.StopIntent", 0);
+        BUDGETS.put("CountPods", 2);
+        BUDGETS.put("GetNamespaces", 1);
+        //The synthetic cluster is not Openshift.
+        BUDGETS.put("GetProjects", 0);
+        BUDGETS.put("GetDeployments", 2);
+        BUDGETS.put("GetFailingPods", 2);
+        BUDGETS.put("GetPods", 2);
+        BUDGETS.put("GetServices", 2);
+        //Nothing to continue in a fresh session.
+        BUDGETS.put("More", 0);
+        BUDGETS.put("SwitchToNamespace", 1);
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> intents() throws IOException {
+        List<Object[]> result = new ArrayList<>();
+        result.add(new Object[]{LAUNCH});
+        try (InputStream in = ApiCallBudgetTest.class.getResourceAsStream("/intents.json")) {
+            for (JsonNode intent : new ObjectMapper().readTree(in).path("intents")) {
+                result.add(new Object[]{intent.path("name").asText()});
+            }
+        }
+        return result;
+    }
+
+    private final String intent;
+    private MockCluster cluster;
+
+    public ApiCallBudgetTest(String intent) {
+        this.intent = intent;
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        cluster = new MockCluster(50, "namespace-0", "namespace-1", "namespace-2");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        cluster.close();
+    }
+
+    @Test
+    public void shouldStayWithinBudget() throws Exception {
+        Integer budget = BUDGETS.get(intent);
+        assertNotNull("No api call budget for " + intent + ". Please add one.", budget);
+
+        RequestDispatcher<KubernetesClient> dispatcher = new RequestDispatcher<>(cluster.getClient(), ProgressiveResponseSender.NOOP);
+        //The entry points discover the API on startup.
+        ApiDiscovery.of(cluster.getClient()).isOpenShift();
+        cluster.reset();
+        Session session = Session.builder().withSessionId("session-1").build();
+        if (LAUNCH.equals(intent)) {
+            dispatcher.onLaunch(LaunchRequest.builder().withRequestId("request-1").build(), session);
+        } else {
+            dispatcher.onIntent(newRequest(intent), session);
+        }
+
+        List<String> requests = cluster.getRequests();
+        assertTrue(intent + " made " + requests.size() + " calls (" + cluster.getResponseBytes() + " bytes), over its budget of " + budget + ": " + requests,
+                requests.size() <= budget);
+    }
+
+    private static IntentRequest newRequest(String intent) {
+        Map<String, Slot> slots = new HashMap<>();
+        slots.put(Variable.Namespace.name(), Slot.builder().withName(Variable.Namespace.name()).withValue("namespace-1").build());
+        if ("SwitchToNamespace".equals(intent)) {
+            slots.put(Variable.Name.name(), Slot.builder().withName(Variable.Name.name()).withValue("namespace-2").build());
+        }
+        return IntentRequest.builder()
+                .withRequestId("request-1")
+                .withIntent(Intent.builder().withName(intent).withSlots(slots).build())
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import com.amazon.speech.slu.Intent;
+import com.amazon.speech.slu.Slot;
+import com.amazon.speech.speechlet.IntentRequest;
+import com.amazon.speech.speechlet.Session;
+import com.amazon.speech.speechlet.SpeechletResponse;
+import com.amazon.speech.ui.PlainTextOutputSpeech;
+import io.fabric8.kubernetes.alexa.progressive.ProgressiveResponseSender;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class CountPodsTest {
+
+    @Test
+    public void shouldCountWithoutListingEverything() throws Exception {
+        try (MockCluster cluster = new MockCluster(500, "namespace-0", "namespace-1")) {
+            RequestDispatcher<KubernetesClient> dispatcher = new RequestDispatcher<>(cluster.getClient(), ProgressiveResponseSender.NOOP);
+            Slot namespace = Slot.builder().withName(Variable.Namespace.name()).withValue("namespace-1").build();
+            IntentRequest request = IntentRequest.builder()
+                    .withRequestId("request-1")
+                    .withIntent(Intent.builder().withName("CountPods").withSlots(Collections.singletonMap(namespace.getName(), namespace)).build())
+                    .build();
+
+            cluster.reset();
+            SpeechletResponse response = dispatcher.onIntent(request, Session.builder().withSessionId("session-1").build());
+
+            assertEquals("There are 500 pods in namespace namespace-1", ((PlainTextOutputSpeech) response.getOutputSpeech()).getText());
+            List<String> pods = cluster.getRequests().stream().filter(r -> r.contains("/pods")).collect(Collectors.toList());
+            assertEquals(1, pods.size());
+            assertTrue(pods.get(0), pods.get(0).contains("limit=1"));
+        }
+    }
+}
@@ -16,9 +16,22 @@
 
 package io.fabric8.kubernetes.alexa;
 
-
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.extensions.Deployment;
+import io.fabric8.kubernetes.api.model.extensions.DeploymentBuilder;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.Assert.*;
 
 public class FeedbackUtilsTest {
@@ -46,5 +59,70 @@ public class FeedbackUtilsTest {
         assertEquals("pull failed for docker.io/org/image", FeedbackUtils.normalize("pull failed for docker.io/org/image@sha256:abcedfghijklmno"));
     }
 
+    @Test
+    public void failedEventsShouldBeFetchedOncePerNamespace() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getRequestUrl().encodedPath();
+                if (path.equals("/api/v1/namespaces/test/pods")) {
+                    return new MockResponse().setBody("{\"kind\":\"PodList\",\"items\":["
+                            + "{\"metadata\":{\"name\":\"web-1\",\"namespace\":\"test\",\"uid\":\"uid-1\"}},"
+                            + "{\"metadata\":{\"name\":\"web-2\",\"namespace\":\"test\",\"uid\":\"uid-2\"}},"
+                            + "{\"metadata\":{\"name\":\"web-3\",\"namespace\":\"test\",\"uid\":\"uid-3\"}}]}");
+                } else if (path.equals("/api/v1/namespaces/test/events")) {
+                    return new MockResponse().setBody("{\"kind\":\"EventList\",\"items\":["
+                            + "{\"metadata\":{\"name\":\"e1\"},\"reason\":\"Failed\",\"message\":\"pull failed\",\"involvedObject\":{\"uid\":\"uid-2\"}},"
+                            + "{\"metadata\":{\"name\":\"e2\"},\"reason\":\"Failed\",\"message\":\"other\",\"involvedObject\":{\"uid\":\"uid-9\"}}]}");
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start();
+        KubernetesClient client = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl(server.url("/").toString()).build());
+        try {
+            Deployment deployment = new DeploymentBuilder()
+                    .withNewMetadata().withName("web").withNamespace("test").endMetadata()
+                    .withNewSpec().withNewSelector().addToMatchLabels("app", "web").endSelector().endSpec()
+                    .build();
+
+            Map<String, List<Event>> eventsByUid = FeedbackUtils.getFailedEventsByUid(client, "test");
+            List<Event> events = FeedbackUtils.getFailedEvents(client, deployment, eventsByUid);
+
+            assertEquals(1, events.size());
+            assertEquals("pull failed", events.get(0).getMessage());
+            assertEquals("reason=Failed", server.takeRequest().getRequestUrl().queryParameter("fieldSelector"));
+            assertEquals("app=web", server.takeRequest().getRequestUrl().queryParameter("labelSelector"));
+            assertEquals(2, server.getRequestCount());
+        } finally {
+            client.close();
+            server.shutdown();
+        }
+    }
 
+    @Test
+    public void podsShouldBeFetchedOncePerNamespaceAndMatchedInMemory() throws Exception {
+        try (MockCluster cluster = new MockCluster(20, "test")) {
+            KubernetesClient client = cluster.getClient();
+            Map<String, List<Event>> eventsByUid = FeedbackUtils.getFailedEventsByUid(client, "test");
+            List<Pod> pods = FeedbackUtils.getPodsWithFailedEvents(client, "test", eventsByUid);
+            PodIndex index = new PodIndex(pods);
+
+            //Every tenth pod of the cluster is failing, and only the metadata of the pods is fetched.
+            assertEquals(2, pods.size());
+            assertNull(pods.get(0).getStatus());
+            assertEquals(1, FeedbackUtils.getFailedEvents(deployment("app-9"), index, eventsByUid).size());
+            assertEquals(1, FeedbackUtils.getFailedEvents(deployment("app-19"), index, eventsByUid).size());
+            assertTrue(FeedbackUtils.getFailedEvents(deployment("app-1"), index, eventsByUid).isEmpty());
+            assertEquals(2, cluster.getRequests().size());
+        }
+    }
+
+    private static Deployment deployment(String app) {
+        return new DeploymentBuilder()
+                .withNewMetadata().withName(app).withNamespace("test").endMetadata()
+                .withNewSpec().withNewSelector().addToMatchLabels("app", app).endSelector().endSpec()
+                .build();
+    }
 }
@@ -16,9 +16,14 @@
 
 package io.fabric8.kubernetes.alexa;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.fabric8.kubernetes.alexa.request.RequestHandlerFactory;
+import io.fabric8.kubernetes.alexa.request.impl.GetDeploymentConfigsFactory;
 import org.junit.Test;
 
+import java.io.InputStream;
+
 import static org.junit.Assert.*;
 
 public class GetRequestHandlerFactoryTest {
@@ -29,4 +34,31 @@ public class GetRequestHandlerFactoryTest {
         RequestHandlerFactory factory = GetRequestHandlerFactory.FUNCTION.apply("CreateNamespace");
         assertNotNull(factory);
     }
+
+    @Test
+    public void shouldIndexFactoriesByType() {
+        assertTrue(GetRequestHandlerFactory.FUNCTION.getTypes().contains("Launch"));
+        for (String type : GetRequestHandlerFactory.FUNCTION.getTypes()) {
+            assertEquals(type, GetRequestHandlerFactory.FUNCTION.apply(type).getType());
+        }
+        assertTrue(GetRequestHandlerFactory.FUNCTION.apply("GetDeploymentConfigs") instanceof GetDeploymentConfigsFactory);
+    }
+
+    @Test
+    public void shouldHandleAllCustomIntents() throws Exception {
+        try (InputStream is = getClass().getResourceAsStream("/intents.json")) {
+            for (JsonNode intent : new ObjectMapper().readTree(is).path("intents")) {
+                String name = intent.path("name").asText();
+                if (!name.startsWith("AMAZON.")) {
+                    assertNotNull("No handler for intent: " + name, GetRequestHandlerFactory.FUNCTION.apply(name));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotFindUnknownTypes() {
+        assertNull(GetRequestHandlerFactory.FUNCTION.apply("AMAZON.HelpIntent"));
+        assertNull(GetRequestHandlerFactory.FUNCTION.apply(null));
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fabric8.kubernetes.alexa;
+
+import com.amazon.speech.speechlet.LaunchRequest;
+import com.amazon.speech.speechlet.Session;
+import com.amazon.speech.ui.PlainTextOutputSpeech;
+import io.fabric8.kubernetes.alexa.progressive.ProgressiveResponseSender;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class LaunchTest {
+
+    private MockCluster cluster;
+
+    @Before
+    public void setUp() throws IOException {
+        //Deployments 9 and 19 are failing.
+        cluster = new MockCluster(20, "default");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        cluster.close();
+    }
+
+    @Test
+    public void shouldReportWhyDeploymentsFail() throws Exception {
+        String text = launch();
+        assertTrue(text, text.contains("Your namespace has 20 deployments. 18 in desired state and 2 pending. "));
+        assertTrue(text, text.contains("deployment-9  , due to:Failed to pull image \"app-9\": not found"));
+        assertTrue(text, text.contains("deployment-19  , due to:Failed to pull image \"app-19\": not found"));
+        assertFalse(text, text.contains("could not be checked"));
+    }
+
+    @Test
+    public void shouldNameDeploymentsWhoseEventsCantBeLookedUp() throws Exception {
+        cluster.fail("/api/v1/namespaces/default/events");
+
+        String text = launch();
+        assertTrue(text, text.contains("Failed deployments are: deployment-9 deployment-19 The reasons for 2 could not be checked. "));
+    }
+
+    private String launch() throws Exception {
+        RequestDispatcher<KubernetesClient> dispatcher = new RequestDispatcher<>(cluster.getClient(), ProgressiveResponseSender.NOOP);
+        return ((PlainTextOutputSpeech) dispatcher.onLaunch(LaunchRequest.builder().withRequestId("request-1").build(),
+                Session.builder().withSessionId("session-1").build()).getOutputSpeech()).getText();
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.api.model.EventBuilder;
+import io.fabric8.kubernetes.api.model.EventListBuilder;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.api.model.NamespaceListBuilder;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.ServiceListBuilder;
+import io.fabric8.kubernetes.api.model.extensions.DeploymentBuilder;
+import io.fabric8.kubernetes.api.model.extensions.DeploymentListBuilder;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A mock API server serving a synthetic cluster, so that tests and benchmarks go through the client and HTTP like the
+ * real thing does. Each namespace has the same number of pods, services and deployments, and every tenth of them is
+ * failing: the pod has failed (with a failed event) and its deployment is pending.
+ * Selectors are ignored, but lists can be chunked using limit and continue, and fetched as metadata only. The latency
+ * of a real cluster can optionally be simulated.
+ * The requests served are recorded, so that tests can check how many calls a request takes.
+ */
+final class MockCluster implements Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final MockWebServer server = new MockWebServer();
+    private final Map<String, String> bodies = new HashMap<>();
+    private final Map<String, JsonNode> lists = new HashMap<>();
+    private final Set<String> failing = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong responseBytes = new AtomicLong();
+    private final KubernetesClient client;
+
+    /**
+     * @param itemsPerNamespace The number of pods, services and deployments in each namespace.
+     * @param namespaces        The namespaces; the first one is the default namespace of the client.
+     */
+    MockCluster(int itemsPerNamespace, String... namespaces) throws IOException {
+        this(itemsPerNamespace, 0, namespaces);
+    }
+
+    /**
+     * @param itemsPerNamespace The number of pods, services and deployments in each namespace.
+     * @param latencyMillis     The time it takes for the server to respond.
+     * @param namespaces        The namespaces; the first one is the default namespace of the client.
+     */
+    MockCluster(int itemsPerNamespace, long latencyMillis, String... namespaces) throws IOException {
+        NamespaceListBuilder namespaceList = new NamespaceListBuilder();
+        for (String namespace : namespaces) {
+            namespaceList.addToItems(new NamespaceBuilder().withNewMetadata().withName(namespace).endMetadata().build());
+            PodListBuilder pods = new PodListBuilder();
+            ServiceListBuilder services = new ServiceListBuilder();
+            DeploymentListBuilder deployments = new DeploymentListBuilder();
+            EventListBuilder events = new EventListBuilder();
+            for (int i = 0; i < itemsPerNamespace; i++) {
+                boolean failing = i % 10 == 9;
+                String app = "app-" + i;
+                String uid = namespace + "-web-" + i;
+                pods.addToItems(new PodBuilder()
+                        .withNewMetadata().withName("web-" + i).withNamespace(namespace).withUid(uid).addToLabels("app", app).endMetadata()
+                        .withNewStatus().withPhase(failing ? "Failed" : "Running").endStatus()
+                        .build());
+                services.addToItems(new ServiceBuilder()
+                        .withNewMetadata().withName("service-" + i).withNamespace(namespace).endMetadata()
+                        .withNewSpec().addToSelector("app", app).endSpec()
+                        .build());
+                deployments.addToItems(new DeploymentBuilder()
+                        .withNewMetadata().withName("deployment-" + i).withNamespace(namespace).endMetadata()
+                        .withNewSpec().withReplicas(1).withNewSelector().addToMatchLabels("app", app).endSelector().endSpec()
+                        .withNewStatus().withReplicas(1).withAvailableReplicas(failing ? 0 : 1).endStatus()
+                        .build());
+                if (failing) {
+                    events.addToItems(new EventBuilder()
+                            .withNewMetadata().withName("web-" + i + ".failed").withNamespace(namespace).endMetadata()
+                            .withReason("Failed")
+                            .withMessage("Failed to pull image \"" + app + "\": not found")
+                            .withNewInvolvedObject().withKind("Pod").withName("web-" + i).withNamespace(namespace).withUid(uid).endInvolvedObject()
+                            .build());
+                }
+            }
+            putList("/api/v1/namespaces/" + namespace + "/pods", pods.build());
+            putList("/api/v1/namespaces/" + namespace + "/services", services.build());
+            putList("/apis/extensions/v1beta1/namespaces/" + namespace + "/deployments", deployments.build());
+            putList("/api/v1/namespaces/" + namespace + "/events", events.build());
+        }
+        putList("/api/v1/namespaces", namespaceList.build());
+        //The API root, which tells plain Kubernetes apart from Openshift.
+        bodies.put("/", "{\"paths\":[\"/api\",\"/api/v1\",\"/apis\",\"/apis/extensions\",\"/apis/extensions/v1beta1\"]}");
+
+        //MockWebServer logs every request it serves.
+        Logger.getLogger(MockWebServer.class.getName()).setLevel(Level.WARNING);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                int query = path.indexOf('?');
+                String resource = query >= 0 ? path.substring(0, query) : path;
+                String limit = request.getRequestUrl().queryParameter("limit");
+                String accept = request.getHeader("Accept");
+                boolean metadataOnly = accept != null && accept.contains("as=PartialObjectMetadataList");
+                String body = (limit != null || metadataOnly) && lists.containsKey(resource)
+                        ? chunk(lists.get(resource), limit != null ? Integer.parseInt(limit) : 0, request.getRequestUrl().queryParameter("continue"), metadataOnly)
+                        : bodies.get(resource);
+                requests.add(request.getMethod() + " " + path);
+                if (failing.contains(resource)) {
+                    return new MockResponse().setResponseCode(500);
+                }
+                responseBytes.addAndGet(body != null ? body.length() : 0);
+                MockResponse response = body != null ? new MockResponse().setBody(body) : new MockResponse().setResponseCode(404);
+                return response.setBodyDelay(latencyMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+        client = KubernetesClients.create(new ConfigBuilder()
+                .withMasterUrl(server.url("/").toString())
+                .withNamespace(namespaces[0])
+                .build());
+    }
+
+    /**
+     * @param count The number of namespaces.
+     * @return      The names of synthetic namespaces.
+     */
+    static String[] namespaces(int count) {
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = "namespace-" + i;
+        }
+        return result;
+    }
+
+    KubernetesClient getClient() {
+        return client;
+    }
+
+    /**
+     * @return The requests served since the last {@link #reset()}, as method and path.
+     */
+    List<String> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    /**
+     * @return The number of response body bytes served since the last {@link #reset()}.
+     */
+    long getResponseBytes() {
+        return responseBytes.get();
+    }
+
+    /**
+     * Makes the API server fail all requests for the specified path.
+     * @param path  The path, without query.
+     */
+    void fail(String path) {
+        failing.add(path);
+    }
+
+    /**
+     * Forgets the requests served so far.
+     */
+    void reset() {
+        requests.clear();
+        responseBytes.set(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+        server.shutdown();
+    }
+
+    private void putList(String path, Object list) throws JsonProcessingException {
+        bodies.put(path, toJson(list));
+        lists.put(path, MAPPER.valueToTree(list));
+    }
+
+    /**
+     * @return A chunk of the list, continuing with the offset of the next item like the API server does with its tokens.
+     *         When metadata only is asked for, the items are trimmed down to their metadata.
+     */
+    private static String chunk(JsonNode list, int limit, String continueToken, boolean metadataOnly) {
+        ObjectNode result = MAPPER.createObjectNode();
+        result.put("kind", metadataOnly ? "PartialObjectMetadataList" : list.path("kind").asText());
+        result.put("apiVersion", metadataOnly ? "meta.k8s.io/v1" : list.path("apiVersion").asText());
+        result.putObject("metadata");
+        ArrayNode items = result.putArray("items");
+        JsonNode all = list.path("items");
+        int from = continueToken != null ? Integer.parseInt(continueToken) : 0;
+        int to = limit > 0 ? Math.min(from + limit, all.size()) : all.size();
+        for (int i = from; i < to; i++) {
+            if (metadataOnly) {
+                ObjectNode item = items.addObject();
+                item.put("kind", "PartialObjectMetadata");
+                item.put("apiVersion", "meta.k8s.io/v1");
+                item.set("metadata", all.get(i).path("metadata"));
+            } else {
+                items.add(all.get(i));
+            }
+        }
+        if (to < all.size()) {
+            result.with("metadata").put("continue", String.valueOf(to));
+            result.with("metadata").put("remainingItemCount", all.size() - to);
+        }
+        return result.toString();
+    }
+
+    private static String toJson(Object value) throws JsonProcessingException {
+        return MAPPER.writeValueAsString(value);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import com.amazon.speech.slu.Intent;
+import com.amazon.speech.slu.Slot;
+import com.amazon.speech.speechlet.IntentRequest;
+import com.amazon.speech.speechlet.Session;
+import com.amazon.speech.speechlet.SpeechletResponse;
+import com.amazon.speech.ui.PlainTextOutputSpeech;
+import io.fabric8.kubernetes.alexa.paging.Continuation;
+import io.fabric8.kubernetes.alexa.progressive.ProgressiveResponseSender;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class PagedListingTest {
+
+    private MockCluster cluster;
+    private RequestDispatcher<KubernetesClient> dispatcher;
+    private Session session;
+
+    @Before
+    public void setUp() throws IOException {
+        cluster = new MockCluster(50, "namespace-0", "namespace-1");
+        dispatcher = new RequestDispatcher<>(cluster.getClient(), ProgressiveResponseSender.NOOP);
+        session = Session.builder().withSessionId("session-1").build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        cluster.close();
+    }
+
+    @Test
+    public void shouldSpeakOnePageAtATime() throws Exception {
+        String text = speak("GetPods", "namespace-1");
+        assertTrue(text, text.contains("web-0,") && text.contains("web-19."));
+        assertFalse(text, text.contains("web-20"));
+        assertTrue(text, text.endsWith("Say more to continue."));
+
+        cluster.reset();
+        text = speak(Continuation.MORE_INTENT, null);
+        assertTrue(text, text.contains("in namespace namespace-1") && text.contains("web-20,") && text.contains("web-39."));
+        assertFalse(text, text.contains("web-19,"));
+
+        //Only the next page is fetched, using the token of the previous one.
+        List<String> pages = cluster.getRequests().stream().filter(r -> r.contains("/pods")).collect(Collectors.toList());
+        assertEquals(1, pages.size());
+        assertTrue(pages.get(0), pages.get(0).contains("limit=20") && pages.get(0).contains("continue=20"));
+
+        text = speak(Continuation.MORE_INTENT, null);
+        assertTrue(text, text.contains("web-40,") && text.endsWith("web-49"));
+        assertFalse(Continuation.hasMore(session));
+
+        assertEquals("There is nothing more to list.", speak(Continuation.MORE_INTENT, null));
+    }
+
+    @Test
+    public void shouldNotContinueAfterAnotherIntent() throws Exception {
+        speak("GetServices", "namespace-1");
+        assertTrue(Continuation.hasMore(session));
+
+        speak("AMAZON.HelpIntent", null);
+        assertFalse(Continuation.hasMore(session));
+        assertEquals("There is nothing more to list.", speak(Continuation.MORE_INTENT, null));
+    }
+
+    @Test
+    public void shouldNotHintWhenEverythingFits() throws Exception {
+        String text = speak("GetNamespaces", null);
+        assertEquals("The available namespaces are: namespace-0,namespace-1", text);
+        assertFalse(Continuation.hasMore(session));
+    }
+
+    private String speak(String intent, String namespace) throws Exception {
+        Map<String, Slot> slots = new HashMap<>();
+        if (namespace != null) {
+            slots.put(Variable.Namespace.name(), Slot.builder().withName(Variable.Namespace.name()).withValue(namespace).build());
+        }
+        IntentRequest request = IntentRequest.builder()
+                .withRequestId("request-1")
+                .withIntent(Intent.builder().withName(intent).withSlots(slots).build())
+                .build();
+        SpeechletResponse response = dispatcher.onIntent(request, session);
+        return ((PlainTextOutputSpeech) response.getOutputSpeech()).getText();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.LabelSelector;
+import io.fabric8.kubernetes.api.model.LabelSelectorBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.extensions.DeploymentBuilder;
+import io.fabric8.openshift.api.model.DeploymentConfigBuilder;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class PodIndexTest {
+
+    private final PodIndex index = new PodIndex(Arrays.asList(
+            pod("web-1", "app", "web", "tier", "frontend"),
+            pod("web-2", "app", "web", "tier", "frontend", "canary", "true"),
+            pod("api-1", "app", "api", "tier", "backend"),
+            pod("db-1", "app", "db", "deploymentconfig", "db"),
+            pod("orphan")));
+
+    @Test
+    public void shouldSelectByLabels() {
+        assertEquals(Arrays.asList("web-1", "web-2"), names(index.select(Collections.singletonMap("app", "web"))));
+        assertTrue(index.select(Collections.singletonMap("app", "cache")).isEmpty());
+        assertTrue(index.select(Collections.singletonMap("zone", "a")).isEmpty());
+        assertEquals(5, index.select((Map<String, String>) null).cardinality());
+    }
+
+    @Test
+    public void shouldEvaluateExpressions() {
+        assertEquals(Arrays.asList("web-1", "web-2", "api-1"), names(index.select(selector("tier", "In", "frontend", "backend"))));
+        assertEquals(Arrays.asList("api-1", "db-1", "orphan"), names(index.select(selector("tier", "NotIn", "frontend"))));
+        assertEquals(Arrays.asList("web-2"), names(index.select(selector("canary", "Exists"))));
+        assertEquals(Arrays.asList("db-1", "orphan"), names(index.select(selector("tier", "DoesNotExist"))));
+        assertEquals(Arrays.asList("web-1"), names(index.select(new LabelSelectorBuilder()
+                .addToMatchLabels("app", "web")
+                .addNewMatchExpression().withKey("canary").withOperator("DoesNotExist").endMatchExpression()
+                .build())));
+    }
+
+    @Test
+    public void shouldFindThePodsOfResources() {
+        assertEquals(Arrays.asList("web-1", "web-2"), podNames(new ServiceBuilder().withNewMetadata().withName("web").endMetadata()
+                .withNewSpec().addToSelector("app", "web").endSpec().build()));
+        assertEquals(Arrays.asList("api-1"), podNames(new DeploymentBuilder().withNewMetadata().withName("api").endMetadata()
+                .withNewSpec().withSelector(selector("tier", "In", "backend")).endSpec().build()));
+        assertEquals(Arrays.asList("web-1"), podNames(new DeploymentBuilder().withNewMetadata().withName("web").endMetadata()
+                .withNewSpec().withNewSelector().addToMatchLabels("app", "web")
+                .addNewMatchExpression().withKey("tier").withOperator("In").withValues(Arrays.asList("frontend", "backend")).endMatchExpression()
+                .addNewMatchExpression().withKey("canary").withOperator("DoesNotExist").endMatchExpression()
+                .endSelector().endSpec().build()));
+        assertEquals(Arrays.asList("db-1"), podNames(new DeploymentConfigBuilder().withNewMetadata().withName("db").endMetadata().build()));
+        assertTrue(index.podsOf(new DeploymentConfigBuilder().withNewMetadata().withName("cache").endMetadata().build()).isEmpty());
+    }
+
+    private List<String> podNames(HasMetadata resource) {
+        return index.podsOf(resource).stream().map(p -> p.getMetadata().getName()).collect(Collectors.toList());
+    }
+
+    private List<String> names(BitSet positions) {
+        return positions.stream().mapToObj(i -> index.getPods().get(i).getMetadata().getName()).collect(Collectors.toList());
+    }
+
+    private static LabelSelector selector(String key, String operator, String... values) {
+        return new LabelSelectorBuilder()
+                .addNewMatchExpression().withKey(key).withOperator(operator).withValues(Arrays.asList(values)).endMatchExpression()
+                .build();
+    }
+
+    private static Pod pod(String name, String... labels) {
+        PodBuilder builder = new PodBuilder().withNewMetadata().withName(name).withNamespace("test").endMetadata();
+        for (int i = 0; i < labels.length; i += 2) {
+            builder.editMetadata().addToLabels(labels[i], labels[i + 1]).endMetadata();
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fabric8.kubernetes.alexa;
+
+import com.amazon.speech.slu.Intent;
+import com.amazon.speech.slu.Slot;
+import com.amazon.speech.speechlet.IntentRequest;
+import com.amazon.speech.speechlet.Session;
+import com.amazon.speech.ui.PlainTextOutputSpeech;
+import io.fabric8.kubernetes.alexa.progressive.ProgressiveResponseSender;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class PrimingTest {
+
+    @Test
+    public void primingShouldNotTalkToTheApiServer() throws Exception {
+        try (MockCluster cluster = new MockCluster(3, "default")) {
+            RequestDispatcher<KubernetesClient> dispatcher = new RequestDispatcher<>(cluster.getClient(), ProgressiveResponseSender.NOOP);
+            Priming.prime(dispatcher);
+            Priming.prime(dispatcher);
+            assertTrue(cluster.getRequests().isEmpty());
+
+            IntentRequest request = IntentRequest.builder()
+                    .withRequestId("request-1")
+                    .withIntent(Intent.builder()
+                            .withName("GetPods")
+                            .withSlots(Collections.singletonMap(Variable.Namespace.name(),
+                                    Slot.builder().withName(Variable.Namespace.name()).withValue("default").build()))
+                            .build())
+                    .build();
+            PlainTextOutputSpeech speech = (PlainTextOutputSpeech) dispatcher.onIntent(request, Session.builder().withSessionId("session-1").build()).getOutputSpeech();
+            assertTrue(speech.getText(), speech.getText().contains("web-0"));
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import com.amazon.speech.slu.Intent;
+import com.amazon.speech.speechlet.IntentRequest;
+import com.amazon.speech.speechlet.Session;
+import com.amazon.speech.speechlet.SpeechletResponse;
+import com.amazon.speech.speechlet.SpeechletResponseBuilder;
+import com.amazon.speech.ui.PlainTextOutputSpeech;
+import io.fabric8.kubernetes.alexa.deadline.Deadline;
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
+import io.fabric8.kubernetes.alexa.progressive.ProgressiveResponseSender;
+import io.fabric8.kubernetes.alexa.request.RequestHandler;
+import io.fabric8.kubernetes.alexa.request.RequestHandlerFactory;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+public class RequestDispatcherTest {
+
+    private final List<String> progressiveResponses = Collections.synchronizedList(new ArrayList<>());
+    private final ProgressiveResponseSender sender = (scope, speech) -> progressiveResponses.add(scope.getRequestId() + ":" + speech);
+
+    private MockWebServer server;
+    private KubernetesClient client;
+    private volatile long podsDelayMillis;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().startsWith("/api/v1/namespaces/test/pods")) {
+                    return new MockResponse()
+                            .setBody("{\"kind\":\"PodList\",\"items\":[{\"metadata\":{\"name\":\"web-1\",\"namespace\":\"test\"}}]}")
+                            .setBodyDelay(podsDelayMillis, TimeUnit.MILLISECONDS);
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start();
+        client = KubernetesClients.create(new ConfigBuilder().withMasterUrl(server.url("/").toString()).withNamespace("test").build());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void shouldAnswerWithinTheDeadline() throws Exception {
+        SpeechletResponse response = new RequestDispatcher<>(client, sender, 2000, 1000).onIntent(getPods(), session());
+
+        assertEquals("The available pods in namespace test are: web-1", textOf(response));
+        assertTrue(progressiveResponses.isEmpty());
+    }
+
+    @Test
+    public void shouldSendProgressiveResponseAndGiveUpAfterTheDeadline() throws Exception {
+        podsDelayMillis = 5000;
+        long start = System.nanoTime();
+        SpeechletResponse response = new RequestDispatcher<>(client, sender, 500, 100).onIntent(getPods(), session());
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        assertTrue(textOf(response).contains("taking too long"));
+        assertEquals(Collections.singletonList("request-1:Checking your cluster..."), progressiveResponses);
+    }
+
+    @Test
+    public void shouldSkipProgressiveResponseWhenTheDeadlineComesFirst() throws Exception {
+        podsDelayMillis = 5000;
+        SpeechletResponse response = new RequestDispatcher<>(client, sender, 300, 1000).onIntent(getPods(), session());
+
+        assertTrue(textOf(response).contains("taking too long"));
+        assertTrue(progressiveResponses.isEmpty());
+    }
+
+    @Test
+    public void shouldKeepTheSessionOfHandlersThatMissTheDeadline() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        RequestHandlerRegistry<String> handlers = new RequestHandlerRegistry<>("context", type -> new SessionWriterFactory(type, written));
+        RequestDispatcher<String> dispatcher = new RequestDispatcher<>(handlers, sender, 300, 100);
+
+        Session fast = session();
+        fast.setAttribute("stale", "value");
+        dispatcher.onIntent(intent("Fast"), fast);
+        assertEquals(Collections.singletonMap("token", "Fast"), fast.getAttributes());
+
+        Session slow = session();
+        SpeechletResponse response = dispatcher.onIntent(intent("Slow"), slow);
+        assertTrue(textOf(response).contains("taking too long"));
+        //The handler keeps going after the deadline, but writes to its own copy of the session.
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        assertTrue(slow.getAttributes().isEmpty());
+    }
+
+    @Test
+    public void shouldCreateScopeFromRawRequest() throws IOException {
+        byte[] request = IOUtils.toByteArray(getClass().getResourceAsStream("/get-pods.json"));
+        RequestScope scope = RequestScope.fromRequest(request, Deadline.after(1, TimeUnit.SECONDS));
+
+        assertEquals("EdwRequestId.82f690a5-6b0b-4d34-8562-191921d9cbed", scope.getRequestId());
+        assertNull(scope.getApiEndpoint());
+        assertNull(scope.getApiAccessToken());
+        assertFalse(scope.isDone());
+    }
+
+    private static IntentRequest getPods() {
+        return intent("GetPods");
+    }
+
+    private static IntentRequest intent(String name) {
+        return IntentRequest.builder()
+                .withRequestId("request-1")
+                .withIntent(Intent.builder().withName(name).withSlots(Collections.emptyMap()).build())
+                .build();
+    }
+
+    private static Session session() {
+        return Session.builder().withSessionId("session-1").build();
+    }
+
+    private static String textOf(SpeechletResponse response) {
+        return ((PlainTextOutputSpeech) response.getOutputSpeech()).getText();
+    }
+
+    /**
+     * Creates handlers that save a token in the session and, unless their type is "Fast", only do so after a second,
+     * ignoring interrupts like a handler busy with CPU work would.
+     */
+    private static class SessionWriterFactory implements RequestHandlerFactory<RequestHandler, String> {
+
+        private final String type;
+        private final CountDownLatch written;
+
+        private SessionWriterFactory(String type, CountDownLatch written) {
+            this.type = type;
+            this.written = written;
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public RequestHandler create(String context) {
+            return new RequestHandler<IntentRequest>() {
+                @Override
+                public String getType() {
+                    return type;
+                }
+
+                @Override
+                public SpeechletResponse onRequest(IntentRequest request, Session session) {
+                    if (!"Fast".equals(type)) {
+                        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+                        while (System.nanoTime() < until) {
+                            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                        }
+                    }
+                    session.removeAttribute("stale");
+                    session.setAttribute("token", type);
+                    written.countDown();
+                    return new SpeechletResponseBuilder().withNewPlainTextOutputSpeech().withText(type).endPlainTextOutputSpeech().build();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa;
+
+import com.amazon.speech.speechlet.IntentRequest;
+import com.amazon.speech.speechlet.Session;
+import com.amazon.speech.speechlet.SpeechletResponse;
+import io.fabric8.kubernetes.alexa.request.BaseRequestHandler;
+import io.fabric8.kubernetes.alexa.request.RequestHandler;
+import io.fabric8.kubernetes.alexa.request.RequestHandlerFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class RequestHandlerRegistryTest {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicInteger creations = new AtomicInteger();
+
+    private final Function<String, RequestHandlerFactory> factories = type -> {
+        lookups.incrementAndGet();
+        return "Test".equals(type) ? new TestHandlerFactory() : null;
+    };
+
+    @Test
+    public void shouldShareHandlersBetweenThreads() throws Exception {
+        RequestHandlerRegistry<String> registry = new RequestHandlerRegistry<>("context", factories);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Optional<RequestHandler>>> tasks = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                tasks.add(() -> registry.get("Test"));
+            }
+            RequestHandler first = registry.get("Test").get();
+            for (Future<Optional<RequestHandler>> future : executor.invokeAll(tasks)) {
+                assertSame(first, future.get().get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, creations.get());
+    }
+
+    @Test
+    public void shouldNotRememberUnsupportedTypes() {
+        RequestHandlerRegistry<String> registry = new RequestHandlerRegistry<>("context", factories);
+
+        assertFalse(registry.get("AMAZON.HelpIntent").isPresent());
+        assertFalse(registry.get("AMAZON.HelpIntent").isPresent());
+        assertFalse(registry.get(null).isPresent());
+        //Whatever a client sends must not grow the registry.
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void shouldShareTheRegistryOfAContext() {
+        String context = "shared";
+
+        assertSame(RequestHandlerRegistry.of(context), RequestHandlerRegistry.of(context));
+        assertNotSame(RequestHandlerRegistry.of(context), RequestHandlerRegistry.of("other"));
+    }
+
+    private class TestHandlerFactory implements RequestHandlerFactory<RequestHandler, String> {
+
+        @Override
+        public String getType() {
+            return "Test";
+        }
+
+        @Override
+        public RequestHandler create(String context) {
+            creations.incrementAndGet();
+            return new BaseRequestHandler<IntentRequest>() {
+                @Override
+                public String getType() {
+                    return "Test";
+                }
+
+                @Override
+                public SpeechletResponse onRequest(IntentRequest request, Session session) {
+                    return newResponse(context);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.cache;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ApiDiscoveryTest {
+
+    private static final String OPENSHIFT_PATHS = "{\"paths\":[\"/api\",\"/api/v1\",\"/apis\",\"/apis/extensions/v1beta1\",\"/oapi\",\"/oapi/v1\"]}";
+    private static final String KUBERNETES_PATHS = "{\"paths\":[\"/api\",\"/api/v1\",\"/apis\",\"/apis/extensions/v1beta1\"]}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final MockWebServer server = new MockWebServer();
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private final AtomicLong now = new AtomicLong();
+    private Path snapshotFile;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        snapshotFile = folder.getRoot().toPath().resolve("discovery.json");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void shouldDiscoverOnce() throws Exception {
+        server.enqueue(new MockResponse().setBody(OPENSHIFT_PATHS));
+        ApiDiscovery discovery = newDiscovery();
+
+        assertTrue(discovery.isOpenShift());
+        assertTrue(discovery.isOpenShift());
+        assertEquals(1, server.getRequestCount());
+        assertEquals("/", server.takeRequest().getPath());
+    }
+
+    @Test
+    public void shouldReuseTheSnapshotOfTheSameCluster() throws Exception {
+        server.enqueue(new MockResponse().setBody(KUBERNETES_PATHS));
+        assertFalse(newDiscovery().isOpenShift());
+
+        assertFalse(newDiscovery().isOpenShift());
+        assertEquals(1, server.getRequestCount());
+
+        //A snapshot of another cluster is ignored.
+        MockWebServer other = new MockWebServer();
+        other.enqueue(new MockResponse().setBody(OPENSHIFT_PATHS));
+        other.start();
+        try {
+            assertTrue(new ApiDiscovery(httpClient, other.url("/").toString(), snapshotFile, 1000, now::get).isOpenShift());
+            assertEquals(1, other.getRequestCount());
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldDiscoverKindsOnFirstUse() throws Exception {
+        server.enqueue(new MockResponse().setBody(KUBERNETES_PATHS));
+        server.enqueue(new MockResponse().setBody("{\"kind\":\"APIResourceList\",\"groupVersion\":\"extensions/v1beta1\",\"resources\":["
+                + "{\"name\":\"deployments\",\"kind\":\"Deployment\"},"
+                + "{\"name\":\"deployments/scale\",\"kind\":\"Scale\"},"
+                + "{\"name\":\"replicasets\",\"kind\":\"ReplicaSet\"}]}"));
+        ApiDiscovery discovery = newDiscovery();
+
+        assertTrue(discovery.supports("extensions", "v1beta1", "Deployment"));
+        assertTrue(discovery.supports("extensions", "v1beta1", "ReplicaSet"));
+        assertFalse(discovery.supports("extensions", "v1beta1", "Scale"));
+        assertFalse(discovery.supports("apps", "v1beta1", "Deployment"));
+        assertEquals(2, server.getRequestCount());
+
+        //The kinds are part of the snapshot.
+        assertTrue(newDiscovery().supports("extensions", "v1beta1", "Deployment"));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void shouldRefresh() throws Exception {
+        server.enqueue(new MockResponse().setBody(KUBERNETES_PATHS));
+        server.enqueue(new MockResponse().setBody(OPENSHIFT_PATHS));
+        ApiDiscovery discovery = newDiscovery();
+
+        assertFalse(discovery.isOpenShift());
+        discovery.refresh();
+        assertTrue(discovery.isOpenShift());
+    }
+
+    @Test
+    public void shouldRetryFailuresAfterABackoff() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody(OPENSHIFT_PATHS));
+        ApiDiscovery discovery = newDiscovery();
+
+        assertFalse(discovery.isOpenShift());
+        assertFalse(discovery.isOpenShift());
+        assertEquals(1, server.getRequestCount());
+
+        now.addAndGet(ApiDiscovery.FAILURE_BACKOFF_MILLIS);
+        assertTrue(discovery.isOpenShift());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void shouldServeTheLastSnapshotWhileDiscoveryFails() throws Exception {
+        server.enqueue(new MockResponse().setBody(OPENSHIFT_PATHS));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        ApiDiscovery discovery = newDiscovery();
+        assertTrue(discovery.isOpenShift());
+
+        now.addAndGet(10000);
+        discovery.refresh();
+        assertTrue(discovery.isOpenShift());
+        assertFalse(discovery.supports("extensions", "v1beta1", "Deployment"));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private ApiDiscovery newDiscovery() {
+        return new ApiDiscovery(httpClient, server.url("/").toString(), snapshotFile, 1000, now::get);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.cache;
+
+import io.fabric8.kubernetes.alexa.match.NameMatcherFactory;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.api.model.NamespaceList;
+import io.fabric8.kubernetes.api.model.NamespaceListBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.Watcher;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class NameIndexTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicInteger matches = new AtomicInteger();
+
+    private final Supplier<Stream<String>> loader = () -> {
+        loads.incrementAndGet();
+        return Stream.of("default", "syndesis-ci");
+    };
+
+    private final NameMatcherFactory matcherFactory = names -> name -> {
+        matches.incrementAndGet();
+        return names.stream().filter(n -> n.startsWith(name.substring(0, 3))).findFirst().orElse(null);
+    };
+
+    @Before
+    public void setUp() {
+        now.set(0);
+        loads.set(0);
+        matches.set(0);
+    }
+
+    @Test
+    public void shouldReuseLoadedNamesUntilTtlExpires() {
+        NameIndex index = new NameIndex(new ResourceCaches(null), matcherFactory, 1000, now::get);
+
+        assertEquals("syndesis-ci", index.resolve(Namespace.class, null, null, loader, "syndesis-ci"));
+        assertEquals("default", index.resolve(Namespace.class, null, null, loader, "default"));
+        assertEquals(1, loads.get());
+
+        now.set(1000);
+        assertEquals("default", index.resolve(Namespace.class, null, null, loader, "default"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldOnlyKeepTheMostRecentlyUsedEntries() {
+        NameIndex index = new NameIndex(new ResourceCaches(null), matcherFactory, 1000, now::get);
+
+        index.resolve(Pod.class, "used", null, loader, "default");
+        index.resolve(Pod.class, "unused", null, loader, "default");
+        for (int i = 0; i < NameIndex.MAX_ENTRIES; i++) {
+            index.resolve(Pod.class, "namespace-" + i, null, loader, "default");
+            index.resolve(Pod.class, "used", null, loader, "default");
+        }
+        assertEquals(NameIndex.MAX_ENTRIES + 2, loads.get());
+
+        index.resolve(Pod.class, "used", null, loader, "default");
+        assertEquals(NameIndex.MAX_ENTRIES + 2, loads.get());
+        index.resolve(Pod.class, "unused", null, loader, "default");
+        assertEquals(NameIndex.MAX_ENTRIES + 3, loads.get());
+    }
+
+    @Test
+    public void shouldRememberResolvedAndMissingNames() {
+        NameIndex index = new NameIndex(new ResourceCaches(null), matcherFactory, 1000, now::get);
+
+        assertEquals("syndesis-ci", index.resolve(Namespace.class, null, null, loader, "syndesis"));
+        assertEquals("syndesis-ci", index.resolve(Namespace.class, null, null, loader, "syndesis"));
+        assertNull(index.resolve(Namespace.class, null, null, loader, "kubernetes"));
+        assertNull(index.resolve(Namespace.class, null, null, loader, "kubernetes"));
+
+        assertEquals(2, matches.get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void shouldUseWarmCacheAndInvalidateOnNewNames() {
+        ResourceCache<Namespace, NamespaceList> cache = new ResourceCache<>(Namespace.class, false, null,
+                items -> new NamespaceListBuilder().withItems(items).build(), null, 0);
+        ResourceCaches caches = new ResourceCaches(null) {
+            @Override
+            public ResourceCache get(Class type) {
+                return Namespace.class.equals(type) ? cache : null;
+            }
+        };
+        NameIndex index = new NameIndex(caches, matcherFactory, 1000, now::get);
+
+        cache.replace(Arrays.asList(namespace("default", "1")), "1");
+        assertNull(index.resolve(Namespace.class, null, null, loader, "kubernetes"));
+
+        cache.eventReceived(Watcher.Action.ADDED, namespace("kubernetes", "2"));
+        assertEquals("kubernetes", index.resolve(Namespace.class, null, null, loader, "kubernetes"));
+        assertEquals(0, loads.get());
+
+        //Modifications don't change the names, so the matcher (and what it resolved) is kept.
+        assertEquals("kubernetes", index.resolve(Namespace.class, null, null, loader, "kube"));
+        cache.eventReceived(Watcher.Action.MODIFIED, namespace("kubernetes", "3"));
+        assertEquals("kubernetes", index.resolve(Namespace.class, null, null, loader, "kube"));
+        assertEquals(2, matches.get());
+
+        cache.eventReceived(Watcher.Action.DELETED, namespace("kubernetes", "4"));
+        assertNull(index.resolve(Namespace.class, null, null, loader, "kube"));
+    }
+
+    private static Namespace namespace(String name, String resourceVersion) {
+        return new NamespaceBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withResourceVersion(resourceVersion)
+                .endMetadata()
+                .build();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.cache;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.ReplicationControllerBuilder;
+import io.fabric8.kubernetes.api.model.ReplicationControllerListBuilder;
+import io.fabric8.kubernetes.api.model.extensions.Deployment;
+import io.fabric8.kubernetes.api.model.extensions.DeploymentBuilder;
+import io.fabric8.kubernetes.api.model.extensions.ReplicaSet;
+import io.fabric8.kubernetes.api.model.extensions.ReplicaSetBuilder;
+import io.fabric8.kubernetes.api.model.extensions.ReplicaSetListBuilder;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.DeploymentConfigBuilder;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class OwnerIndexTest {
+
+    private final ResourceCache<Pod, ?> pods = new ResourceCache<>(Pod.class, true, null,
+            items -> new PodListBuilder().withItems(items).build(), null, 0);
+    private final ResourceCache<ReplicaSet, ?> replicaSets = new ResourceCache<>(ReplicaSet.class, true, null,
+            items -> new ReplicaSetListBuilder().withItems(items).build(), null, 0);
+    private final ResourceCache<ReplicationController, ?> replicationControllers = new ResourceCache<>(ReplicationController.class, true, null,
+            items -> new ReplicationControllerListBuilder().withItems(items).build(), null, 0);
+
+    private final Map<Class<?>, ResourceCache<?, ?>> byType = new HashMap<>();
+    private final OwnerIndex index = new OwnerIndex(new ResourceCaches(null) {
+        @Override
+        public ResourceCache get(Class type) {
+            return byType.get(type);
+        }
+    });
+
+    private final Deployment web = new DeploymentBuilder().withNewMetadata().withName("web").withNamespace("test").withUid("web").endMetadata().build();
+    private final DeploymentConfig db = new DeploymentConfigBuilder().withNewMetadata().withName("db").withNamespace("test").withUid("db").endMetadata().build();
+
+    @Test
+    public void shouldNotAnswerUntilTheCachesAreWarm() {
+        byType.put(Pod.class, pods);
+        byType.put(ReplicaSet.class, replicaSets);
+        pods.replace(Collections.singletonList(pod("web-1", "web-rs-2")), "1");
+        index.refresh();
+
+        assertNull(index.podsOf(web));
+        assertNull(index.controllerOf(pod("web-1", "web-rs-2")));
+    }
+
+    @Test
+    public void shouldFollowOwnerReferences() {
+        warm();
+        index.refresh();
+
+        assertEquals(Arrays.asList("web-1", "web-2"), names(index.podsOf(web)));
+        assertEquals(Collections.singletonList("db-1"), names(index.podsOf(db)));
+        assertNull(index.podsOf(new DeploymentBuilder().withNewMetadata().withName("other").withUid("other").endMetadata().build()));
+
+        OwnerReference controller = index.controllerOf(pod("web-1", "web-rs-2"));
+        assertEquals("Deployment", controller.getKind());
+        assertEquals("web", controller.getName());
+        assertEquals("DeploymentConfig", index.controllerOf(pod("db-1", "db-1-rc")).getKind());
+        assertNull(index.controllerOf(pod("standalone", null)));
+    }
+
+    @Test
+    public void shouldOnlyAnswerFromThePublishedGraph() {
+        warm();
+        assertNull(index.podsOf(web));
+        index.refresh();
+        assertEquals(2, index.podsOf(web).size());
+
+        Pod added = pod("web-3", "web-rs-2");
+        added.getMetadata().setResourceVersion("5");
+        pods.eventReceived(Watcher.Action.ADDED, added);
+        assertEquals(2, index.podsOf(web).size());
+
+        index.refresh();
+        assertEquals(Arrays.asList("web-1", "web-2", "web-3"), names(index.podsOf(web)));
+    }
+
+    @Test
+    public void shouldUseThePreviousGraphWhileRebuilding() throws Exception {
+        CountDownLatch listing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean block = new AtomicBoolean();
+        ResourceCache<Pod, ?> slowPods = new ResourceCache<Pod, PodList>(Pod.class, true, null,
+                items -> new PodListBuilder().withItems(items).build(), null, 0) {
+            @Override
+            public List<Pod> list(String namespace) {
+                if (block.get()) {
+                    listing.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.list(namespace);
+            }
+        };
+        warm();
+        byType.put(Pod.class, slowPods);
+        slowPods.replace(Arrays.asList(pod("web-1", "web-rs-2"), pod("web-2", "web-rs-2")), "1");
+        index.refresh();
+        assertEquals(2, index.podsOf(web).size());
+
+        slowPods.replace(Arrays.asList(pod("web-1", "web-rs-2"), pod("web-2", "web-rs-2"), pod("web-3", "web-rs-2")), "2");
+        block.set(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuilt = executor.submit(index::refresh);
+            assertTrue(listing.await(10, TimeUnit.SECONDS));
+            assertEquals(2, index.podsOf(web).size());
+
+            release.countDown();
+            rebuilt.get(10, TimeUnit.SECONDS);
+            block.set(false);
+            assertEquals(3, index.podsOf(web).size());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void warm() {
+        byType.put(Pod.class, pods);
+        byType.put(ReplicaSet.class, replicaSets);
+        byType.put(ReplicationController.class, replicationControllers);
+        //The old replica set of the deployment still selects the pods by label, but doesn't own them.
+        replicaSets.replace(Arrays.asList(replicaSet("web-rs-1", web), replicaSet("web-rs-2", web)), "1");
+        replicationControllers.replace(Collections.singletonList(new ReplicationControllerBuilder()
+                .withNewMetadata().withName("db-1").withNamespace("test").withUid("db-1-rc").withOwnerReferences(controllerRef(db)).endMetadata()
+                .build()), "1");
+        pods.replace(Arrays.asList(pod("web-1", "web-rs-2"), pod("web-2", "web-rs-2"), pod("db-1", "db-1-rc"), pod("standalone", null)), "1");
+    }
+
+    private static List<String> names(List<Pod> pods) {
+        return pods.stream().map(p -> p.getMetadata().getName()).sorted().collect(Collectors.toList());
+    }
+
+    private static ReplicaSet replicaSet(String uid, HasMetadata owner) {
+        return new ReplicaSetBuilder()
+                .withNewMetadata().withName(uid).withNamespace("test").withUid(uid).withOwnerReferences(controllerRef(owner)).endMetadata()
+                .build();
+    }
+
+    private static Pod pod(String name, String ownerUid) {
+        PodBuilder builder = new PodBuilder().withNewMetadata().withName(name).withNamespace("test").withUid(name).endMetadata();
+        if (ownerUid != null) {
+            builder.editMetadata().addToOwnerReferences(new OwnerReferenceBuilder()
+                    .withKind("ReplicaSet").withName(ownerUid).withUid(ownerUid).withController(true).build()).endMetadata();
+        }
+        return builder.build();
+    }
+
+    private static OwnerReference controllerRef(HasMetadata owner) {
+        return new OwnerReferenceBuilder()
+                .withKind(owner.getKind()).withName(owner.getMetadata().getName()).withUid(owner.getMetadata().getUid()).withController(true)
+                .build();
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.cache;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ResourceCacheTest {
+
+    private static final AtomicLong NOW = new AtomicLong();
+
+    private KubernetesClient client;
+    private ResourceCache<Pod, PodList> cache;
+
+    @Before
+    public void setUp() {
+        NOW.set(0);
+        client = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl("http://localhost:1").withNamespace("default").build());
+        cache = new ResourceCache<>(Pod.class, true, null, items -> new PodListBuilder().withItems(items).build(), null, 0, NOW::get);
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+    }
+
+    @Test
+    public void shouldBeColdUntilListed() {
+        assertFalse(cache.isWarm());
+        assertFalse(cache.canServe(pods("default")));
+
+        cache.replace(Arrays.asList(pod("default", "a", "1")), "1");
+        assertTrue(cache.isWarm());
+        assertTrue(cache.canServe(pods("default")));
+        assertEquals("1", cache.getResourceVersion());
+    }
+
+    @Test
+    public void shouldIndexByNamespace() {
+        cache.replace(Arrays.asList(pod("default", "b", "1"), pod("default", "a", "2"), pod("other", "c", "3")), "3");
+
+        assertEquals(Arrays.asList("a", "b"), names(cache.list(pods("default")).getItems()));
+        assertEquals(Arrays.asList("c"), names(cache.list(pods("other")).getItems()));
+        assertEquals(3, cache.list((String) null).size());
+        assertNotNull(cache.get("other", "c"));
+        assertNull(cache.get("default", "c"));
+    }
+
+    @Test
+    public void shouldApplyWatchEvents() {
+        cache.replace(Arrays.asList(pod("default", "a", "1")), "1");
+
+        cache.eventReceived(Watcher.Action.ADDED, pod("default", "b", "2"));
+        cache.eventReceived(Watcher.Action.DELETED, pod("default", "a", "3"));
+
+        assertEquals(Arrays.asList("b"), names(cache.list("default")));
+        assertEquals("3", cache.getResourceVersion());
+    }
+
+    @Test
+    public void shouldNotServeSelectors() {
+        cache.replace(Arrays.asList(pod("default", "a", "1")), "1");
+        BaseOperation<Pod, PodList, ?, ?> withLabel = pods("default");
+        withLabel.withLabel("app");
+        BaseOperation<Pod, PodList, ?, ?> withField = pods("default");
+        withField.withField("status.phase", "Failed");
+
+        assertFalse(cache.canServe(withLabel));
+        assertFalse(cache.canServe(withField));
+    }
+
+    @Test
+    public void shouldRoundTripSnapshots() throws Exception {
+        Pod annotated = pod("other", "c", "3");
+        annotated.getMetadata().getAnnotations().put("kubectl.kubernetes.io/last-applied-configuration", "{}");
+        annotated.getMetadata().getAnnotations().put("note", "kept");
+        cache.replace(Arrays.asList(pod("default", "a", "1"), pod("default", "b", "2"), annotated), "3");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(cache.writeSnapshot(out, "https://cluster"));
+
+        ResourceCache<Pod, PodList> restored = newCache(null, null);
+        assertFalse(newCache(null, null).restoreSnapshot(new ByteArrayInputStream(out.toByteArray()), "https://other"));
+        assertTrue(restored.restoreSnapshot(new ByteArrayInputStream(out.toByteArray()), "https://cluster"));
+
+        //Restored caches are not warm until they are watching again.
+        assertFalse(restored.isWarm());
+        assertEquals("3", restored.getResourceVersion());
+        assertEquals(Arrays.asList("a", "b"), names(restored.list("default")));
+        Pod c = restored.get("other", "c");
+        assertEquals("kept", c.getMetadata().getAnnotations().get("note"));
+        assertFalse(c.getMetadata().getAnnotations().containsKey("kubectl.kubernetes.io/last-applied-configuration"));
+    }
+
+    @Test
+    public void shouldRejectSnapshotsOlderThanTheResyncPeriod() throws Exception {
+        cache.replace(Arrays.asList(pod("default", "a", "1")), "1");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(cache.writeSnapshot(out, "https://cluster"));
+
+        NOW.set(60001);
+        assertFalse(newCache(null, null).restoreSnapshot(new ByteArrayInputStream(out.toByteArray()), "https://cluster"));
+        NOW.set(60000);
+        assertTrue(newCache(null, null).restoreSnapshot(new ByteArrayInputStream(out.toByteArray()), "https://cluster"));
+    }
+
+    @Test
+    public void shouldNotWriteColdCaches() throws Exception {
+        assertFalse(cache.writeSnapshot(new ByteArrayOutputStream(), "https://cluster"));
+    }
+
+    @Test
+    public void shouldResumeWatchingFromTheSnapshot() throws Exception {
+        cache.replace(Arrays.asList(pod("default", "a", "41")), "42");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.writeSnapshot(out, "https://cluster");
+
+        MockWebServer server = new MockWebServer();
+        AtomicReference<WebSocket> socket = new AtomicReference<>();
+        server.enqueue(new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+            @Override
+            public void onOpen(WebSocket webSocket, Response response) {
+                socket.set(webSocket);
+            }
+        }));
+        server.start();
+        KubernetesClient mockClient = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl(server.url("/").toString()).build());
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        ResourceCache<Pod, PodList> restored = newCache(() -> (BaseOperation<Pod, PodList, ?, ?>) mockClient.pods().inAnyNamespace(), scheduler);
+        try {
+            assertTrue(restored.restoreSnapshot(new ByteArrayInputStream(out.toByteArray()), "https://cluster"));
+            restored.start();
+
+            RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+            assertEquals("true", request.getRequestUrl().queryParameter("watch"));
+            assertEquals("42", request.getRequestUrl().queryParameter("resourceVersion"));
+            for (int i = 0; i < 50 && socket.get() == null; i++) {
+                Thread.sleep(100);
+            }
+            //The snapshot may be behind until the watch has replayed what happened since.
+            Thread.sleep(200);
+            assertFalse(restored.isWarm());
+
+            socket.get().send("{\"type\":\"ADDED\",\"object\":{\"apiVersion\":\"v1\",\"kind\":\"Pod\","
+                    + "\"metadata\":{\"namespace\":\"default\",\"name\":\"b\",\"resourceVersion\":\"43\"}}}");
+            for (int i = 0; i < 50 && !restored.isWarm(); i++) {
+                Thread.sleep(100);
+            }
+            assertTrue(restored.isWarm());
+            assertEquals(Arrays.asList("a", "b"), names(restored.list("default")));
+            assertEquals("43", restored.getResourceVersion());
+            assertEquals(1, server.getRequestCount());
+        } finally {
+            restored.close();
+            if (socket.get() != null) {
+                socket.get().close(1000, null);
+            }
+            scheduler.shutdownNow();
+            mockClient.close();
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldResumeWatchingFromTheResyncList() throws Exception {
+        MockWebServer server = new MockWebServer();
+        List<WebSocket> sockets = new CopyOnWriteArrayList<>();
+        List<String> requests = new CopyOnWriteArrayList<>();
+        AtomicInteger lists = new AtomicInteger();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if ("true".equals(request.getRequestUrl().queryParameter("watch"))) {
+                    requests.add("watch " + request.getRequestUrl().queryParameter("resourceVersion"));
+                    return new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+                        @Override
+                        public void onOpen(WebSocket webSocket, Response response) {
+                            sockets.add(webSocket);
+                        }
+
+                        @Override
+                        public void onClosing(WebSocket webSocket, int code, String reason) {
+                            //Like the API server, complete the close handshake when the cache stops watching.
+                            webSocket.close(code, reason);
+                        }
+                    });
+                }
+                String version = String.valueOf(10 * lists.incrementAndGet());
+                requests.add("list " + version);
+                return new MockResponse().setBody("{\"apiVersion\":\"v1\",\"kind\":\"PodList\",\"metadata\":{\"resourceVersion\":\"" + version + "\"},\"items\":[]}");
+            }
+        });
+        server.start();
+        KubernetesClient mockClient = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl(server.url("/").toString()).build());
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        ResourceCache<Pod, PodList> resynced = new ResourceCache<>(Pod.class, true, () -> (BaseOperation<Pod, PodList, ?, ?>) mockClient.pods().inAnyNamespace(),
+                items -> new PodListBuilder().withItems(items).build(), scheduler, 500);
+        try {
+            resynced.start();
+            for (int i = 0; i < 50 && requests.size() < 4; i++) {
+                Thread.sleep(100);
+            }
+            resynced.close();
+            //The watch is stopped before listing and resumed from the list, never from an older resourceVersion.
+            assertEquals(Arrays.asList("list 10", "watch 10", "list 20", "watch 20"), requests.subList(0, 4));
+        } finally {
+            resynced.close();
+            sockets.forEach(s -> s.close(1000, null));
+            scheduler.shutdownNow();
+            mockClient.close();
+            server.shutdown();
+        }
+    }
+
+    private static ResourceCache<Pod, PodList> newCache(Supplier<BaseOperation<Pod, PodList, ?, ?>> operation,
+                                                        ScheduledExecutorService scheduler) {
+        return new ResourceCache<>(Pod.class, true, operation, items -> new PodListBuilder().withItems(items).build(), scheduler, 60000, NOW::get);
+    }
+
+    private BaseOperation<Pod, PodList, ?, ?> pods(String namespace) {
+        return (BaseOperation<Pod, PodList, ?, ?>) client.pods().inNamespace(namespace);
+    }
+
+    private static Pod pod(String namespace, String name, String resourceVersion) {
+        return new PodBuilder()
+                .withNewMetadata()
+                    .withNamespace(namespace)
+                    .withName(name)
+                    .withResourceVersion(resourceVersion)
+                    .withAnnotations(new HashMap<>())
+                .endMetadata()
+                .build();
+    }
+
+    private static List<String> names(List<Pod> pods) {
+        return pods.stream().map(p -> p.getMetadata().getName()).collect(Collectors.toList());
+    }
+}
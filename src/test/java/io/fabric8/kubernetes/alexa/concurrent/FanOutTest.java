@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.concurrent;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class FanOutTest {
+
+    private final FanOut fanOut = new FanOut(2);
+
+    @Test
+    public void shouldKeepTheOrderOfTheItems() {
+        FanOut.Result<String> result = fanOut.map(Arrays.asList(3, 1, 2), i -> {
+            sleep(i * 10);
+            return "item-" + i;
+        }, 5, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("item-3", "item-1", "item-2"), result.getCompleted());
+        assertEquals(0, result.getPending());
+    }
+
+    @Test
+    public void shouldReturnWhatCompletedWithinTheBudget() {
+        CountDownLatch never = new CountDownLatch(1);
+        FanOut.Result<String> result = fanOut.map(Arrays.asList("fast", "slow", "broken"), s -> {
+            if (s.equals("slow")) {
+                await(never);
+            } else if (s.equals("broken")) {
+                throw new IllegalStateException(s);
+            }
+            return s;
+        }, 200, TimeUnit.MILLISECONDS);
+
+        assertEquals(Arrays.asList("fast"), result.getCompleted());
+        assertEquals(1, result.getPending());
+        assertEquals(1, result.getFailed());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.fabric8.kubernetes.alexa.deadline;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DeadlineInterceptorTest {
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        OkHttpClient base = new OkHttpClient();
+        client = base.newBuilder().addInterceptor(new DeadlineInterceptor(base.dispatcher())).build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void shouldCancelCallsThatOutliveTheDeadline() throws Exception {
+        server.enqueue(new MockResponse().setBody("slow").setBodyDelay(3, TimeUnit.SECONDS));
+        RequestScope scope = new RequestScope(Deadline.after(200, TimeUnit.MILLISECONDS), "request-1", null, null);
+
+        long start = System.nanoTime();
+        try {
+            scope.call(this::get);
+            fail("Expected the call to be cancelled");
+        } catch (IOException e) {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        }
+    }
+
+    @Test
+    public void shouldCancelCallsOfCancelledRequests() throws Exception {
+        server.enqueue(new MockResponse().setBody("slow").setBodyDelay(3, TimeUnit.SECONDS));
+        RequestScope scope = new RequestScope(Deadline.after(30, TimeUnit.SECONDS), "request-1", null, null);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            executor.schedule(scope::cancel, 200, TimeUnit.MILLISECONDS);
+            long start = System.nanoTime();
+            try {
+                scope.call(this::get);
+                fail("Expected the call to be cancelled");
+            } catch (IOException e) {
+                assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldRefuseCallsPastTheDeadline() throws Exception {
+        RequestScope scope = new RequestScope(Deadline.after(0, TimeUnit.MILLISECONDS), "request-1", null, null);
+        try {
+            scope.call(this::get);
+            fail("Expected the call to be refused");
+        } catch (IOException e) {
+            assertEquals(0, server.getRequestCount());
+        }
+    }
+
+    @Test
+    public void shouldLeaveCallsThatCompleteInTimeAlone() throws Exception {
+        server.enqueue(new MockResponse().setBody("fast"));
+        RequestScope scope = new RequestScope(Deadline.after(30, TimeUnit.SECONDS), "request-1", null, null);
+        assertEquals("fast", scope.call(this::get));
+        scope.cancel();
+    }
+
+    private String get() throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(server.url("/")).build()).execute()) {
+            return response.body().string();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.match;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NameMatcherTest {
+
+    @Test
+    public void shouldSelectTheClosestAlternative() {
+        for (NameMatcherFactory factory : Arrays.asList(LinearNameMatcher.FACTORY, BkTreeNameMatcher.FACTORY)) {
+            NameMatcher matcher = factory.create(Arrays.asList("xxcdefghijk", "xbcdefghijk", "iocanel"));
+            assertEquals("xbcdefghijk", matcher.match("abcdefghijk"));
+            assertEquals("iocanel", matcher.match("iokanel"));
+            assertNull(matcher.match("iokanet"));
+        }
+    }
+
+    @Test
+    public void shouldPreferTheFirstOfEquallyCloseNames() {
+        for (NameMatcherFactory factory : Arrays.asList(LinearNameMatcher.FACTORY, BkTreeNameMatcher.FACTORY)) {
+            NameMatcher matcher = factory.create(Arrays.asList("project-b", "project-a", "project-c"));
+            assertEquals("project-b", matcher.match("project-x"));
+        }
+    }
+
+    @Test
+    public void shouldHandleNoNames() {
+        assertNull(new BkTreeNameMatcher(new ArrayList<>()).match("default"));
+        assertNull(new LinearNameMatcher(new ArrayList<>()).match("default"));
+    }
+
+    @Test
+    public void bkTreeShouldAgreeWithLinearScan() {
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            names.add(randomName(random));
+        }
+
+        NameMatcher linear = new LinearNameMatcher(names);
+        NameMatcher bkTree = new BkTreeNameMatcher(names);
+        for (int i = 0; i < 500; i++) {
+            String name = i % 2 == 0 ? mutate(random, names.get(random.nextInt(names.size()))) : randomName(random);
+            assertEquals(name, linear.match(name), bkTree.match(name));
+        }
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int length = 3 + random.nextInt(12);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(6)));
+        }
+        return sb.toString();
+    }
+
+    private static String mutate(Random random, String name) {
+        StringBuilder sb = new StringBuilder(name);
+        int edits = random.nextInt(3);
+        for (int i = 0; i < edits && sb.length() > 1; i++) {
+            int position = random.nextInt(sb.length());
+            switch (random.nextInt(3)) {
+                case 0:
+                    sb.deleteCharAt(position);
+                    break;
+                case 1:
+                    sb.insert(position, (char) ('a' + random.nextInt(6)));
+                    break;
+                default:
+                    sb.setCharAt(position, (char) ('a' + random.nextInt(6)));
+            }
+        }
+        return sb.toString();
+    }
+}
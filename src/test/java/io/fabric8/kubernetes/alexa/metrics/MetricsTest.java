@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.alexa.deadline.Deadline;
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
+import io.fabric8.kubernetes.api.model.Pod;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+    private static final String BODY = "{\"kind\":\"PodList\",\"items\":[]}";
+
+    private final Metrics metrics = new Metrics();
+
+    @Test
+    public void shouldCountValuesPerBucket() {
+        Histogram histogram = new Histogram(new double[]{1, 10});
+        histogram.record(0.5);
+        histogram.record(1);
+        histogram.record(5);
+        histogram.record(50);
+
+        assertArrayEquals(new long[]{2, 3, 4}, histogram.getCumulativeCounts());
+        assertEquals(4, histogram.getCount());
+        assertEquals(56.5, histogram.getSum(), 0.001);
+    }
+
+    @Test
+    public void shouldAttributeCallsAndLookupsToTheIntentOfTheScope() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody(BODY));
+        server.start();
+        try {
+            OkHttpClient client = new OkHttpClient.Builder().addInterceptor(new MetricsInterceptor(metrics)).build();
+            RequestScope scope = new RequestScope(Deadline.after(1, TimeUnit.SECONDS), "request-1", null, null);
+            scope.getMetrics().setIntent("GetPods");
+
+            scope.call(() -> {
+                try (Response response = client.newCall(new Request.Builder().url(server.url("/api/v1/pods")).build()).execute()) {
+                    return response.body().string();
+                }
+            });
+            scope.call(() -> {
+                metrics.recordCacheLookup(Pod.class, true);
+                return null;
+            });
+            metrics.recordCacheLookup(Pod.class, false);
+            metrics.recordRequest(scope.getMetrics());
+        } finally {
+            server.shutdown();
+        }
+
+        Metrics.IntentMetrics intent = metrics.getIntents().get("GetPods");
+        assertEquals(1, intent.getDuration().getCount());
+        assertEquals(1, intent.getApiCallDuration().getCount());
+        assertEquals(BODY.length(), (long) intent.getApiResponseSize().getSum());
+        assertEquals(0, intent.getErrors());
+        assertEquals(1, metrics.getCaches().get("Pod").getHits());
+        assertEquals(1, metrics.getCaches().get("Pod").getMisses());
+    }
+
+    @Test
+    public void shouldWritePrometheusFormat() throws Exception {
+        RequestMetrics request = new RequestMetrics();
+        request.setIntent("GetPods");
+        request.markError();
+        metrics.recordRequest(request);
+        metrics.recordCacheLookup(Pod.class, true);
+
+        StringBuilder out = new StringBuilder();
+        PrometheusFormat.write(metrics, out);
+        String text = out.toString();
+
+        assertTrue(text.contains("# TYPE alexa_request_duration_seconds histogram\n"));
+        assertTrue(text.contains("alexa_request_duration_seconds_bucket{intent=\"GetPods\",le=\"+Inf\"} 1\n"));
+        assertTrue(text.contains("alexa_request_duration_seconds_count{intent=\"GetPods\"} 1\n"));
+        assertTrue(text.contains("alexa_request_errors_total{intent=\"GetPods\"} 1\n"));
+        assertTrue(text.contains("alexa_cache_lookups_total{type=\"Pod\",result=\"hit\"} 1\n"));
+    }
+
+    @Test
+    public void shouldFormatEmbeddedMetrics() throws Exception {
+        RequestMetrics request = new RequestMetrics();
+        request.setIntent("GetPods");
+        request.recordApiCall(TimeUnit.MILLISECONDS.toNanos(20), 1024);
+        request.recordCacheLookup(false);
+        request.complete();
+
+        JsonNode line = new ObjectMapper().readTree(EmbeddedMetricFormat.format("request-1", request, 1000L));
+
+        JsonNode directive = line.path("_aws").path("CloudWatchMetrics").get(0);
+        assertEquals(1000L, line.path("_aws").path("Timestamp").asLong());
+        assertEquals("KubernetesAlexa", directive.path("Namespace").asText());
+        assertEquals("Intent", directive.path("Dimensions").get(0).get(0).asText());
+        //Every declared metric must have a value.
+        for (JsonNode metric : directive.path("Metrics")) {
+            assertTrue(metric.path("Name").asText(), line.has(metric.path("Name").asText()));
+        }
+        assertEquals("GetPods", line.path("Intent").asText());
+        assertEquals("request-1", line.path("RequestId").asText());
+        assertEquals(1, line.path("KubernetesCalls").asLong());
+        assertEquals(20.0, line.path("KubernetesCallTime").asDouble(), 0.001);
+        assertEquals(1024, line.path("KubernetesResponseSize").asLong());
+        assertEquals(1, line.path("CacheMisses").asLong());
+        assertEquals(0, line.path("Errors").asLong());
+    }
+}
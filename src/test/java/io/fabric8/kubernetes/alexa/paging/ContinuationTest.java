@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.paging;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ContinuationTest {
+
+    @Test
+    public void shouldOnlyAcceptPositivePageSizes() {
+        assertEquals(5, Continuation.getPageSize("5"));
+        assertEquals(Continuation.DEFAULT_PAGE_SIZE, Continuation.getPageSize(null));
+        assertEquals(Continuation.DEFAULT_PAGE_SIZE, Continuation.getPageSize("0"));
+        assertEquals(Continuation.DEFAULT_PAGE_SIZE, Continuation.getPageSize("-3"));
+        assertEquals(Continuation.DEFAULT_PAGE_SIZE, Continuation.getPageSize("many"));
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.paging;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.base.BaseOperation;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.DeploymentConfigList;
+import io.fabric8.openshift.client.DefaultOpenShiftClient;
+import io.fabric8.openshift.client.OpenShiftClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ListPagerTest {
+
+    private MockWebServer server;
+    private KubernetesClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl(server.url("/").toString()).withNamespace("default").build());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void shouldFollowContinueTokens() throws Exception {
+        server.enqueue(new MockResponse().setBody(page("next", "a", "b")));
+        server.enqueue(new MockResponse().setBody(page(null, "c")));
+
+        BaseOperation<Pod, PodList, ?, ?> operation = (BaseOperation<Pod, PodList, ?, ?>) client.pods().inNamespace("test");
+        operation.withField("status.phase", "Failed");
+        List<String> names = new ArrayList<>();
+        new ListPager<>(((DefaultKubernetesClient) client).getHttpClient(), operation, 2).forEach(p -> names.add(p.getMetadata().getName()));
+
+        assertEquals(Arrays.asList("a", "b", "c"), names);
+        RecordedRequest first = server.takeRequest();
+        assertEquals("/api/v1/namespaces/test/pods", first.getRequestUrl().encodedPath());
+        assertEquals("status.phase=Failed", first.getRequestUrl().queryParameter("fieldSelector"));
+        assertEquals("2", first.getRequestUrl().queryParameter("limit"));
+        assertNull(first.getRequestUrl().queryParameter("continue"));
+        assertEquals("next", server.takeRequest().getRequestUrl().queryParameter("continue"));
+    }
+
+    @Test
+    public void shouldStopWhenServerIgnoresLimit() {
+        server.enqueue(new MockResponse().setBody(page(null, "a", "b", "c")));
+
+        PodList page = ListPager.of(client, (BaseOperation<Pod, PodList, ?, ?>) client.pods().inNamespace("test")).page(null);
+
+        assertEquals(3, page.getItems().size());
+        assertNull(ListPager.continueOf(page));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void shouldCountUsingRemainingItemCount() throws Exception {
+        server.enqueue(new MockResponse().setBody(page("next", 41L, "a")));
+
+        long count = ListPager.of(client, (BaseOperation<Pod, PodList, ?, ?>) client.pods().inNamespace("test")).count();
+
+        assertEquals(42, count);
+        assertEquals(1, server.getRequestCount());
+        assertEquals("1", server.takeRequest().getRequestUrl().queryParameter("limit"));
+    }
+
+    @Test
+    public void shouldCountPagesWithoutRemainingItemCount() throws Exception {
+        server.enqueue(new MockResponse().setBody(page("next", "a")));
+        server.enqueue(new MockResponse().setBody(page(null, "b", "c")));
+
+        long count = ListPager.of(client, (BaseOperation<Pod, PodList, ?, ?>) client.pods().inNamespace("test")).count();
+
+        assertEquals(3, count);
+        assertEquals("1", server.takeRequest().getRequestUrl().queryParameter("limit"));
+        RecordedRequest second = server.takeRequest();
+        assertEquals(String.valueOf(ListPager.DEFAULT_PAGE_SIZE), second.getRequestUrl().queryParameter("limit"));
+        assertEquals("next", second.getRequestUrl().queryParameter("continue"));
+    }
+
+    @Test
+    public void shouldAskForMetadataOnly() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"kind\":\"PartialObjectMetadataList\",\"apiVersion\":\"meta.k8s.io/v1\",\"metadata\":{},\"items\":["
+                + "{\"kind\":\"PartialObjectMetadata\",\"apiVersion\":\"meta.k8s.io/v1\",\"metadata\":{\"name\":\"a\",\"namespace\":\"test\"}}]}"));
+
+        PodList page = ListPager.of(client, (BaseOperation<Pod, PodList, ?, ?>) client.pods().inNamespace("test")).metadataOnly().page(null);
+
+        assertEquals("a", page.getItems().get(0).getMetadata().getName());
+        assertNull(page.getItems().get(0).getSpec());
+        assertEquals(ListPager.METADATA_ONLY_ACCEPT, server.takeRequest().getHeader("Accept"));
+    }
+
+    @Test
+    public void shouldDecodeSummariesByContentType() throws Exception {
+        byte[] protobuf = ProtobufLists.encode(new PodListBuilder().addToItems(new PodBuilder().withNewMetadata().withName("a").endMetadata().build()).build(), "next");
+        server.enqueue(new MockResponse().setHeader("Content-Type", ProtobufSummaryDecoder.CONTENT_TYPE).setBody(new Buffer().write(protobuf)));
+        //Types that are not served in protobuf come back as JSON.
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody(page(null, "b")));
+
+        List<String> names = new ArrayList<>();
+        ListPager.of(client, (BaseOperation<Pod, PodList, ?, ?>) client.pods().inNamespace("test")).metadataOnly().protobuf()
+                .forEachSummary(s -> names.add(s.getName()));
+
+        assertEquals(Arrays.asList("a", "b"), names);
+        assertEquals(ListPager.PROTOBUF_METADATA_ONLY_ACCEPT, server.takeRequest().getHeader("Accept"));
+        assertEquals("next", server.takeRequest().getRequestUrl().queryParameter("continue"));
+    }
+
+    @Test
+    public void shouldNotAskForProtobufForOpenshiftTypes() throws Exception {
+        try (OpenShiftClient openshift = new DefaultOpenShiftClient(new ConfigBuilder().withMasterUrl(server.url("/").toString()).withNamespace("test").build())) {
+            //The client checks the API root, to tell the legacy /oapi root from the API groups.
+            server.enqueue(new MockResponse().setBody("{\"paths\":[\"/api\",\"/oapi\"]}"));
+            BaseOperation<DeploymentConfig, DeploymentConfigList, ?, ?> operation = (BaseOperation<DeploymentConfig, DeploymentConfigList, ?, ?>) openshift.deploymentConfigs();
+            server.takeRequest();
+            server.enqueue(new MockResponse().setBody("{\"kind\":\"DeploymentConfigList\",\"metadata\":{},\"items\":[{\"metadata\":{\"name\":\"a\"}}]}"));
+            List<String> names = new ArrayList<>();
+            ListPager.of(openshift, operation).protobuf().forEachSummary(s -> names.add(s.getName()));
+
+            assertEquals(Arrays.asList("a"), names);
+            RecordedRequest request = server.takeRequest();
+            assertEquals("/oapi/v1/namespaces/test/deploymentconfigs", request.getRequestUrl().encodedPath());
+            assertNull(request.getHeader("Accept"));
+        }
+    }
+
+    @Test(expected = KubernetesClientException.class)
+    public void shouldFailOnErrorResponse() {
+        server.enqueue(new MockResponse().setResponseCode(403).setBody("{\"kind\":\"Status\",\"code\":403,\"message\":\"forbidden\"}"));
+        ListPager.of(client, (BaseOperation<Pod, PodList, ?, ?>) client.pods().inNamespace("test")).page(null);
+    }
+
+    private static String page(String continueToken, String... names) {
+        return page(continueToken, null, names);
+    }
+
+    private static String page(String continueToken, Long remainingItemCount, String... names) {
+        StringBuilder sb = new StringBuilder("{\"kind\":\"PodList\",\"apiVersion\":\"v1\",\"metadata\":{\"resourceVersion\":\"1\"");
+        if (continueToken != null) {
+            sb.append(",\"continue\":\"").append(continueToken).append("\"");
+        }
+        if (remainingItemCount != null) {
+            sb.append(",\"remainingItemCount\":").append(remainingItemCount);
+        }
+        sb.append("},\"items\":[");
+        for (int i = 0; i < names.length; i++) {
+            sb.append(i > 0 ? "," : "").append("{\"metadata\":{\"name\":\"").append(names[i]).append("\",\"namespace\":\"test\"}}");
+        }
+        return sb.append("]}").toString();
+    }
+}
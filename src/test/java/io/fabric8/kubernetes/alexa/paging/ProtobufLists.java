@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.paging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.client.utils.Serialization;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Encodes lists the way the API server does in protobuf, for tests and benchmarks.
+ * The fields of a summary are encoded as the real thing. Specs and the rest of statuses are encoded as opaque messages
+ * of the same size as their JSON, which is what any decoder that doesn't need them sees: a length and bytes to skip.
+ */
+public final class ProtobufLists {
+
+    private static final byte[] MAGIC = {'k', '8', 's', 0};
+
+    private ProtobufLists() {
+        //Utility class
+    }
+
+    /**
+     * @param list          The list.
+     * @param continueToken The continue token of the list or null.
+     * @return              The list, as the API server would send it in protobuf.
+     */
+    public static byte[] encode(KubernetesResourceList<? extends HasMetadata> list, String continueToken) throws JsonProcessingException {
+        Message listMeta = new Message().string(2, "1").string(3, continueToken);
+        Message raw = new Message().message(1, listMeta);
+        for (HasMetadata item : list.getItems()) {
+            raw.message(2, encodeItem(item));
+        }
+
+        Message typeMeta = new Message().string(1, "v1").string(2, list.getClass().getSimpleName());
+        Message unknown = new Message().message(1, typeMeta).message(2, raw).string(3, "").string(4, "");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(MAGIC, 0, MAGIC.length);
+        byte[] bytes = unknown.toByteArray();
+        out.write(bytes, 0, bytes.length);
+        return out.toByteArray();
+    }
+
+    private static Message encodeItem(HasMetadata item) throws JsonProcessingException {
+        ObjectMeta metadata = item.getMetadata();
+        Message meta = new Message().string(1, metadata.getName()).string(3, metadata.getNamespace()).string(5, metadata.getUid());
+        if (metadata.getLabels() != null) {
+            for (Map.Entry<String, String> label : metadata.getLabels().entrySet()) {
+                meta.message(11, new Message().string(1, label.getKey()).string(2, label.getValue()));
+            }
+        }
+        if (metadata.getAnnotations() != null) {
+            for (Map.Entry<String, String> annotation : metadata.getAnnotations().entrySet()) {
+                meta.message(12, new Message().string(1, annotation.getKey()).string(2, annotation.getValue()));
+            }
+        }
+
+        Message result = new Message().message(1, meta);
+        if (item instanceof Pod) {
+            Pod pod = (Pod) item;
+            result.opaque(2, pod.getSpec());
+            if (pod.getStatus() != null) {
+                result.message(3, new Message().string(1, pod.getStatus().getPhase()).opaque(7, pod.getStatus().getConditions()));
+            }
+        } else if (item instanceof Service) {
+            Service service = (Service) item;
+            result.opaque(2, service.getSpec());
+            if (service.getStatus() != null) {
+                //Unlike the phase of pods, field 1 of the status of a service is a message.
+                result.message(3, new Message().opaque(1, service.getStatus().getLoadBalancer()));
+            }
+        }
+        return result;
+    }
+
+    private static final class Message {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Message string(int field, String value) {
+            return value != null ? bytes(field, value.getBytes(StandardCharsets.UTF_8)) : this;
+        }
+
+        Message message(int field, Message message) {
+            return bytes(field, message.toByteArray());
+        }
+
+        Message opaque(int field, Object value) throws JsonProcessingException {
+            return value != null ? bytes(field, Serialization.jsonMapper().writeValueAsBytes(value)) : this;
+        }
+
+        private Message bytes(int field, byte[] value) {
+            varint((field << 3) | 2);
+            varint(value.length);
+            out.write(value, 0, value.length);
+            return this;
+        }
+
+        private void varint(long value) {
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                out.write((int) ((remaining & 0x7F) | 0x80));
+                remaining >>>= 7;
+            }
+            out.write((int) remaining);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+}
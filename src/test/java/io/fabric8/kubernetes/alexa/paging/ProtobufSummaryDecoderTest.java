@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.paging;
+
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.ServiceListBuilder;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ProtobufSummaryDecoderTest {
+
+    @Test
+    public void shouldExtractSummaries() throws Exception {
+        byte[] bytes = ProtobufLists.encode(new PodListBuilder()
+                .addToItems(new PodBuilder()
+                        .withNewMetadata().withName("web-1").withNamespace("test").withUid("1").addToLabels("app", "web").addToLabels("tier", "front").addToAnnotations("note", "ignored").endMetadata()
+                        .withNewSpec().addNewContainer().withName("web").withImage("nginx").endContainer().endSpec()
+                        .withNewStatus().withPhase("Running").addNewCondition().withType("Ready").withStatus("True").endCondition().endStatus()
+                        .build())
+                .addToItems(new PodBuilder().withNewMetadata().withName("web-2").endMetadata().build())
+                .build(), "next");
+
+        List<ResourceSummary> summaries = new ArrayList<>();
+        String continueToken = ProtobufSummaryDecoder.decode(new ByteArrayInputStream(bytes), summaries::add);
+
+        assertEquals("next", continueToken);
+        assertEquals(2, summaries.size());
+        ResourceSummary first = summaries.get(0);
+        assertEquals("web-1", first.getName());
+        assertEquals("test", first.getNamespace());
+        assertEquals("Running", first.getPhase());
+        assertEquals(2, first.getLabels().size());
+        assertEquals("front", first.getLabels().get("tier"));
+        assertEquals("web-2", summaries.get(1).getName());
+        assertNull(summaries.get(1).getNamespace());
+    }
+
+    @Test
+    public void shouldOnlyReadPhaseOfPodsAndNamespaces() throws Exception {
+        byte[] bytes = ProtobufLists.encode(new ServiceListBuilder()
+                .addToItems(new ServiceBuilder().withNewMetadata().withName("a").endMetadata()
+                        .withNewStatus().withNewLoadBalancer().addNewIngress().withIp("10.0.0.1").endIngress().endLoadBalancer().endStatus()
+                        .build())
+                .addToItems(new ServiceBuilder().withNewMetadata().withName("b").endMetadata().build())
+                .build(), null);
+
+        List<String> names = new ArrayList<>();
+        assertNull(ProtobufSummaryDecoder.decode(new ByteArrayInputStream(bytes), s -> {
+            assertNull(s.getPhase());
+            names.add(s.getName());
+        }));
+        assertEquals(Arrays.asList("a", "b"), names);
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectJson() throws Exception {
+        ProtobufSummaryDecoder.decode(new ByteArrayInputStream("{\"items\":[]}".getBytes("UTF-8")), s -> fail());
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectTruncatedMessage() throws Exception {
+        byte[] bytes = ProtobufLists.encode(new PodListBuilder()
+                .addToItems(new PodBuilder().withNewMetadata().withName("web-1").endMetadata().build())
+                .build(), null);
+        ProtobufSummaryDecoder.decode(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3)), s -> { });
+    }
+}
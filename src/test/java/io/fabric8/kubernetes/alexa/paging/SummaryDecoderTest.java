@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.paging;
+
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SummaryDecoderTest {
+
+    @Test
+    public void shouldExtractSummaries() throws Exception {
+        PodList list = new PodListBuilder()
+                .withNewMetadata().withResourceVersion("12").endMetadata()
+                .addToItems(new PodBuilder()
+                        .withNewMetadata().withName("web-1").withNamespace("test").addToLabels("app", "web").addToAnnotations("note", "{\"name\":\"nested\"}").endMetadata()
+                        .withNewSpec().addNewContainer().withName("web").withImage("nginx").addNewEnv().withName("name").withValue("ignored").endEnv().endContainer().endSpec()
+                        .withNewStatus().withPhase("Running").addNewCondition().withType("Ready").withStatus("True").endCondition().endStatus()
+                        .build())
+                .addToItems(new PodBuilder().withNewMetadata().withName("web-2").withNamespace("test").endMetadata().build())
+                .build();
+        list.getMetadata().setAdditionalProperty(ListPager.CONTINUE, "next");
+
+        List<ResourceSummary> summaries = new ArrayList<>();
+        String continueToken = decode(Serialization.jsonMapper().writeValueAsString(list), summaries);
+
+        assertEquals("next", continueToken);
+        assertEquals(2, summaries.size());
+        ResourceSummary first = summaries.get(0);
+        assertEquals("web-1", first.getName());
+        assertEquals("test", first.getNamespace());
+        assertEquals("Running", first.getPhase());
+        assertEquals("web", first.getLabels().get("app"));
+        assertEquals(1, first.getLabels().size());
+        assertNull(summaries.get(1).getPhase());
+        assertTrue(summaries.get(1).getLabels().isEmpty());
+    }
+
+    @Test
+    public void shouldReadItemsBeforeMetadata() throws Exception {
+        List<ResourceSummary> summaries = new ArrayList<>();
+        String continueToken = decode("{\"items\":[{\"metadata\":{\"name\":\"a\"}}],\"kind\":\"PartialObjectMetadataList\",\"metadata\":{\"continue\":\"\"}}", summaries);
+
+        assertNull(continueToken);
+        assertEquals("a", summaries.get(0).getName());
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectNonList() throws Exception {
+        decode("[]", new ArrayList<>());
+    }
+
+    private static String decode(String json, List<ResourceSummary> summaries) throws IOException {
+        return SummaryDecoder.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), summaries::add);
+    }
+}
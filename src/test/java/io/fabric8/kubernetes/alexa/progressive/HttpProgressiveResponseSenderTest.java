@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.progressive;
+
+import io.fabric8.kubernetes.alexa.deadline.Deadline;
+import io.fabric8.kubernetes.alexa.deadline.RequestScope;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class HttpProgressiveResponseSenderTest {
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void shouldPostSpeakDirective() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(204));
+        String endpoint = server.url("/").toString().replaceAll("/$", "");
+
+        new HttpProgressiveResponseSender().send(new RequestScope(Deadline.after(1, TimeUnit.SECONDS), "request-1", endpoint, "token"), "Checking");
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("/v1/directives", request.getPath());
+        assertEquals("Bearer token", request.getHeader("Authorization"));
+        assertEquals("{\"header\":{\"requestId\":\"request-1\"},\"directive\":{\"type\":\"VoicePlayer.Speak\",\"speech\":\"Checking\"}}",
+                request.getBody().readUtf8());
+    }
+
+    @Test
+    public void shouldSkipRequestsWithoutToken() throws Exception {
+        new HttpProgressiveResponseSender().send(new RequestScope(Deadline.after(1, TimeUnit.SECONDS), "request-1", server.url("/").toString(), null), "Checking");
+        assertEquals(0, server.getRequestCount());
+    }
+}
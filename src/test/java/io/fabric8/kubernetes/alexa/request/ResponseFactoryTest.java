@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.request;
+
+import com.amazon.speech.speechlet.SpeechletResponse;
+import com.amazon.speech.ui.PlainTextOutputSpeech;
+import com.amazon.speech.ui.SimpleCard;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ResponseFactoryTest {
+
+    @Test
+    public void shouldSpellOutTheTypeAsTheAction() {
+        SpeechletResponse response = ResponseFactory.forType("GetFailingPods").newResponse("None");
+
+        SimpleCard card = (SimpleCard) response.getCard();
+        assertEquals(ResponseFactory.DEFAULT_TITLE, card.getTitle());
+        assertEquals("Get Failing Pods", card.getContent());
+        assertEquals("None", ((PlainTextOutputSpeech) response.getOutputSpeech()).getText());
+        assertFalse(response.getShouldEndSession());
+        assertNull(response.getReprompt());
+    }
+
+    @Test
+    public void shouldAddReprompt() {
+        SpeechletResponse response = ResponseFactory.forType("Launch").newResponse("Welcome", "Still there?");
+
+        assertEquals("Welcome", ((PlainTextOutputSpeech) response.getOutputSpeech()).getText());
+        assertEquals("Still there?", ((PlainTextOutputSpeech) response.getReprompt().getOutputSpeech()).getText());
+    }
+
+    @Test
+    public void shouldPrefixFailures() {
+        ResponseFactory factory = ResponseFactory.forType("GetPods");
+
+        assertEquals("Failed to Get Pods!", ((PlainTextOutputSpeech) factory.newFailureNotice(null).getOutputSpeech()).getText());
+        assertEquals("Failed to Get Pods!Forbidden", ((PlainTextOutputSpeech) factory.newFailureNotice("Forbidden").getOutputSpeech()).getText());
+    }
+
+    @Test
+    public void shouldReuseTheSpeechBuffer() {
+        StringBuilder first = ResponseFactory.speech().append("first");
+        SpeechletResponse response = ResponseFactory.forType("GetPods").newResponse(first);
+        StringBuilder second = ResponseFactory.speech();
+
+        assertSame(first, second);
+        assertEquals(0, second.length());
+        assertEquals("first", ((PlainTextOutputSpeech) response.getOutputSpeech()).getText());
+    }
+
+    @Test
+    public void shouldNotRetainLargeSpeechBuffers() {
+        StringBuilder large = ResponseFactory.speech();
+        large.ensureCapacity(64 * 1024);
+
+        assertNotSame(large, ResponseFactory.speech());
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2017 original authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.fabric8.kubernetes.alexa.server;
+
+import io.fabric8.kubernetes.alexa.KubernetesClients;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class AlexaServerTest {
+
+    private static final String SKILL_ID = "amzn1.ask.skill.8a8757bd-8380-449b-947c-612a42e069e3";
+
+    private MockWebServer kubernetes;
+    private AlexaServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        kubernetes = new MockWebServer();
+        kubernetes.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().startsWith("/api/v1/namespaces/syndesis-ci/pods")) {
+                    return new MockResponse().setBody("{\"kind\":\"PodList\",\"items\":[{\"metadata\":{\"name\":\"web-1\",\"namespace\":\"syndesis-ci\"}}]}");
+                } else if (request.getPath().startsWith("/api/v1/namespaces")) {
+                    return new MockResponse().setBody("{\"kind\":\"NamespaceList\",\"items\":[{\"metadata\":{\"name\":\"syndesis-ci\"}}]}");
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        kubernetes.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (server != null) {
+            server.close();
+        }
+        kubernetes.shutdown();
+    }
+
+    @Test
+    public void shouldAnswerAlexaRequests() throws Exception {
+        start(false);
+
+        HttpURLConnection connection = post(getPodsRequest());
+        assertEquals(HttpURLConnection.HTTP_OK, connection.getResponseCode());
+        assertTrue(read(connection.getInputStream()).contains("The available pods in namespace syndesis-ci are: web-1"));
+    }
+
+    @Test
+    public void shouldExposeMetrics() throws Exception {
+        start(false);
+        assertEquals(HttpURLConnection.HTTP_OK, post(getPodsRequest()).getResponseCode());
+
+        HttpURLConnection connection = open(AlexaServer.METRICS_PATH);
+        assertEquals(HttpURLConnection.HTTP_OK, connection.getResponseCode());
+        String metrics = read(connection.getInputStream());
+        assertTrue(metrics.contains("alexa_request_duration_seconds_count{intent=\"GetPods\"}"));
+        assertTrue(metrics.contains("alexa_kubernetes_request_duration_seconds_count{intent=\"GetPods\"}"));
+    }
+
+    @Test
+    public void shouldRejectUnsignedRequests() throws Exception {
+        start(true);
+
+        assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, post(getPodsRequest()).getResponseCode());
+    }
+
+    @Test
+    public void shouldRejectRequestsOfOtherSkills() throws Exception {
+        start(false);
+
+        String request = getPodsRequest().replace(SKILL_ID, "amzn1.ask.skill.other");
+        assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, post(request).getResponseCode());
+    }
+
+    @Test
+    public void shouldOnlyAcceptPost() throws Exception {
+        start(false);
+
+        assertEquals(HttpURLConnection.HTTP_BAD_METHOD, open(AlexaServer.ALEXA_PATH).getResponseCode());
+    }
+
+    @Test
+    public void shouldReportHealthAndReadiness() throws Exception {
+        start(false);
+
+        assertEquals(HttpURLConnection.HTTP_OK, open(AlexaServer.HEALTH_PATH).getResponseCode());
+        //Caches are not enabled, so there is nothing to wait for.
+        assertEquals(HttpURLConnection.HTTP_OK, open(AlexaServer.READY_PATH).getResponseCode());
+    }
+
+    private void start(boolean verifySignatures) throws IOException {
+        server = new AlexaServer(KubernetesClients.create(new ConfigBuilder().withMasterUrl(kubernetes.url("/").toString()).build()),
+                Collections.singleton(SKILL_ID), 0, verifySignatures).start();
+    }
+
+    private HttpURLConnection open(String path) throws IOException {
+        return (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+    }
+
+    private HttpURLConnection post(String body) throws IOException {
+        HttpURLConnection connection = open(AlexaServer.ALEXA_PATH);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    //The recorded request is old, so refresh its timestamp to get it past the timestamp verifier.
+    private String getPodsRequest() throws IOException {
+        return read(getClass().getResourceAsStream("/get-pods.json"))
+                .replace("2017-09-05T20:26:46Z", Instant.now().truncatedTo(ChronoUnit.SECONDS).toString());
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (InputStream input = in) {
+            return IOUtils.toString(input, StandardCharsets.UTF_8);
+        }
+    }
+}